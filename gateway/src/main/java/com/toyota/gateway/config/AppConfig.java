@@ -1,8 +1,10 @@
 package com.toyota.gateway.config;
 
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
 
 @Configuration
 public class AppConfig {
@@ -11,4 +13,13 @@ public class AppConfig {
     public RestTemplate template(){
         return new RestTemplate();
     }
+
+    /**
+     * WebClient builder resolving service names through Eureka, used to fetch the token signing keys.
+     */
+    @Bean
+    @LoadBalanced
+    public WebClient.Builder loadBalancedWebClientBuilder(){
+        return WebClient.builder();
+    }
 }
@@ -1,5 +1,10 @@
 package com.toyota.gateway.constant;
 
 public class Constant {
-    public static final String SECRET = "5367566B59703373367639792F423F4528482B4D6251655468576D5A71347437";
+    public static final String USER_HEADER = "X-Auth-User";
+    public static final String ROLES_HEADER = "X-Auth-Roles";
+    public static final String TIMESTAMP_HEADER = "X-Auth-Timestamp";
+    public static final String SIGNATURE_HEADER = "X-Auth-Signature";
+    public static final String INTERNAL_KEY_HEADER = "X-Internal-Key";
+    public static final String[] IDENTITY_HEADERS = {USER_HEADER, ROLES_HEADER, TIMESTAMP_HEADER, SIGNATURE_HEADER};
 }
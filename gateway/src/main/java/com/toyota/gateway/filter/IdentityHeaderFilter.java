@@ -0,0 +1,33 @@
+package com.toyota.gateway.filter;
+
+import com.toyota.gateway.constant.Constant;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Drops the identity headers a client sent on every route, including routes without a
+ * {@link RoleAuthorizationFilter}. Only that filter sets them, after the token has been verified.
+ */
+@Component
+public class IdentityHeaderFilter implements GlobalFilter, Ordered {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        return chain.filter(exchange.mutate()
+                .request(r -> r.headers(headers -> {
+                    for (String header : Constant.IDENTITY_HEADERS) {
+                        headers.remove(header);
+                    }
+                }))
+                .build());
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,107 @@
+package com.toyota.gateway.filter;
+
+import com.toyota.gateway.constant.Constant;
+import com.toyota.gateway.exception.UnauthorizedException;
+import com.toyota.gateway.util.IdentitySigner;
+import com.toyota.gateway.util.JwtPrincipal;
+import com.toyota.gateway.util.JwtUtil;
+import com.toyota.gateway.util.Role;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lets a request through only if its token has one of the roles configured on the route, e.g.
+ * {@code - RoleAuthorizationFilter=CASHIER} or {@code - RoleAuthorizationFilter=MANAGER,ADMIN}.
+ * The verified username and roles are forwarded to the service in the {@link Constant#USER_HEADER}
+ * and {@link Constant#ROLES_HEADER} headers, signed by {@link IdentitySigner} together with the
+ * {@link Constant#TIMESTAMP_HEADER} so the service can reject headers that did not come from here.
+ * Values sent by the client in those headers are dropped by {@link IdentityHeaderFilter} on every route.
+ */
+@Component
+public class RoleAuthorizationFilter extends AbstractGatewayFilterFactory<RoleAuthorizationFilter.Config> {
+    public static Logger logger = LogManager.getLogger(RoleAuthorizationFilter.class);
+    private final RouteValidator validator;
+    private final JwtUtil jwtUtil;
+    private final IdentitySigner identitySigner;
+
+    public RoleAuthorizationFilter(RouteValidator validator, JwtUtil jwtUtil, IdentitySigner identitySigner) {
+        super(Config.class);
+        this.validator = validator;
+        this.jwtUtil = jwtUtil;
+        this.identitySigner = identitySigner;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("roles");
+    }
+
+    @Override
+    public ShortcutType shortcutType() {
+        return ShortcutType.GATHER_LIST;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        long requiredRoles;
+        try {
+            requiredRoles = Role.requiredMaskOf(config.getRoles());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid RoleAuthorizationFilter roles " + config.getRoles() + ": " + e.getMessage());
+        }
+        String deniedMessage = "User does not have " + String.join(" or ", config.getRoles()) + " role. Access denied";
+
+        return ((exchange, chain) -> {
+            if (!validator.isSecured.test(exchange.getRequest())) {
+                return chain.filter(exchange);
+            }
+
+            String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+            if (authHeader == null) {
+                logger.warn("Missing authorization header. Access denied");
+                throw new UnauthorizedException("Missing authorization header. Access denied");
+            }
+
+            if (authHeader.startsWith("Bearer ")) {
+                authHeader = authHeader.substring(7);
+            }
+
+            JwtPrincipal principal = jwtUtil.verify(authHeader);
+            if (!principal.hasAnyRole(requiredRoles)) {
+                logger.warn(deniedMessage);
+                throw new UnauthorizedException(deniedMessage);
+            }
+
+            String roles = String.join(",", principal.roles());
+            long timestamp = Instant.now().getEpochSecond();
+            return chain.filter(exchange.mutate()
+                    .request(r -> r.headers(headers -> {
+                        headers.set(Constant.USER_HEADER, principal.subject());
+                        headers.set(Constant.ROLES_HEADER, roles);
+                        headers.set(Constant.TIMESTAMP_HEADER, Long.toString(timestamp));
+                        headers.set(Constant.SIGNATURE_HEADER, identitySigner.sign(principal.subject(), roles, timestamp));
+                    }))
+                    .build());
+        });
+    }
+
+    public static class Config {
+        private List<String> roles = new ArrayList<>();
+
+        public List<String> getRoles() {
+            return roles;
+        }
+
+        public void setRoles(List<String> roles) {
+            this.roles = roles;
+        }
+    }
+}
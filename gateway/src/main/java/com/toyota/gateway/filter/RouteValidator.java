@@ -1,22 +1,43 @@
 package com.toyota.gateway.filter;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.server.PathContainer;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import java.util.List;
 import java.util.function.Predicate;
 
 @Component
 public class RouteValidator {
-    public static final List<String> openApiEndpoints = List.of(
-            "/auth/token",
-            "/auth/validate", //can delete
-            "/eureka"
-    );
+    private final PathPattern[] openApiEndpoints;
+
+    public RouteValidator(@Value("${gateway.open-endpoints}") List<String> openApiEndpoints) {
+        PathPatternParser parser = new PathPatternParser();
+        this.openApiEndpoints = openApiEndpoints.stream()
+                .map(String::trim)
+                .map(parser::parse)
+                .toArray(PathPattern[]::new);
+    }
 
     public Predicate<ServerHttpRequest> isSecured =
-            request -> openApiEndpoints
-                    .stream()
-                    .noneMatch(uri -> request.getURI().getPath().contains(uri));
+            request -> !isOpen(request.getPath().pathWithinApplication());
+
+    /**
+     * Checks the path against the open endpoint patterns, which are parsed once at startup.
+     *
+     * @param path The request path.
+     * @return true if the path does not need a token.
+     */
+    public boolean isOpen(PathContainer path) {
+        for (PathPattern pattern : openApiEndpoints) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
 
 }
@@ -0,0 +1,69 @@
+package com.toyota.gateway.util;
+
+/**
+ * A fixed-size Bloom filter over (kind, value) string pairs. It answers "definitely not present" without
+ * touching the exact set, so the common case of a token that was never revoked costs a few array reads.
+ * Immutable once built; {@link RevocationList} builds a new one whenever the revocations change.
+ */
+final class BloomFilter {
+    private static final double LN2 = Math.log(2);
+    private final long[] bits;
+    private final int bitCount;
+    private final int hashCount;
+
+    /**
+     * @param expectedEntries How many entries the filter is sized for.
+     * @param falsePositiveRate The false positive rate at that many entries.
+     */
+    BloomFilter(int expectedEntries, double falsePositiveRate) {
+        int entries = Math.max(expectedEntries, 1);
+        long size = (long) Math.ceil(-entries * Math.log(falsePositiveRate) / (LN2 * LN2));
+        this.bitCount = (int) Math.min(Math.max(size, 64), Integer.MAX_VALUE - 63);
+        this.bits = new long[(bitCount + 63) / 64];
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / entries * LN2));
+    }
+
+    void put(String kind, String value) {
+        long hash = hash(kind, value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bitCount);
+            bits[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    boolean mightContain(String kind, String value) {
+        long hash = hash(kind, value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 64-bit FNV-1a over both strings with a separator, finished with a murmur3 mix so both halves of the
+     * result are usable as independent hashes. Hashing the parts avoids building a key string per request.
+     */
+    private static long hash(String kind, String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < kind.length(); i++) {
+            hash = (hash ^ kind.charAt(i)) * 0x100000001b3L;
+        }
+        hash = (hash ^ ':') * 0x100000001b3L;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
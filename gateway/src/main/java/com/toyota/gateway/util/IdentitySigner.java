@@ -0,0 +1,52 @@
+package com.toyota.gateway.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+
+/**
+ * Signs the identity the gateway forwards to the services with HMAC-SHA256, so a service can tell headers
+ * set here from headers a client sent to it directly. The services verify with the same shared secret.
+ */
+@Component
+public class IdentitySigner {
+    private static final String ALGORITHM = "HmacSHA256";
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> mac;
+
+    public IdentitySigner(@Value("${security.identity.secret}") String secret) {
+        if (secret == null || secret.length() < 32) {
+            throw new IllegalArgumentException("security.identity.secret must be at least 32 characters");
+        }
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.mac = ThreadLocal.withInitial(this::newMac);
+    }
+
+    /**
+     * Signs the forwarded identity.
+     *
+     * @param username  The verified username.
+     * @param roles     The verified roles, comma separated as forwarded.
+     * @param timestamp The epoch second the identity was forwarded at.
+     * @return The Base64url encoded signature.
+     */
+    public String sign(String username, String roles, long timestamp) {
+        byte[] payload = (username + "\n" + roles + "\n" + timestamp).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(mac.get().doFinal(payload));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac instance = Mac.getInstance(ALGORITHM);
+            instance.init(key);
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.toyota.gateway.util;
+
+/**
+ * A public key published by the token service, as described by RFC 7517.
+ *
+ * @param kty The key type, "EC".
+ * @param crv The curve of the key, "P-256".
+ * @param kid The ID tokens signed with this key carry in their header.
+ * @param use The use of the key, "sig".
+ * @param alg The algorithm the key signs with, "ES256".
+ * @param x The x coordinate of the public point, Base64url.
+ * @param y The y coordinate of the public point, Base64url.
+ */
+public record JsonWebKey(String kty, String crv, String kid, String use, String alg, String x, String y) {
+}
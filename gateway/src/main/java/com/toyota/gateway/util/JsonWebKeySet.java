@@ -0,0 +1,11 @@
+package com.toyota.gateway.util;
+
+import java.util.List;
+
+/**
+ * The key set served by the token service at /auth/jwks.
+ *
+ * @param keys The keys tokens may currently be signed with.
+ */
+public record JsonWebKeySet(List<JsonWebKey> keys) {
+}
@@ -0,0 +1,133 @@
+package com.toyota.gateway.util;
+
+import com.toyota.gateway.exception.UnauthenticatedException;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigInteger;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Supplies the public keys tokens are verified with. The key set is fetched from the token service and
+ * kept in memory, so verifying a token never calls the token service. The set is refreshed on an interval;
+ * the token service publishes a new key before it signs with it, so a refresh normally sees a key first.
+ * A token with an unknown key ID starts an early refresh, at most once per {@link #UNKNOWN_KEY_REFRESH}.
+ */
+@Component
+public class JwksKeyResolver extends SigningKeyResolverAdapter {
+    private static Logger logger = LogManager.getLogger(JwksKeyResolver.class);
+    private static final Duration FETCH_TIMEOUT = Duration.ofSeconds(5);
+    static final Duration UNKNOWN_KEY_REFRESH = Duration.ofSeconds(10);
+    private final WebClient webClient;
+    private final String jwksUri;
+    private final AtomicLong lastUnknownKeyRefresh = new AtomicLong();
+    private volatile Map<String, PublicKey> keys = Map.of();
+
+    public JwksKeyResolver(WebClient.Builder webClientBuilder,
+                           @Value("${gateway.jwks.uri:http://token/auth/jwks}") String jwksUri) {
+        this.webClient = webClientBuilder.build();
+        this.jwksUri = jwksUri;
+    }
+
+    @Override
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        if (!SignatureAlgorithm.ES256.getValue().equals(header.getAlgorithm())) {
+            logger.warn("Token signed with " + header.getAlgorithm());
+            throw new UnauthenticatedException("Invalid token");
+        }
+        PublicKey key = header.getKeyId() == null ? null : keys.get(header.getKeyId());
+        if (key == null) {
+            logger.warn("Token signed with unknown key " + header.getKeyId());
+            refreshForUnknownKey();
+            throw new UnauthenticatedException("Invalid token");
+        }
+        return key;
+    }
+
+    /**
+     * Fetches the key set from the token service. When the fetch fails the keys already loaded are kept.
+     */
+    @Scheduled(fixedDelayString = "${gateway.jwks.refresh-interval:PT1M}")
+    public void refresh() {
+        fetch().block();
+    }
+
+    /**
+     * Replaces the known keys with the EC P-256 keys of the given set. Other keys are skipped.
+     *
+     * @param keySet The key set published by the token service.
+     */
+    public void update(JsonWebKeySet keySet) {
+        Map<String, PublicKey> updated = new HashMap<>();
+        for (JsonWebKey jwk : keySet.keys()) {
+            if (!"EC".equals(jwk.kty()) || !"P-256".equals(jwk.crv()) || jwk.kid() == null) {
+                logger.warn("Skipping unsupported key " + jwk.kid());
+                continue;
+            }
+            try {
+                updated.put(jwk.kid(), toPublicKey(jwk));
+            } catch (GeneralSecurityException | IllegalArgumentException e) {
+                logger.warn("Skipping invalid key " + jwk.kid() + ": " + e.getMessage());
+            }
+        }
+        keys = Map.copyOf(updated);
+        logger.info("Loaded " + updated.size() + " token signing keys");
+    }
+
+    private void refreshForUnknownKey() {
+        long now = System.nanoTime();
+        long last = lastUnknownKeyRefresh.get();
+        if (last != 0 && now - last < UNKNOWN_KEY_REFRESH.toNanos()) {
+            return;
+        }
+        if (lastUnknownKeyRefresh.compareAndSet(last, now)) {
+            fetch().subscribe();
+        }
+    }
+
+    private Mono<Void> fetch() {
+        return webClient.get()
+                .uri(jwksUri)
+                .retrieve()
+                .bodyToMono(JsonWebKeySet.class)
+                .timeout(FETCH_TIMEOUT)
+                .doOnNext(this::update)
+                .doOnError(e -> logger.warn("Token signing keys could not be loaded: " + e.getMessage()))
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    private static PublicKey toPublicKey(JsonWebKey jwk) throws GeneralSecurityException {
+        AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+        parameters.init(new ECGenParameterSpec("secp256r1"));
+        ECPoint point = new ECPoint(coordinate(jwk.x()), coordinate(jwk.y()));
+        return KeyFactory.getInstance("EC")
+                .generatePublic(new ECPublicKeySpec(point, parameters.getParameterSpec(ECParameterSpec.class)));
+    }
+
+    private static BigInteger coordinate(String value) {
+        return new BigInteger(1, Base64.getUrlDecoder().decode(value));
+    }
+}
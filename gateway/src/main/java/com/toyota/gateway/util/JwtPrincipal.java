@@ -0,0 +1,37 @@
+package com.toyota.gateway.util;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Identity extracted from a verified token.
+ *
+ * @param subject The username the token has issued for.
+ * @param roles The roles in the token's authorities claim.
+ * @param roleMask The bitmask of the gateway {@link Role}s in roles.
+ * @param sessionId The login session in the sid claim, or null.
+ * @param issuedAt The issue time of the token, or null if it has none.
+ * @param expiresAt The expiration time of the token.
+ */
+public record JwtPrincipal(String subject, Set<String> roles, long roleMask, String sessionId, Instant issuedAt,
+                           Instant expiresAt) {
+    public JwtPrincipal {
+        roles = Set.copyOf(roles);
+    }
+
+    public JwtPrincipal(String subject, Set<String> roles, String sessionId, Instant issuedAt, Instant expiresAt) {
+        this(subject, roles, Role.maskOf(roles), sessionId, issuedAt, expiresAt);
+    }
+
+    public JwtPrincipal(String subject, Set<String> roles, Instant expiresAt) {
+        this(subject, roles, null, null, expiresAt);
+    }
+
+    public boolean hasAnyRole(long requiredRoles) {
+        return (roleMask & requiredRoles) != 0;
+    }
+
+    public boolean isExpired(Instant now) {
+        return !now.isBefore(expiresAt);
+    }
+}
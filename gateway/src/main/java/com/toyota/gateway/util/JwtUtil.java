@@ -1,47 +1,106 @@
 package com.toyota.gateway.util;
 
 import com.toyota.gateway.exception.UnauthenticatedException;
-import com.toyota.gateway.exception.UnauthorizedException;
 import io.jsonwebtoken.*;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.math.BigDecimal;
+import java.time.Instant;
 
-import static com.toyota.gateway.constant.Constant.SECRET;
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Component
 public class JwtUtil {
     private static Logger logger = LogManager.getLogger(JwtUtil.class);
+    private final JwtParser parser;
+    private final VerifiedTokenCache tokenCache;
+    private final RevocationList revocationList;
 
-    public boolean validateToken(final String token) {
+    public JwtUtil(VerifiedTokenCache tokenCache, JwksKeyResolver keyResolver, RevocationList revocationList) {
+        this.tokenCache = tokenCache;
+        this.revocationList = revocationList;
+        this.parser = Jwts.parserBuilder().setSigningKeyResolver(keyResolver).build();
+    }
+
+    /**
+     * Verifies the token and returns the identity in it. A token is parsed and verified only
+     * the first time it is seen; later requests are served from the cache until the token expires.
+     * The signature is checked with the token service's public key named in the token header.
+     * Every request is checked against the revocation list, cached tokens included. No token is accepted
+     * before the revocation list has been loaded.
+     *
+     * @param token The raw JWT token.
+     * @return The subject and roles of the token.
+     * @throws UnauthenticatedException If the token is expired, invalid or revoked, or revocations are not loaded yet.
+     */
+    public JwtPrincipal verify(final String token) {
+        if (token == null) {
+            logger.warn("Invalid token");
+            throw new UnauthenticatedException("Invalid token");
+        }
+        if (!revocationList.isLoaded()) {
+            logger.error("Token revocations are not loaded yet");
+            throw new UnauthenticatedException("Token revocations are not loaded yet");
+        }
+
+        JwtPrincipal principal = tokenCache.get(token);
+        if (principal == null) {
+            principal = parse(token);
+            tokenCache.put(token, principal);
+        }
+
+        if (revocationList.isRevoked(principal)) {
+            logger.warn("Revoked token");
+            throw new UnauthenticatedException("Revoked token");
+        }
+        return principal;
+    }
+
+    private JwtPrincipal parse(String token) {
+        Claims claims;
         try {
-            Jwts.parserBuilder().setSigningKey(SECRET).build().parseClaimsJws(token);
-            logger.info("Token has validated");
-            return true;
+            claims = parser.parseClaimsJws(token).getBody();
         } catch (ExpiredJwtException e) {
             logger.warn("Expired token");
             throw new UnauthenticatedException("Expired token");
-        } catch (UnsupportedJwtException | MalformedJwtException | SignatureException | IllegalArgumentException e) {
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.warn("Invalid token");
+            throw new UnauthenticatedException("Invalid token");
+        }
+
+        if (claims.getExpiration() == null) {
             logger.warn("Invalid token");
             throw new UnauthenticatedException("Invalid token");
         }
-    }
 
-    public List<String> getRolesFromToken(String token){
-        Claims claims = Jwts.parser()
-                .setSigningKey(SECRET)
-                .parseClaimsJws(token)
-                .getBody();
+        JwtPrincipal principal = new JwtPrincipal(claims.getSubject(), getRoles(claims), claims.get("sid", String.class),
+                issuedAt(claims),
+                claims.getExpiration().toInstant());
+        logger.info("Token has validated");
+        return principal;
+    }
 
-        List<String> roles = new ArrayList<>();
-        if (claims.get("authorities") != null) {
-            roles = (List<String>) claims.get("authorities");
+    /**
+     * Reads the iat claim with its fraction. Claims#getIssuedAt drops the milliseconds the token service
+     * writes, which the revocation check needs to order a token and a revocation made in the same second.
+     */
+    private static Instant issuedAt(Claims claims) {
+        if (claims.get(Claims.ISSUED_AT) instanceof Number iat) {
+            return Instant.ofEpochMilli(new BigDecimal(iat.toString()).movePointRight(3).longValue());
         }
+        return null;
+    }
 
-        return roles;
+    private Set<String> getRoles(Claims claims) {
+        Object authorities = claims.get("authorities");
+        if (authorities instanceof Collection<?> roles) {
+            return roles.stream().map(String::valueOf).collect(Collectors.toSet());
+        }
+        return Set.of();
     }
 
 }
@@ -0,0 +1,16 @@
+package com.toyota.gateway.util;
+
+import java.time.Instant;
+
+/**
+ * A revocation served by the token service at /auth/revocations.
+ *
+ * @param kind SESSION to match the sid claim, USER to match the subject.
+ * @param target The session ID or the username.
+ * @param revokedAt Tokens issued before this are rejected.
+ * @param expiresAt After this no token the revocation applies to can be valid, so it is dropped.
+ */
+public record Revocation(String kind, String target, Instant revokedAt, Instant expiresAt) {
+    public static final String SESSION = "SESSION";
+    public static final String USER = "USER";
+}
@@ -0,0 +1,173 @@
+package com.toyota.gateway.util;
+
+import com.toyota.gateway.constant.Constant;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The tokens revoked before they expire, checked on every request without a network call. Revocations are
+ * synced from the token service: the first sync loads all of them, later ones only those made since the
+ * newest one seen, minus an overlap that covers transactions committing late. Revocations are stamped with
+ * the database clock, and the cursor is taken from them rather than from this instance's clock, so clock
+ * differences between the services can not move a revocation out of the synced window. A Bloom filter in front of the exact set answers for the tokens that were never revoked,
+ * which are nearly all of them, without building a key or touching the map.
+ * <p>
+ * The token service only answers with the internal key, so the list can not be read through the gateway.
+ * Until the first sync has succeeded the list is not loaded, and {@link JwtUtil} rejects every token
+ * rather than accept ones that may have been revoked.
+ */
+@Component
+public class RevocationList {
+    private static Logger logger = LogManager.getLogger(RevocationList.class);
+    private static final Duration FETCH_TIMEOUT = Duration.ofSeconds(5);
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private final WebClient webClient;
+    private final String revocationsUri;
+    private final String internalKey;
+    private final Duration overlap;
+    private final int expectedEntries;
+    private volatile Snapshot snapshot;
+    private volatile Instant newestRevokedAt;
+    private volatile boolean loaded;
+
+    public RevocationList(WebClient.Builder webClientBuilder,
+                          @Value("${gateway.revocations.uri:http://token/auth/revocations}") String revocationsUri,
+                          @Value("${gateway.revocations.overlap:PT30S}") Duration overlap,
+                          @Value("${gateway.revocations.expected-entries:10000}") int expectedEntries,
+                          @Value("${security.internal.key}") String internalKey) {
+        this.webClient = webClientBuilder.build();
+        this.revocationsUri = revocationsUri;
+        this.internalKey = internalKey;
+        this.overlap = overlap;
+        this.expectedEntries = expectedEntries;
+        this.snapshot = Snapshot.of(Map.of(), expectedEntries);
+    }
+
+    /**
+     * Checks whether the token was issued before its user or its session was revoked.
+     *
+     * @param principal The verified token.
+     * @return true if the token must be rejected.
+     */
+    public boolean isRevoked(JwtPrincipal principal) {
+        Snapshot current = snapshot;
+        return current.revokes(Revocation.USER, principal.subject(), principal.issuedAt())
+                || current.revokes(Revocation.SESSION, principal.sessionId(), principal.issuedAt());
+    }
+
+    /**
+     * Tells whether the revocations have been loaded at least once.
+     *
+     * @return false until the first sync has succeeded.
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Fetches the revocations made since the newest one seen. When the fetch fails the next sync asks for
+     * the same period again. A failure before the first successful sync is logged as an error, since
+     * no token is accepted until then.
+     */
+    @Scheduled(fixedDelayString = "${gateway.revocations.sync-interval:PT5S}")
+    public void sync() {
+        boolean first = !loaded;
+        Instant newest = newestRevokedAt;
+        Instant since = newest == null ? null : newest.minus(overlap);
+        List<Revocation> revocations = webClient.get()
+                .uri(revocationsUri, uri -> since == null ? uri.build() : uri.queryParam("since", since.toString()).build())
+                .header(Constant.INTERNAL_KEY_HEADER, internalKey)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<List<Revocation>>() {})
+                .timeout(FETCH_TIMEOUT)
+                .doOnError(e -> {
+                    if (first) {
+                        logger.error("Token revocations could not be loaded, tokens are rejected until they are: " + e.getMessage());
+                    } else {
+                        logger.warn("Token revocations could not be synced: " + e.getMessage());
+                    }
+                })
+                .onErrorResume(e -> Mono.empty())
+                .block();
+        if (revocations != null) {
+            update(revocations, Instant.now());
+            for (Revocation revocation : revocations) {
+                if (newest == null || revocation.revokedAt().isAfter(newest)) {
+                    newest = revocation.revokedAt();
+                }
+            }
+            newestRevokedAt = newest;
+            loaded = true;
+        }
+    }
+
+    /**
+     * Adds the given revocations and drops the expired ones. The filter is rebuilt only when something changed.
+     *
+     * @param revocations Revocations read from the token service; ones already known are ignored.
+     * @param now The current time.
+     */
+    public synchronized void update(Collection<Revocation> revocations, Instant now) {
+        Map<String, Revocation> entries = new HashMap<>(snapshot.entries());
+        boolean changed = entries.values().removeIf(r -> !r.expiresAt().isAfter(now));
+        for (Revocation revocation : revocations) {
+            if (!revocation.expiresAt().isAfter(now)) {
+                continue;
+            }
+            String key = key(revocation.kind(), revocation.target());
+            Revocation known = entries.get(key);
+            if (known == null || known.revokedAt().isBefore(revocation.revokedAt())) {
+                entries.put(key, revocation);
+                changed = true;
+            }
+        }
+        if (changed) {
+            snapshot = Snapshot.of(entries, expectedEntries);
+            logger.info("Revocation list holds " + entries.size() + " revocations");
+        }
+    }
+
+    public int size() {
+        return snapshot.entries().size();
+    }
+
+    private static String key(String kind, String target) {
+        return kind + ":" + target;
+    }
+
+    private record Snapshot(BloomFilter filter, Map<String, Revocation> entries) {
+        static Snapshot of(Map<String, Revocation> entries, int expectedEntries) {
+            BloomFilter filter = new BloomFilter(Math.max(expectedEntries, entries.size() * 2), FALSE_POSITIVE_RATE);
+            for (Revocation revocation : entries.values()) {
+                filter.put(revocation.kind(), revocation.target());
+            }
+            return new Snapshot(filter, Map.copyOf(entries));
+        }
+
+        /**
+         * The token service writes the iat claim with milliseconds, so a token issued later in the same second
+         * as the revocation is still accepted. Tokens with whole-second iat claims are treated as issued at the
+         * start of their second.
+         */
+        boolean revokes(String kind, String target, Instant issuedAt) {
+            if (target == null || !filter.mightContain(kind, target)) {
+                return false;
+            }
+            Revocation revocation = entries.get(key(kind, target));
+            return revocation != null && (issuedAt == null || issuedAt.isBefore(revocation.revokedAt()));
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.toyota.gateway.util;
+
+import java.util.Collection;
+import java.util.List;
+
+public enum Role {
+    ADMIN,
+    MANAGER,
+    CASHIER;
+
+    public long mask() {
+        return 1L << ordinal();
+    }
+
+    /**
+     * Builds the bitmask of the role names in a token. Names that are not gateway roles are ignored.
+     *
+     * @param roleNames The role names, as written in the token.
+     * @return The bitmask with one bit set for every known role.
+     */
+    public static long maskOf(Collection<String> roleNames) {
+        long mask = 0;
+        for (String roleName : roleNames) {
+            for (Role role : values()) {
+                if (role.name().equals(roleName)) {
+                    mask |= role.mask();
+                }
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Builds the bitmask of role names taken from configuration, where every name must be a gateway role.
+     *
+     * @param roleNames The role names, as written in the route configuration.
+     * @return The bitmask with one bit set for every role.
+     * @throws IllegalArgumentException If no name is given or any name is not a gateway role.
+     */
+    public static long requiredMaskOf(Collection<String> roleNames) {
+        if (roleNames.isEmpty()) {
+            throw new IllegalArgumentException("At least one of the roles " + List.of(values()) + " is required");
+        }
+        long mask = 0;
+        for (String roleName : roleNames) {
+            try {
+                mask |= valueOf(roleName.trim()).mask();
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown role " + roleName + ", expected one of " + List.of(values()));
+            }
+        }
+        return mask;
+    }
+}
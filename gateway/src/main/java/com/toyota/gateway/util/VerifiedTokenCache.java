@@ -0,0 +1,79 @@
+package com.toyota.gateway.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class VerifiedTokenCache {
+    private final Map<String, JwtPrincipal> principals = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    public VerifiedTokenCache(@Value("${gateway.token-cache.max-size:10000}") int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the principal of an already verified token.
+     *
+     * @param token The raw JWT token.
+     * @return The cached principal, or null if the token is not cached or has expired.
+     */
+    public JwtPrincipal get(String token) {
+        String key = hash(token);
+        JwtPrincipal principal = principals.get(key);
+        if (principal != null && principal.isExpired(Instant.now())) {
+            principals.remove(key, principal);
+            return null;
+        }
+        return principal;
+    }
+
+    /**
+     * Caches the principal of a verified token until the token expires.
+     *
+     * @param token The raw JWT token.
+     * @param principal The principal read from the token.
+     */
+    public void put(String token, JwtPrincipal principal) {
+        if (principals.size() >= maxSize) {
+            evict();
+        }
+        principals.put(hash(token), principal);
+    }
+
+    public int size() {
+        return principals.size();
+    }
+
+    /**
+     * Drops expired entries, then arbitrary ones if the cache is still full.
+     */
+    private void evict() {
+        Instant now = Instant.now();
+        principals.values().removeIf(p -> p.isExpired(now));
+
+        Iterator<String> keys = principals.keySet().iterator();
+        while (principals.size() >= maxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
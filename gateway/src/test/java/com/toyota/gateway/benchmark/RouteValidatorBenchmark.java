@@ -0,0 +1,71 @@
+package com.toyota.gateway.benchmark;
+
+import com.toyota.gateway.filter.RouteValidator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Compares the per-request cost of the compiled RouteValidator with the previous
+ * stream and String.contains based check. Run with:
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.toyota.gateway.benchmark.RouteValidatorBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteValidatorBenchmark {
+    private static final List<String> OPEN_ENDPOINTS = List.of("/auth/token", "/auth/validate", "/eureka");
+
+    private final Predicate<ServerHttpRequest> containsValidator =
+            request -> OPEN_ENDPOINTS
+                    .stream()
+                    .noneMatch(uri -> request.getURI().getPath().contains(uri));
+
+    private RouteValidator routeValidator;
+    private ServerHttpRequest securedRequest;
+    private ServerHttpRequest openRequest;
+
+    @Setup
+    public void setUp() {
+        routeValidator = new RouteValidator(List.of("/auth/token", "/auth/validate", "/eureka/**"));
+        securedRequest = MockServerHttpRequest.get("/sales/paged?pageNo=3&pageSize=20").build();
+        openRequest = MockServerHttpRequest.post("/auth/token").build();
+    }
+
+    @Benchmark
+    public boolean containsSecuredPath() {
+        return containsValidator.test(securedRequest);
+    }
+
+    @Benchmark
+    public boolean patternSecuredPath() {
+        return routeValidator.isSecured.test(securedRequest);
+    }
+
+    @Benchmark
+    public boolean containsOpenPath() {
+        return containsValidator.test(openRequest);
+    }
+
+    @Benchmark
+    public boolean patternOpenPath() {
+        return routeValidator.isSecured.test(openRequest);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RouteValidatorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
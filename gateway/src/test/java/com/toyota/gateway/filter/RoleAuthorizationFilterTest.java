@@ -0,0 +1,133 @@
+package com.toyota.gateway.filter;
+
+import com.toyota.gateway.constant.Constant;
+import com.toyota.gateway.exception.UnauthorizedException;
+import com.toyota.gateway.util.IdentitySigner;
+import com.toyota.gateway.util.JwtPrincipal;
+import com.toyota.gateway.util.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RoleAuthorizationFilterTest {
+    private JwtUtil jwtUtil;
+    private GatewayFilterChain chain;
+    private IdentitySigner identitySigner;
+    private RoleAuthorizationFilter filterFactory;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = Mockito.mock(JwtUtil.class);
+        chain = Mockito.mock(GatewayFilterChain.class);
+        when(chain.filter(any())).thenReturn(Mono.empty());
+
+        identitySigner = new IdentitySigner("test-identity-secret-of-at-least-32-chars");
+        filterFactory = new RoleAuthorizationFilter(new RouteValidator(List.of("/auth/token")), jwtUtil, identitySigner);
+    }
+
+    @Test
+    void testApply_whenUserHasOneOfConfiguredRoles_shouldContinueChain() {
+        when(jwtUtil.verify("token")).thenReturn(principal("MANAGER"));
+        MockServerWebExchange exchange = exchange("/sales", "Bearer token");
+
+        filter("CASHIER", "MANAGER").filter(exchange, chain);
+
+        verify(chain, times(1)).filter(any());
+    }
+
+    @Test
+    void testApply_whenUserIsAuthorized_shouldForwardVerifiedIdentityHeaders() {
+        when(jwtUtil.verify("token")).thenReturn(principal("CASHIER"));
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/selling/makesale")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token")
+                .header(Constant.USER_HEADER, "spoofedUser"));
+
+        filter("CASHIER").filter(exchange, chain);
+
+        ArgumentCaptor<ServerWebExchange> captor = ArgumentCaptor.forClass(ServerWebExchange.class);
+        verify(chain).filter(captor.capture());
+        HttpHeaders forwarded = captor.getValue().getRequest().getHeaders();
+        assertEquals(List.of("testUser"), forwarded.get(Constant.USER_HEADER));
+        assertEquals("CASHIER", forwarded.getFirst(Constant.ROLES_HEADER));
+        long timestamp = Long.parseLong(forwarded.getFirst(Constant.TIMESTAMP_HEADER));
+        assertEquals(identitySigner.sign("testUser", "CASHIER", timestamp), forwarded.getFirst(Constant.SIGNATURE_HEADER));
+    }
+
+    @Test
+    void testIdentityHeaderFilter_whenClientSendsIdentityHeaders_shouldDropThem() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/product/1")
+                .header(Constant.USER_HEADER, "spoofedUser")
+                .header(Constant.ROLES_HEADER, "ADMIN")
+                .header(Constant.SIGNATURE_HEADER, "forged"));
+
+        new IdentityHeaderFilter().filter(exchange, chain);
+
+        ArgumentCaptor<ServerWebExchange> captor = ArgumentCaptor.forClass(ServerWebExchange.class);
+        verify(chain).filter(captor.capture());
+        HttpHeaders forwarded = captor.getValue().getRequest().getHeaders();
+        for (String header : Constant.IDENTITY_HEADERS) {
+            assertFalse(forwarded.containsKey(header));
+        }
+    }
+
+    @Test
+    void testApply_whenUserDoesNotHaveConfiguredRole_shouldThrowUnauthorizedException() {
+        when(jwtUtil.verify("token")).thenReturn(principal("CASHIER"));
+        MockServerWebExchange exchange = exchange("/users", "Bearer token");
+
+        assertThrows(UnauthorizedException.class, () -> filter("ADMIN").filter(exchange, chain));
+        verifyNoInteractions(chain);
+    }
+
+    @Test
+    void testApply_whenAuthorizationHeaderIsMissing_shouldThrowUnauthorizedException() {
+        MockServerWebExchange exchange = exchange("/users", null);
+
+        assertThrows(UnauthorizedException.class, () -> filter("ADMIN").filter(exchange, chain));
+        verifyNoInteractions(jwtUtil);
+    }
+
+    @Test
+    void testApply_whenConfiguredRoleIsUnknown_shouldFailAtStartup() {
+        assertThrows(IllegalArgumentException.class, () -> filter("UNKNOWN"));
+    }
+
+    @Test
+    void testApply_whenOneConfiguredRoleIsMisspelled_shouldFailAtStartup() {
+        assertThrows(IllegalArgumentException.class, () -> filter("ADMIN", "MANGER"));
+    }
+
+    private GatewayFilter filter(String... roles) {
+        RoleAuthorizationFilter.Config config = new RoleAuthorizationFilter.Config();
+        config.setRoles(List.of(roles));
+        return filterFactory.apply(config);
+    }
+
+    private MockServerWebExchange exchange(String path, String authHeader) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get(path);
+        if (authHeader != null) {
+            request.header(HttpHeaders.AUTHORIZATION, authHeader);
+        }
+        return MockServerWebExchange.from(request);
+    }
+
+    private JwtPrincipal principal(String... roles) {
+        return new JwtPrincipal("testUser", Set.of(roles), Instant.now().plusSeconds(60));
+    }
+}
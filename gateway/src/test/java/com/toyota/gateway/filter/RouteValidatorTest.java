@@ -0,0 +1,33 @@
+package com.toyota.gateway.filter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteValidatorTest {
+    private RouteValidator validator;
+
+    @BeforeEach
+    void setUp() {
+        validator = new RouteValidator(List.of("/auth/token", "/auth/validate", "/eureka/**"));
+    }
+
+    @Test
+    void testIsSecured_whenPathIsOpenEndpoint_shouldReturnFalse() {
+        assertFalse(validator.isSecured.test(MockServerHttpRequest.post("/auth/token").build()));
+        assertFalse(validator.isSecured.test(MockServerHttpRequest.get("/auth/validate?token=abc").build()));
+        assertFalse(validator.isSecured.test(MockServerHttpRequest.get("/eureka").build()));
+        assertFalse(validator.isSecured.test(MockServerHttpRequest.get("/eureka/apps/selling").build()));
+    }
+
+    @Test
+    void testIsSecured_whenPathOnlyContainsOpenEndpoint_shouldReturnTrue() {
+        assertTrue(validator.isSecured.test(MockServerHttpRequest.get("/sales/auth/token").build()));
+        assertTrue(validator.isSecured.test(MockServerHttpRequest.get("/product/eureka").build()));
+        assertTrue(validator.isSecured.test(MockServerHttpRequest.get("/selling/makesale").build()));
+    }
+}
@@ -0,0 +1,114 @@
+package com.toyota.gateway.util;
+
+import com.toyota.gateway.exception.UnauthenticatedException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.interfaces.ECPublicKey;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwksKeyResolverTest {
+    private final KeyPair keyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+    private final AtomicInteger fetches = new AtomicInteger();
+    private final AtomicReference<String> served = new AtomicReference<>("{\"keys\":[]}");
+    private JwksKeyResolver keyResolver;
+
+    @BeforeEach
+    void setUp() {
+        WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> {
+            fetches.incrementAndGet();
+            return Mono.just(ClientResponse.create(HttpStatus.OK)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body(served.get())
+                    .build());
+        });
+        keyResolver = new JwksKeyResolver(builder, "http://token/auth/jwks");
+    }
+
+    @Test
+    void testRefresh_shouldLoadPublishedKeys() {
+        JsonWebKey jwk = toJwk("key-1", keyPair);
+        served.set("{\"keys\":[{\"kty\":\"EC\",\"crv\":\"P-256\",\"kid\":\"key-1\",\"use\":\"sig\",\"alg\":\"ES256\","
+                + "\"x\":\"" + jwk.x() + "\",\"y\":\"" + jwk.y() + "\"}]}");
+
+        keyResolver.refresh();
+
+        assertDoesNotThrow(() -> Jwts.parserBuilder().setSigningKeyResolver(keyResolver).build()
+                .parseClaimsJws(sign("key-1", keyPair)));
+    }
+
+    @Test
+    void testRefresh_whenFetchFails_shouldKeepLoadedKeys() {
+        keyResolver.update(new JsonWebKeySet(List.of(toJwk("key-1", keyPair))));
+        served.set("not json");
+
+        keyResolver.refresh();
+
+        assertDoesNotThrow(() -> Jwts.parserBuilder().setSigningKeyResolver(keyResolver).build()
+                .parseClaimsJws(sign("key-1", keyPair)));
+    }
+
+    @Test
+    void testResolveSigningKey_whenKeyIsUnknown_shouldRefreshAtMostOnceAndReject() {
+        keyResolver.update(new JsonWebKeySet(List.of(toJwk("key-1", keyPair))));
+        String token = sign("key-2", Keys.keyPairFor(SignatureAlgorithm.ES256));
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(UnauthenticatedException.class, () -> Jwts.parserBuilder().setSigningKeyResolver(keyResolver)
+                    .build().parseClaimsJws(token));
+        }
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    void testResolveSigningKey_whenSignedWithSharedSecret_shouldReject() {
+        keyResolver.update(new JsonWebKeySet(List.of(toJwk("key-1", keyPair))));
+        String token = Jwts.builder()
+                .setHeaderParam("kid", "key-1")
+                .setSubject("testUser")
+                .signWith(Keys.secretKeyFor(SignatureAlgorithm.HS256), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertThrows(UnauthenticatedException.class, () -> Jwts.parserBuilder().setSigningKeyResolver(keyResolver)
+                .build().parseClaimsJws(token));
+        assertEquals(0, fetches.get());
+    }
+
+    static JsonWebKey toJwk(String kid, KeyPair keyPair) {
+        ECPublicKey publicKey = (ECPublicKey) keyPair.getPublic();
+        return new JsonWebKey("EC", "P-256", kid, "sig", "ES256",
+                coordinate(publicKey.getW().getAffineX()), coordinate(publicKey.getW().getAffineY()));
+    }
+
+    private static String coordinate(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] fixed = new byte[32];
+        int length = Math.min(bytes.length, 32);
+        System.arraycopy(bytes, bytes.length - length, fixed, 32 - length, length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(fixed);
+    }
+
+    private static String sign(String kid, KeyPair keyPair) {
+        return Jwts.builder()
+                .setHeaderParam("kid", kid)
+                .setSubject("testUser")
+                .signWith(keyPair.getPrivate(), SignatureAlgorithm.ES256)
+                .compact();
+    }
+}
@@ -0,0 +1,150 @@
+package com.toyota.gateway.util;
+
+import com.toyota.gateway.exception.UnauthenticatedException;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.security.KeyPair;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+    private final KeyPair keyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+    private VerifiedTokenCache tokenCache;
+    private RevocationList revocationList;
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        tokenCache = new VerifiedTokenCache(2);
+        JwksKeyResolver keyResolver = new JwksKeyResolver(WebClient.builder(), "http://token/auth/jwks");
+        keyResolver.update(new JsonWebKeySet(List.of(JwksKeyResolverTest.toJwk("key-1", keyPair))));
+        WebClient.Builder revocations = WebClient.builder().exchangeFunction(request ->
+                Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body("[]")
+                        .build()));
+        revocationList = new RevocationList(revocations, "http://token/auth/revocations", Duration.ofSeconds(30), 100,
+                "internal-key");
+        revocationList.sync();
+        jwtUtil = new JwtUtil(tokenCache, keyResolver, revocationList);
+    }
+
+    @Test
+    void testVerify_whenRevocationsAreNotLoaded_shouldThrowUnauthenticatedException() {
+        JwksKeyResolver keyResolver = new JwksKeyResolver(WebClient.builder(), "http://token/auth/jwks");
+        keyResolver.update(new JsonWebKeySet(List.of(JwksKeyResolverTest.toJwk("key-1", keyPair))));
+        RevocationList notLoaded = new RevocationList(WebClient.builder(), "http://token/auth/revocations",
+                Duration.ofSeconds(30), 100, "internal-key");
+        JwtUtil failClosed = new JwtUtil(tokenCache, keyResolver, notLoaded);
+        String token = generateToken("testUser", List.of("CASHIER"), 3600000);
+
+        assertThrows(UnauthenticatedException.class, () -> failClosed.verify(token));
+    }
+
+    @Test
+    void testVerify_whenTokenIsValid_shouldReturnPrincipalAndCacheIt() {
+        String token = generateToken("testUser", List.of("CASHIER", "MANAGER"), 3600000);
+
+        JwtPrincipal principal = jwtUtil.verify(token);
+
+        assertEquals("testUser", principal.subject());
+        assertEquals(Set.of("CASHIER", "MANAGER"), principal.roles());
+        assertSame(principal, jwtUtil.verify(token));
+        assertEquals(1, tokenCache.size());
+    }
+
+    @Test
+    void testVerify_whenIssueTimeHasMilliseconds_shouldKeepThem() {
+        Instant issuedAt = Instant.ofEpochMilli(System.currentTimeMillis() / 1000 * 1000 + 734);
+        Claims claims = Jwts.claims().setSubject("testUser");
+        claims.put(Claims.ISSUED_AT, BigDecimal.valueOf(issuedAt.toEpochMilli(), 3));
+        String token = Jwts.builder()
+                .setHeaderParam("kid", "key-1")
+                .setClaims(claims)
+                .setExpiration(Date.from(issuedAt.plusSeconds(3600)))
+                .signWith(keyPair.getPrivate(), SignatureAlgorithm.ES256)
+                .compact();
+
+        assertEquals(issuedAt, jwtUtil.verify(token).issuedAt());
+    }
+
+    @Test
+    void testVerify_whenTokenIsExpired_shouldThrowUnauthenticatedException() {
+        String token = generateToken("testUser", List.of("CASHIER"), -1000);
+
+        assertThrows(UnauthenticatedException.class, () -> jwtUtil.verify(token));
+        assertEquals(0, tokenCache.size());
+    }
+
+    @Test
+    void testVerify_whenTokenIsNotValid_shouldThrowUnauthenticatedException() {
+        assertThrows(UnauthenticatedException.class, () -> jwtUtil.verify("asdadsfa"));
+        assertThrows(UnauthenticatedException.class, () -> jwtUtil.verify(null));
+    }
+
+    @Test
+    void testVerify_whenSessionIsRevoked_shouldRejectCachedToken() {
+        String token = generateToken("testUser", List.of("CASHIER"), 3600000);
+        jwtUtil.verify(token);
+
+        Instant revokedAt = Instant.now().plusSeconds(1);
+        revocationList.update(List.of(new Revocation(Revocation.SESSION, "session-1", revokedAt,
+                revokedAt.plus(Duration.ofHours(1)))), Instant.now());
+
+        assertThrows(UnauthenticatedException.class, () -> jwtUtil.verify(token));
+    }
+
+    @Test
+    void testVerify_whenSignedWithOtherKey_shouldThrowUnauthenticatedException() {
+        String token = Jwts.builder()
+                .setHeaderParam("kid", "key-1")
+                .setSubject("testUser")
+                .setExpiration(new Date(System.currentTimeMillis() + 3600000))
+                .signWith(Keys.keyPairFor(SignatureAlgorithm.ES256).getPrivate(), SignatureAlgorithm.ES256)
+                .compact();
+
+        assertThrows(UnauthenticatedException.class, () -> jwtUtil.verify(token));
+        assertEquals(0, tokenCache.size());
+    }
+
+    @Test
+    void testVerify_whenCacheIsFull_shouldKeepCacheBounded() {
+        jwtUtil.verify(generateToken("user1", List.of("CASHIER"), 3600000));
+        jwtUtil.verify(generateToken("user2", List.of("CASHIER"), 3600000));
+        jwtUtil.verify(generateToken("user3", List.of("CASHIER"), 3600000));
+
+        assertTrue(tokenCache.size() <= 2);
+    }
+
+    private String generateToken(String username, List<String> roles, long validFor) {
+        Claims claims = Jwts.claims().setSubject(username);
+        claims.put("authorities", roles);
+        claims.put("sid", "session-1");
+
+        Date issuedAt = new Date();
+        return Jwts.builder()
+                .setHeaderParam("kid", "key-1")
+                .setClaims(claims)
+                .setIssuedAt(issuedAt)
+                .setExpiration(new Date(issuedAt.getTime() + validFor))
+                .signWith(keyPair.getPrivate(), SignatureAlgorithm.ES256)
+                .compact();
+    }
+}
@@ -0,0 +1,171 @@
+package com.toyota.gateway.util;
+
+import com.toyota.gateway.constant.Constant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RevocationListTest {
+    private final List<URI> requests = new ArrayList<>();
+    private final List<String> keys = new ArrayList<>();
+    private final AtomicReference<String> served = new AtomicReference<>("[]");
+    private RevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> {
+            requests.add(request.url());
+            keys.add(request.headers().getFirst(Constant.INTERNAL_KEY_HEADER));
+            return Mono.just(ClientResponse.create(HttpStatus.OK)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body(served.get())
+                    .build());
+        });
+        revocationList = new RevocationList(builder, "http://token/auth/revocations", Duration.ofSeconds(30), 100, "internal-key");
+    }
+
+    @Test
+    void testIsRevoked_whenUserWasRevokedAfterTokenWasIssued_shouldReturnTrue() {
+        Instant revokedAt = Instant.now();
+        revocationList.update(List.of(revocation(Revocation.USER, "cashier", revokedAt)), revokedAt);
+
+        assertTrue(revocationList.isRevoked(principal("cashier", "s1", revokedAt.minusSeconds(60))));
+        assertFalse(revocationList.isRevoked(principal("cashier", "s2", revokedAt.plusSeconds(1))));
+        assertFalse(revocationList.isRevoked(principal("manager", "s1", revokedAt.minusSeconds(60))));
+    }
+
+    @Test
+    void testIsRevoked_whenSessionWasRevoked_shouldOnlyRejectTokensOfThatSession() {
+        Instant revokedAt = Instant.now();
+        revocationList.update(List.of(revocation(Revocation.SESSION, "s1", revokedAt)), revokedAt);
+
+        assertTrue(revocationList.isRevoked(principal("cashier", "s1", revokedAt.minusSeconds(60))));
+        assertFalse(revocationList.isRevoked(principal("cashier", "s2", revokedAt.minusSeconds(60))));
+        assertFalse(revocationList.isRevoked(principal("cashier", null, revokedAt.minusSeconds(60))));
+    }
+
+    @Test
+    void testIsRevoked_whenIssuedInSameSecondAsRevocation_shouldReturnTrue() {
+        Instant revokedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS).plusMillis(500);
+        revocationList.update(List.of(revocation(Revocation.USER, "cashier", revokedAt)), revokedAt);
+
+        assertTrue(revocationList.isRevoked(principal("cashier", "s1", revokedAt.truncatedTo(ChronoUnit.SECONDS))));
+        assertTrue(revocationList.isRevoked(principal("cashier", "s1", revokedAt.minusMillis(1))));
+    }
+
+    @Test
+    void testIsRevoked_whenIssuedLaterInSameSecondAsRevocation_shouldReturnFalse() {
+        Instant revokedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS).plusMillis(500);
+        revocationList.update(List.of(revocation(Revocation.USER, "cashier", revokedAt)), revokedAt);
+
+        assertFalse(revocationList.isRevoked(principal("cashier", "s2", revokedAt.plusMillis(200))));
+        assertFalse(revocationList.isRevoked(principal("cashier", "s2", revokedAt)));
+    }
+
+    @Test
+    void testUpdate_whenRevocationHasExpired_shouldDropIt() {
+        Instant revokedAt = Instant.now();
+        revocationList.update(List.of(revocation(Revocation.USER, "cashier", revokedAt)), revokedAt);
+
+        revocationList.update(List.of(), revokedAt.plus(Duration.ofHours(2)));
+
+        assertEquals(0, revocationList.size());
+        assertFalse(revocationList.isRevoked(principal("cashier", "s1", revokedAt.minusSeconds(60))));
+    }
+
+    @Test
+    void testUpdate_whenListGrowsBeyondExpectedEntries_shouldFindEveryRevocation() {
+        Instant revokedAt = Instant.now();
+        List<Revocation> revocations = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            revocations.add(revocation(Revocation.SESSION, "session-" + i, revokedAt));
+        }
+        revocationList.update(revocations, revokedAt);
+
+        for (int i = 0; i < 5000; i++) {
+            assertTrue(revocationList.isRevoked(principal("cashier", "session-" + i, revokedAt.minusSeconds(1))));
+        }
+        for (int i = 5000; i < 10000; i++) {
+            assertFalse(revocationList.isRevoked(principal("cashier", "session-" + i, revokedAt.minusSeconds(1))));
+        }
+    }
+
+    @Test
+    void testSync_shouldLoadEverythingFirstThenOnlyRecentRevocations() {
+        Instant revokedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        served.set("[{\"kind\":\"USER\",\"target\":\"cashier\",\"revokedAt\":\"" + revokedAt
+                + "\",\"expiresAt\":\"" + revokedAt.plus(Duration.ofHours(1)) + "\"}]");
+
+        revocationList.sync();
+        revocationList.sync();
+
+        assertEquals(2, requests.size());
+        assertEquals(List.of("internal-key", "internal-key"), keys);
+        assertTrue(revocationList.isLoaded());
+        assertNull(requests.get(0).getQuery());
+        assertTrue(requests.get(1).getQuery().startsWith("since="));
+        assertTrue(revocationList.isRevoked(principal("cashier", "s1", revokedAt.minusSeconds(60))));
+    }
+
+    @Test
+    void testSync_shouldAskFromNewestRevocationSeenRatherThanOwnClock() {
+        Instant revokedAt = Instant.now().minus(Duration.ofMinutes(10)).truncatedTo(ChronoUnit.MILLIS);
+        served.set("[{\"kind\":\"USER\",\"target\":\"cashier\",\"revokedAt\":\"" + revokedAt
+                + "\",\"expiresAt\":\"" + revokedAt.plus(Duration.ofHours(1)) + "\"}]");
+
+        revocationList.sync();
+        served.set("[]");
+        revocationList.sync();
+        revocationList.sync();
+
+        assertEquals("since=" + revokedAt.minusSeconds(30), requests.get(1).getQuery());
+        assertEquals("since=" + revokedAt.minusSeconds(30), requests.get(2).getQuery());
+    }
+
+    @Test
+    void testSync_whenNothingWasEverRevoked_shouldStayLoaded() {
+        revocationList.sync();
+        revocationList.sync();
+
+        assertTrue(revocationList.isLoaded());
+        assertNull(requests.get(1).getQuery());
+    }
+
+    @Test
+    void testSync_whenFetchFails_shouldKeepRevocationsAndRetrySamePeriod() {
+        Instant revokedAt = Instant.now();
+        revocationList.update(List.of(revocation(Revocation.USER, "cashier", revokedAt)), revokedAt);
+        served.set("not json");
+
+        revocationList.sync();
+        revocationList.sync();
+
+        assertTrue(revocationList.isRevoked(principal("cashier", "s1", revokedAt.minusSeconds(60))));
+        assertNull(requests.get(1).getQuery());
+        assertFalse(revocationList.isLoaded());
+    }
+
+    private static Revocation revocation(String kind, String target, Instant revokedAt) {
+        return new Revocation(kind, target, revokedAt, revokedAt.plus(Duration.ofHours(1)));
+    }
+
+    private static JwtPrincipal principal(String subject, String sessionId, Instant issuedAt) {
+        return new JwtPrincipal(subject, Set.of("CASHIER"), sessionId, issuedAt, issuedAt.plus(Duration.ofHours(1)));
+    }
+}
@@ -1,25 +1,96 @@
 package com.toyota.product.controller;
 
+import com.toyota.product.dto.CatalogSnapshot;
+import com.toyota.product.dto.ProductChangePage;
 import com.toyota.product.dto.ProductDto;
+import com.toyota.product.dto.ProductImportReport;
+import com.toyota.product.dto.ProductPage;
+import com.toyota.product.service.ProductCatalog;
+import com.toyota.product.service.ProductChangeFeed;
+import com.toyota.product.service.ProductImportService;
 import com.toyota.product.service.ProductService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.List;
 
 @RestController
 @RequestMapping("/product")
 public class ProductController {
     private final ProductService productService;
+    private final ProductCatalog productCatalog;
+    private final ProductImportService productImportService;
+    private final ProductChangeFeed productChangeFeed;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService,
+                             ProductCatalog productCatalog,
+                             ProductImportService productImportService,
+                             ProductChangeFeed productChangeFeed) {
         this.productService = productService;
+        this.productCatalog = productCatalog;
+        this.productImportService = productImportService;
+        this.productChangeFeed = productChangeFeed;
     }
 
     @GetMapping
-    public ResponseEntity<List<ProductDto>> getAllProducts(){
-        return new ResponseEntity<>(productService.getAllProducts(), HttpStatus.OK);
+    public ResponseEntity<byte[]> getAllProducts(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding){
+        CatalogSnapshot catalog = productCatalog.get();
+        boolean gzip = ProductCatalog.acceptsGzip(acceptEncoding);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+        headers.setCacheControl(CacheControl.noCache());
+        if(gzip){
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+            headers.setETag(catalog.gzipEtag());
+        }
+        else{
+            headers.setETag(catalog.etag());
+        }
+
+        return new ResponseEntity<>(gzip ? catalog.gzip() : catalog.json(), headers, HttpStatus.OK);
+    }
+
+    @GetMapping("search")
+    public ResponseEntity<ProductPage> searchProducts(@RequestParam(value="category", required = false) List<String> categories,
+                                                      @RequestParam(value="name", required = false) String namePrefix,
+                                                      @RequestParam(value="minPrice", required = false) Double minPrice,
+                                                      @RequestParam(value="maxPrice", required = false) Double maxPrice,
+                                                      @RequestParam(value="after", required = false) String after,
+                                                      @RequestParam(value="pageSize", defaultValue = "50", required = false) int pageSize){
+        return new ResponseEntity<>(productService.searchProducts(categories, namePrefix, minPrice, maxPrice, after, pageSize),
+                HttpStatus.OK);
+    }
+
+    @PostMapping("import")
+    public ResponseEntity<ProductImportReport> importProducts(InputStream body,
+                                                              @RequestParam(value="format", defaultValue = "csv", required = false) String format)
+            throws IOException {
+        return new ResponseEntity<>(productImportService.importProducts(body, format), HttpStatus.OK);
+    }
+
+    @GetMapping("changes")
+    public DeferredResult<ProductChangePage> getChanges(@RequestParam(value="after", required = false) Long after,
+                                                        @RequestParam(value="limit", defaultValue = "100", required = false) int limit,
+                                                        @RequestParam(value="wait", defaultValue = "PT25S", required = false) Duration wait){
+        return productChangeFeed.poll(after, limit, wait);
+    }
+
+    @GetMapping(value = "changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestParam(value="after", required = false) Long after,
+                                    @RequestHeader(value="Last-Event-ID", required = false) Long lastEventId){
+        return productChangeFeed.stream(lastEventId != null ? lastEventId : after != null ? after : 0);
     }
 
     @GetMapping("{id}")
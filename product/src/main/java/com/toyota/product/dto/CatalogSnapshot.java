@@ -0,0 +1,18 @@
+package com.toyota.product.dto;
+
+/**
+ * The product list serialized once and shared by every request until the catalog changes.
+ *
+ * @param json The product list as JSON.
+ * @param gzip The same JSON compressed with gzip.
+ * @param etag The quoted entity tag of the JSON, derived from its content.
+ */
+public record CatalogSnapshot(byte[] json, byte[] gzip, String etag) {
+
+    /**
+     * Returns the entity tag of the gzip representation. Strong tags must differ between encodings.
+     */
+    public String gzipEtag(){
+        return etag.substring(0, etag.length() - 1) + "-gzip\"";
+    }
+}
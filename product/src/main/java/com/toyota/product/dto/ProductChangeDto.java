@@ -0,0 +1,38 @@
+package com.toyota.product.dto;
+
+import com.toyota.product.entity.ProductChange;
+
+import java.time.LocalDateTime;
+
+/**
+ * A change of a product as published by the change feed. Old values are null when the product was created.
+ *
+ * @param position The position of the change in the feed, to resume reading after.
+ * @param productId The ID of the changed product.
+ * @param version The version of the product after the change.
+ * @param updatedDate When the product was changed.
+ * @param oldPrice The price before the change.
+ * @param newPrice The price after the change.
+ * @param oldAmount The stock before the change.
+ * @param newAmount The stock after the change.
+ */
+public record ProductChangeDto(long position,
+                               Long productId,
+                               Long version,
+                               LocalDateTime updatedDate,
+                               Double oldPrice,
+                               Double newPrice,
+                               Integer oldAmount,
+                               Integer newAmount) {
+
+    public static ProductChangeDto convert(ProductChange from){
+        return new ProductChangeDto(from.getPosition(),
+                from.getProductId(),
+                from.getVersion(),
+                from.getUpdatedDate(),
+                from.getOldPrice(),
+                from.getNewPrice(),
+                from.getOldAmount(),
+                from.getNewAmount());
+    }
+}
@@ -0,0 +1,15 @@
+package com.toyota.product.dto;
+
+import java.util.List;
+
+/**
+ * Changes read from the product change feed.
+ *
+ * @param changes The changes in feed order, possibly none.
+ * @param next The position to read the following changes after.
+ * @param resync True if changes after the requested position were already purged, or the position was
+ *               never handed out by this feed, so the reader has to reload the catalog before following
+ *               the feed from here.
+ */
+public record ProductChangePage(List<ProductChangeDto> changes, long next, boolean resync) {
+}
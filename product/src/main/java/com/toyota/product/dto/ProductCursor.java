@@ -0,0 +1,46 @@
+package com.toyota.product.dto;
+
+import com.toyota.product.entity.Product;
+import com.toyota.product.exception.BadProductRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last product returned by a search page. Sent to clients as an opaque token.
+ *
+ * @param searchName The lower case name of the last returned product.
+ * @param id The ID of the last returned product.
+ */
+public record ProductCursor(String searchName, Long id) {
+    private static final String SEPARATOR = "|";
+
+    public static ProductCursor of(Product product){
+        return new ProductCursor(product.getSearchName(), product.getId());
+    }
+
+    public String encode(){
+        String value = id + SEPARATOR + searchName;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads a token created by {@link #encode()}.
+     *
+     * @param token The continuation token sent by the client.
+     * @return The decoded cursor.
+     * @throws BadProductRequestException if the token is not a valid cursor.
+     */
+    public static ProductCursor decode(String token){
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            if(separator < 0){
+                throw new BadProductRequestException("Invalid cursor");
+            }
+            return new ProductCursor(value.substring(separator + 1), Long.valueOf(value.substring(0, separator)));
+        } catch (IllegalArgumentException e) {
+            throw new BadProductRequestException("Invalid cursor");
+        }
+    }
+}
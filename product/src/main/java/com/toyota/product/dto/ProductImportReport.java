@@ -0,0 +1,22 @@
+package com.toyota.product.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk product import.
+ *
+ * @param imported The number of products that were saved.
+ * @param rejected The number of rows that were skipped.
+ * @param errors Why rows were skipped, in upload order. Only the first rejections are listed.
+ */
+public record ProductImportReport(int imported, int rejected, List<RowError> errors) {
+
+    /**
+     * A rejected row of the upload.
+     *
+     * @param line The line number in the uploaded file, starting at 1.
+     * @param message Why the row was not imported.
+     */
+    public record RowError(long line, String message) {
+    }
+}
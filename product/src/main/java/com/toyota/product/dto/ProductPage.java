@@ -0,0 +1,12 @@
+package com.toyota.product.dto;
+
+import java.util.List;
+
+/**
+ * One page of product search results.
+ *
+ * @param products The products of the page.
+ * @param nextCursor The token to request the next page with, or null if this is the last page.
+ */
+public record ProductPage(List<ProductDto> products, String nextCursor) {
+}
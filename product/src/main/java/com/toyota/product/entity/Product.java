@@ -5,23 +5,51 @@ import org.hibernate.annotations.GenericGenerator;
 
 import java.time.LocalDateTime;
 import java.util.Date;
+import java.util.Locale;
 import java.util.Set;
 
 @Entity
-@Table(name="products")
+@Table(name="products", indexes = {
+        @Index(name = "idx_products_search_name_id", columnList = "searchName, id"),
+        @Index(name = "idx_products_category_search_name_id", columnList = "category, searchName, id")
+})
 public class Product {
+    /**
+     * Taken from products_seq in blocks of 50, so inserting many products only needs one sequence
+     * call per 50 rows. The allocation size must match the increment of the sequence in the database.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
     private String name;
 
+    /**
+     * Lower case copy of the name used by the product search, so a name prefix can be matched
+     * case-insensitively with a plain index range. The column uses the "C" collation, which compares
+     * by code point: under a linguistic collation a prefix range is not contiguous and the range can
+     * miss matching names.
+     */
+    @Column(columnDefinition = "varchar(255) COLLATE \"C\"")
+    private String searchName;
+
     private Integer amount;
 
     private Double price;
     private String category;
 
     private LocalDateTime updatedDate;
+
+    /**
+     * Incremented by every change of the row, so consumers of the change feed can tell which of two changes
+     * of a product is newer. This service is not the only writer: StockReservationService of the selling
+     * service updates amount, version and updated_date with plain SQL when it decreases stock. Renaming
+     * one of those columns or changing how the version counts has to be done there too, which
+     * SellingStockColumnsTest guards.
+     */
+    private Long version;
+
     @OneToMany(mappedBy = "product")
     private Set<ProductSale> productSales;
 
@@ -42,6 +70,11 @@ public class Product {
 
     public void setName(String name) {
         this.name = name;
+        this.searchName = name == null ? null : name.toLowerCase(Locale.ROOT);
+    }
+
+    public String getSearchName() {
+        return searchName;
     }
 
     public int getAmount() {
@@ -75,4 +108,12 @@ public class Product {
     public void setUpdatedDate(LocalDateTime updatedDate) {
         this.updatedDate = updatedDate;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,101 @@
+package com.toyota.product.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One change of a product, written in the same transaction as the change itself. Rows are inserted
+ * with plain SQL by this service and by StockReservationService of the selling service, which writes every
+ * column but the position, so both draw their IDs from product_changes_seq one at a time. Renaming a
+ * column, or taking IDs in blocks, has to be done in both services, which SellingStockColumnsTest guards. The ID does not order the feed: it is taken when the change is
+ * written, and a transaction that took a lower ID may commit after one that took a higher ID. The feed is
+ * ordered by the position, which {@link com.toyota.product.service.ProductChangeSequencer} assigns once
+ * the change has committed.
+ */
+@Entity
+@Table(name="product_changes", indexes = {
+        @Index(name = "idx_product_changes_updated_date", columnList = "updatedDate"),
+        @Index(name = "idx_product_changes_position", columnList = "position", unique = true)
+})
+public class ProductChange {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_changes_seq")
+    @SequenceGenerator(name = "product_changes_seq", sequenceName = "product_changes_seq", allocationSize = 1)
+    private Long id;
+
+    private Long position;
+
+    private Long productId;
+
+    private Long version;
+
+    private LocalDateTime updatedDate;
+
+    private Double oldPrice;
+
+    private Double newPrice;
+
+    private Integer oldAmount;
+
+    private Integer newAmount;
+
+    public ProductChange() {
+    }
+
+    public ProductChange(Long id,
+                         Long position,
+                         Long productId,
+                         Long version,
+                         LocalDateTime updatedDate,
+                         Double oldPrice,
+                         Double newPrice,
+                         Integer oldAmount,
+                         Integer newAmount) {
+        this.id = id;
+        this.position = position;
+        this.productId = productId;
+        this.version = version;
+        this.updatedDate = updatedDate;
+        this.oldPrice = oldPrice;
+        this.newPrice = newPrice;
+        this.oldAmount = oldAmount;
+        this.newAmount = newAmount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getPosition() {
+        return position;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public LocalDateTime getUpdatedDate() {
+        return updatedDate;
+    }
+
+    public Double getOldPrice() {
+        return oldPrice;
+    }
+
+    public Double getNewPrice() {
+        return newPrice;
+    }
+
+    public Integer getOldAmount() {
+        return oldAmount;
+    }
+
+    public Integer getNewAmount() {
+        return newAmount;
+    }
+}
@@ -0,0 +1,50 @@
+package com.toyota.product.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * The single row that tracks the feed positions of product_changes: the last position handed out and the
+ * last position purged. Assigning positions and purging both lock this row, so they run one at a time
+ * across all instances.
+ */
+@Entity
+@Table(name="product_change_watermarks")
+public class ProductChangeWatermark {
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    private long assigned;
+
+    private long purged;
+
+    public ProductChangeWatermark() {
+    }
+
+    public ProductChangeWatermark(Integer id, long assigned, long purged) {
+        this.id = id;
+        this.assigned = assigned;
+        this.purged = purged;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public long getAssigned() {
+        return assigned;
+    }
+
+    public void setAssigned(long assigned) {
+        this.assigned = assigned;
+    }
+
+    public long getPurged() {
+        return purged;
+    }
+
+    public void setPurged(long purged) {
+        this.purged = purged;
+    }
+}
@@ -0,0 +1,9 @@
+package com.toyota.product.event;
+
+/**
+ * Published after products have been created or changed by this service.
+ *
+ * @param count The number of changed products.
+ */
+public record ProductsChangedEvent(int count) {
+}
@@ -0,0 +1,49 @@
+package com.toyota.product.repository;
+
+import com.toyota.product.entity.ProductChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ProductChangeRepository extends JpaRepository<ProductChange, Long> {
+    /**
+     * Records the creation of the given products with one statement, whatever their number.
+     * The products must already be flushed to the database.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "INSERT INTO product_changes " +
+            "(id, product_id, version, updated_date, old_price, new_price, old_amount, new_amount) " +
+            "SELECT nextval('product_changes_seq'), p.id, p.version, p.updated_date, NULL, p.price, NULL, p.amount " +
+            "FROM products p WHERE p.id IN (:productIds) ORDER BY p.id")
+    int recordCreated(@Param("productIds") Collection<Long> productIds);
+
+    List<ProductChange> findByPositionGreaterThanOrderByPositionAsc(Long after, Limit limit);
+
+    boolean existsByPositionIsNull();
+
+    /**
+     * Gives the oldest changes without a position the positions following the given one, in ID order.
+     * Only committed changes are visible to the statement, so a change committed later gets a later position.
+     *
+     * @return the number of changes that got a position
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "UPDATE product_changes c SET position = pending.position " +
+            "FROM (SELECT id, :after + row_number() OVER (ORDER BY id) AS position FROM product_changes " +
+            "WHERE position IS NULL ORDER BY id LIMIT :limit) pending " +
+            "WHERE c.id = pending.id")
+    int assignPositions(@Param("after") long after, @Param("limit") int limit);
+
+    @Query("SELECT MAX(c.position) FROM ProductChange c WHERE c.updatedDate < :before")
+    Long findLastPositionBefore(@Param("before") LocalDateTime before);
+
+    @Modifying
+    @Query("DELETE FROM ProductChange c WHERE c.position <= :position")
+    int deleteByPositionLessThanEqual(@Param("position") long position);
+}
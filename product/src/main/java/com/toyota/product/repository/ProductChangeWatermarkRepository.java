@@ -0,0 +1,25 @@
+package com.toyota.product.repository;
+
+import com.toyota.product.entity.ProductChangeWatermark;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface ProductChangeWatermarkRepository extends JpaRepository<ProductChangeWatermark, Integer> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM ProductChangeWatermark w WHERE w.id = :id")
+    Optional<ProductChangeWatermark> findByIdForUpdate(@Param("id") Integer id);
+
+    /**
+     * Creates the watermark row unless another instance already has.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "INSERT INTO product_change_watermarks (id, assigned, purged) " +
+            "VALUES (:id, 0, 0) ON CONFLICT (id) DO NOTHING")
+    int createIfAbsent(@Param("id") Integer id);
+}
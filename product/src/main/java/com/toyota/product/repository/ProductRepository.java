@@ -2,6 +2,14 @@ package com.toyota.product.repository;
 
 import com.toyota.product.entity.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
+    @Transactional
+    @Modifying
+    @Query("UPDATE Product p SET p.searchName = LOWER(p.name) WHERE p.searchName IS NULL AND p.name IS NOT NULL")
+    int fillMissingSearchNames();
 }
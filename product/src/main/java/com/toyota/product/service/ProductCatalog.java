@@ -0,0 +1,161 @@
+package com.toyota.product.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.toyota.product.dto.CatalogSnapshot;
+import com.toyota.product.event.ProductsChangedEvent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+@Component
+public class ProductCatalog {
+    private static Logger logger = LogManager.getLogger(ProductCatalog.class);
+    private final ProductService productService;
+    private final ObjectMapper objectMapper;
+    private final ProductChangeSequencer productChangeSequencer;
+    private volatile CatalogSnapshot snapshot;
+    private volatile long builtAtPosition;
+
+    public ProductCatalog(ProductService productService, ObjectMapper objectMapper,
+                          ProductChangeSequencer productChangeSequencer) {
+        this.productService = productService;
+        this.objectMapper = objectMapper;
+        this.productChangeSequencer = productChangeSequencer;
+    }
+
+    /**
+     * Returns the current catalog snapshot, building it on first use.
+     *
+     * @return The serialized product list with its entity tag.
+     */
+    public CatalogSnapshot get(){
+        CatalogSnapshot current = snapshot;
+        return current != null ? current : rebuild();
+    }
+
+    /**
+     * Rebuilds the snapshot when the product change feed has moved since it was built. Called when the
+     * application is ready and on a short interval because stock is also changed by the selling service,
+     * which this service is not told about. Every product change, from either service, gets a feed position
+     * once it has committed, so while the feed stands still this costs one primary key lookup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${product.catalog.refresh-interval:PT5S}",
+            initialDelayString = "${product.catalog.refresh-interval:PT5S}")
+    public void refresh(){
+        if(snapshot == null || productChangeSequencer.watermark().getAssigned() != builtAtPosition){
+            rebuild();
+        }
+    }
+
+    /**
+     * Rebuilds the snapshot once the transaction that changed the products has committed,
+     * so the new snapshot can see the changes.
+     *
+     * @param event The change made by this service.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsChanged(ProductsChangedEvent event){
+        rebuild();
+    }
+
+    /**
+     * Returns whether an Accept-Encoding header value allows a gzip response. A coding listed with
+     * a q-value of 0 is refused, and the wildcard only stands for gzip when gzip is not listed itself.
+     *
+     * @param acceptEncoding The header value, or null.
+     * @return true if the gzip snapshot may be sent.
+     */
+    public static boolean acceptsGzip(String acceptEncoding){
+        if(acceptEncoding == null){
+            return false;
+        }
+        Double gzip = null;
+        Double wildcard = null;
+        for(String element : acceptEncoding.split(",")){
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = quality(parts);
+            if(coding.equals("gzip") || coding.equals("x-gzip")){
+                gzip = gzip == null ? quality : Math.max(gzip, quality);
+            }
+            else if(coding.equals("*")){
+                wildcard = quality;
+            }
+        }
+        if(gzip != null){
+            return gzip > 0;
+        }
+        return wildcard != null && wildcard > 0;
+    }
+
+    private static double quality(String[] parts){
+        for(int i = 1; i < parts.length; i++){
+            String parameter = parts[i].trim();
+            if(parameter.startsWith("q=") || parameter.startsWith("Q=")){
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * The snapshot and its entity tag are only replaced when the content has changed, so clients
+     * keep getting 304 responses while the catalog stays the same. The feed position is read before the
+     * products, so the snapshot holds at least every change up to the position it is recorded with.
+     */
+    private synchronized CatalogSnapshot rebuild(){
+        long position = productChangeSequencer.watermark().getAssigned();
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(productService.getAllProducts());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize product catalog", e);
+        }
+
+        String etag = etag(json);
+        if(snapshot == null || !snapshot.etag().equals(etag)){
+            snapshot = new CatalogSnapshot(json, gzip(json), etag);
+            logger.info("Product catalog snapshot rebuilt with etag " + etag);
+        }
+        builtAtPosition = position;
+        return snapshot;
+    }
+
+    private static byte[] gzip(byte[] json){
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static String etag(byte[] json){
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.toyota.product.service;
+
+import com.toyota.product.dto.ProductChangeDto;
+import com.toyota.product.dto.ProductChangePage;
+import com.toyota.product.entity.ProductChangeWatermark;
+import com.toyota.product.exception.BadProductRequestException;
+import com.toyota.product.repository.ProductChangeRepository;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+@Service
+public class ProductChangeFeed {
+    private static Logger logger = LogManager.getLogger(ProductChangeFeed.class);
+    static final int MAX_PAGE_SIZE = 500;
+    private static final Duration MAX_WAIT = Duration.ofSeconds(30);
+    private static final Duration STREAM_TIMEOUT = Duration.ofMinutes(30);
+    private final ProductChangeRepository productChangeRepository;
+    private final ProductChangeSequencer productChangeSequencer;
+    private final Queue<Poll> polls = new ConcurrentLinkedQueue<>();
+    private final Queue<Subscriber> subscribers = new ConcurrentLinkedQueue<>();
+    private final ExecutorService senders;
+
+    public ProductChangeFeed(ProductChangeRepository productChangeRepository,
+                             ProductChangeSequencer productChangeSequencer,
+                             @Value("${product.changes.stream-threads:4}") int streamThreads) {
+        this.productChangeRepository = productChangeRepository;
+        this.productChangeSequencer = productChangeSequencer;
+        AtomicInteger senderCount = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(streamThreads, task -> {
+            Thread thread = new Thread(task, "product-change-sender-" + senderCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown(){
+        senders.shutdownNow();
+    }
+
+    /**
+     * Reads the changes after the given position. Positions are only assigned by
+     * {@link ProductChangeSequencer} after a change has committed, so no change can later appear behind
+     * a position a reader has passed.
+     *
+     * @param after position of the last change the reader has seen, or null to only get the current position
+     * @param limit maximum number of changes to return
+     * @return changes in feed order with the position to continue after
+     * @throws BadProductRequestException if the limit is not between 1 and {@value #MAX_PAGE_SIZE}
+     */
+    public ProductChangePage read(Long after, int limit){
+        if(limit < 1 || limit > MAX_PAGE_SIZE){
+            logger.warn("Limit must be between 1 and " + MAX_PAGE_SIZE);
+            throw new BadProductRequestException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        ProductChangeWatermark watermark = productChangeSequencer.watermark();
+        if(after == null){
+            return new ProductChangePage(List.of(), watermark.getAssigned(), false);
+        }
+
+        List<ProductChangeDto> changes = productChangeRepository
+                .findByPositionGreaterThanOrderByPositionAsc(after, Limit.of(limit))
+                .stream()
+                .map(ProductChangeDto::convert)
+                .collect(Collectors.toList());
+        long next = changes.isEmpty() ? after : changes.get(changes.size() - 1).position();
+
+        boolean resync = after < watermark.getPurged() || after > watermark.getAssigned();
+        return new ProductChangePage(changes, next, resync);
+    }
+
+    /**
+     * Long-polls the feed: answers at once if there are changes after the given position, otherwise
+     * when the next change is published or with an empty page when the wait is over. Without a position
+     * it answers at once with the current position, to follow the feed from after loading the catalog.
+     *
+     * @param after position of the last change the reader has seen, or null
+     * @param limit maximum number of changes to return
+     * @param wait how long to wait for a change, at most 30 seconds
+     * @return the pending page
+     */
+    public DeferredResult<ProductChangePage> poll(Long after, int limit, Duration wait){
+        ProductChangePage page = read(after, limit);
+        Duration timeout = wait.isNegative() || wait.compareTo(MAX_WAIT) > 0 ? MAX_WAIT : wait;
+        DeferredResult<ProductChangePage> result = new DeferredResult<>(timeout.toMillis(),
+                new ProductChangePage(List.of(), page.next(), false));
+        if(after == null || !page.changes().isEmpty() || page.resync() || timeout.isZero()){
+            result.setResult(page);
+        }
+        else{
+            Poll poll = new Poll(after, limit, result);
+            result.onCompletion(() -> polls.remove(poll));
+            polls.add(poll);
+        }
+        return result;
+    }
+
+    /**
+     * Opens a server-sent event stream of the changes after the given position. Every change is sent as
+     * a "change" event with its position as the event ID, so a client can reconnect with Last-Event-ID.
+     * A "resync" event is sent instead when the requested changes were already purged or the position is
+     * ahead of the feed.
+     *
+     * @param after position of the last change the reader has seen
+     * @return the event stream
+     */
+    public SseEmitter stream(long after){
+        return stream(after, new SseEmitter(STREAM_TIMEOUT.toMillis()));
+    }
+
+    SseEmitter stream(long after, SseEmitter emitter){
+        Subscriber subscriber = new Subscriber(emitter, after);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Hands newly sequenced changes to waiting long polls and open streams. Runs on a short interval
+     * because stock is changed by the selling service, which this service is not told about; while
+     * nothing has changed it costs a single query however many readers are waiting.
+     * <p>
+     * Sending to a stream blocks while its client is slow to read, so streams are written on the sender
+     * pool, one send at a time per stream. A slow client then only holds up its own stream, not the
+     * scheduler that also runs the sequencer and the other readers.
+     */
+    @Scheduled(fixedDelayString = "${product.changes.poll-interval:PT0.5S}")
+    public void publish(){
+        if(polls.isEmpty() && subscribers.isEmpty()){
+            return;
+        }
+        long last = productChangeSequencer.watermark().getAssigned();
+
+        for(Poll poll : polls){
+            if(poll.after < last && !poll.result.isSetOrExpired()){
+                poll.result.setResult(read(poll.after, poll.limit));
+            }
+        }
+
+        for(Subscriber subscriber : subscribers){
+            if(subscriber.position != last && subscriber.sending.compareAndSet(false, true)){
+                senders.execute(() -> send(subscriber));
+            }
+        }
+    }
+
+    /**
+     * Sends the changes a stream has not seen yet. The watermark is read again here, since the stream
+     * may have moved past the one read by {@link #publish()} while its previous send was running.
+     */
+    private void send(Subscriber subscriber){
+        try {
+            long last = productChangeSequencer.watermark().getAssigned();
+            if(subscriber.position > last){
+                subscriber.emitter.send(SseEmitter.event().name("resync").data(last));
+                subscriber.position = last;
+            }
+            while (subscriber.position < last){
+                ProductChangePage page = read(subscriber.position, MAX_PAGE_SIZE);
+                if(page.resync()){
+                    subscriber.emitter.send(SseEmitter.event().name("resync").data(page.next()));
+                }
+                for(ProductChangeDto change : page.changes()){
+                    subscriber.emitter.send(SseEmitter.event()
+                            .name("change")
+                            .id(String.valueOf(change.position()))
+                            .data(change));
+                }
+                if(page.changes().isEmpty()){
+                    break;
+                }
+                subscriber.position = page.next();
+            }
+        }
+        catch (IOException | IllegalStateException e){
+            logger.info("Closing product change stream: " + e.getMessage());
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+        }
+        catch (RuntimeException e){
+            logger.warn("Could not send product changes, retrying on the next publish: " + e.getMessage());
+        }
+        finally {
+            subscriber.sending.set(false);
+        }
+    }
+
+    private record Poll(long after, int limit, DeferredResult<ProductChangePage> result) {
+    }
+
+    private static class Subscriber {
+        private final SseEmitter emitter;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile long position;
+
+        Subscriber(SseEmitter emitter, long position) {
+            this.emitter = emitter;
+            this.position = position;
+        }
+    }
+}
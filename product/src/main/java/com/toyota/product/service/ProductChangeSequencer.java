@@ -0,0 +1,85 @@
+package com.toyota.product.service;
+
+import com.toyota.product.entity.ProductChangeWatermark;
+import com.toyota.product.repository.ProductChangeRepository;
+import com.toyota.product.repository.ProductChangeWatermarkRepository;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Gives committed product changes their feed positions and purges old changes. Both lock the single
+ * {@link ProductChangeWatermark} row, so however many instances run this, positions are handed out by one
+ * transaction at a time and only for changes that have committed. A transaction can not commit a change
+ * behind a position that is already visible to readers.
+ */
+@Service
+public class ProductChangeSequencer {
+    private static Logger logger = LogManager.getLogger(ProductChangeSequencer.class);
+    static final int BATCH_SIZE = 1000;
+    private final ProductChangeRepository productChangeRepository;
+    private final ProductChangeWatermarkRepository watermarkRepository;
+    private final Duration retention;
+
+    public ProductChangeSequencer(ProductChangeRepository productChangeRepository,
+                                  ProductChangeWatermarkRepository watermarkRepository,
+                                  @Value("${product.changes.retention:P7D}") Duration retention) {
+        this.productChangeRepository = productChangeRepository;
+        this.watermarkRepository = watermarkRepository;
+        this.retention = retention;
+    }
+
+    /**
+     * Assigns positions to the committed changes that have none yet, up to {@value #BATCH_SIZE} per run.
+     * Checks without locking first, so an idle feed costs one indexed query per run.
+     */
+    @Transactional
+    @Scheduled(fixedDelayString = "${product.changes.sequence-interval:PT0.2S}")
+    public void assignPositions(){
+        if(!productChangeRepository.existsByPositionIsNull()){
+            return;
+        }
+        ProductChangeWatermark watermark = lockWatermark();
+        int assigned = productChangeRepository.assignPositions(watermark.getAssigned(), BATCH_SIZE);
+        watermark.setAssigned(watermark.getAssigned() + assigned);
+    }
+
+    /**
+     * Deletes changes older than the retention period and records the last deleted position, so readers
+     * that fell further behind are told to resync even when every change was deleted.
+     */
+    @Transactional
+    @Scheduled(cron = "${product.changes.purge-cron:0 30 3 * * *}")
+    public void purge(){
+        Long last = productChangeRepository.findLastPositionBefore(LocalDateTime.now().minus(retention));
+        if(last == null){
+            return;
+        }
+        ProductChangeWatermark watermark = lockWatermark();
+        int deleted = productChangeRepository.deleteByPositionLessThanEqual(last);
+        watermark.setPurged(Math.max(watermark.getPurged(), last));
+        logger.info("Purged " + deleted + " product changes up to position " + last);
+    }
+
+    /**
+     * Reads the watermarks without locking, for readers.
+     *
+     * @return the current watermarks, all zero before any position was assigned
+     */
+    public ProductChangeWatermark watermark(){
+        return watermarkRepository.findById(ProductChangeWatermark.ID)
+                .orElseGet(() -> new ProductChangeWatermark(ProductChangeWatermark.ID, 0, 0));
+    }
+
+    private ProductChangeWatermark lockWatermark(){
+        watermarkRepository.createIfAbsent(ProductChangeWatermark.ID);
+        return watermarkRepository.findByIdForUpdate(ProductChangeWatermark.ID)
+                .orElseThrow(() -> new IllegalStateException("Product change watermark is missing"));
+    }
+}
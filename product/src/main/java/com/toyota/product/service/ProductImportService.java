@@ -0,0 +1,241 @@
+package com.toyota.product.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.toyota.product.dto.ProductDto;
+import com.toyota.product.dto.ProductImportReport;
+import com.toyota.product.dto.ProductImportReport.RowError;
+import com.toyota.product.entity.Product;
+import com.toyota.product.event.ProductsChangedEvent;
+import com.toyota.product.exception.BadProductRequestException;
+import com.toyota.product.repository.ProductChangeRepository;
+import com.toyota.product.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+@Service
+public class ProductImportService {
+    private static final Logger logger = LogManager.getLogger(ProductImportService.class);
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final List<String> CSV_COLUMNS = List.of("name", "amount", "price", "category");
+    private final ProductService productService;
+    private final ProductRepository productRepository;
+    private final ProductChangeRepository productChangeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+
+    public ProductImportService(ProductService productService,
+                                ProductRepository productRepository,
+                                ProductChangeRepository productChangeRepository,
+                                TransactionTemplate transactionTemplate,
+                                ObjectMapper objectMapper,
+                                ApplicationEventPublisher eventPublisher,
+                                EntityManager entityManager) {
+        this.productService = productService;
+        this.productRepository = productRepository;
+        this.productChangeRepository = productChangeRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Imports products from an uploaded file while it is being read. Every row is checked with the same
+     * rules as a single product creation; invalid rows are skipped and reported with their line number.
+     * Valid rows are saved in batches of {@value #BATCH_SIZE}, each in its own transaction and sent as
+     * JDBC batches, so memory use does not grow with the size of the file and a failure only loses
+     * the batch it happened in. The creations of a batch are added to the change feed with a single statement.
+     * The persistence context is cleared after every batch: open-in-view keeps one entity manager for the whole
+     * request, which would otherwise keep every imported product managed and dirty-check all of them on each flush.
+     *
+     * @param body uploaded file
+     * @param format either "csv" with a header naming the name, amount, price and category columns,
+     *               or "ndjson" with one product object per line
+     * @return number of imported and rejected rows with the reasons of the rejections
+     * @throws BadProductRequestException if the format is not supported or the CSV header is incomplete
+     * @throws IOException if the upload can not be read
+     */
+    public ProductImportReport importProducts(InputStream body, String format) throws IOException {
+        String extension = format.toLowerCase(Locale.ROOT);
+        if(!extension.equals("csv") && !extension.equals("ndjson")){
+            logger.warn("Unsupported import format: " + format);
+            throw new BadProductRequestException("Unsupported import format: " + format);
+        }
+
+        Batch batch = new Batch();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        Map<String, Integer> columns = null;
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null){
+            lineNumber++;
+            if(line.isBlank()){
+                continue;
+            }
+            if(extension.equals("csv") && columns == null){
+                columns = csvColumns(line);
+                continue;
+            }
+
+            ProductDto productDto;
+            try {
+                productDto = extension.equals("csv") ? parseCsv(line, columns) : parseNdjson(line);
+                productService.validate(productDto);
+            }
+            catch (BadProductRequestException e){
+                batch.reject(lineNumber, e.getMessage());
+                continue;
+            }
+            batch.add(lineNumber, productDto);
+        }
+        batch.save();
+
+        logger.info("Imported " + batch.imported + " products, rejected " + batch.rejected + " rows");
+        if(batch.imported > 0){
+            eventPublisher.publishEvent(new ProductsChangedEvent(batch.imported));
+        }
+        return new ProductImportReport(batch.imported, batch.rejected, batch.errors);
+    }
+
+    private static Map<String, Integer> csvColumns(String header){
+        List<String> names = splitCsv(header);
+        Map<String, Integer> columns = new HashMap<>();
+        for(int i = 0; i < names.size(); i++){
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if(!columns.keySet().containsAll(CSV_COLUMNS)){
+            logger.warn("CSV header must contain the columns " + CSV_COLUMNS);
+            throw new BadProductRequestException("CSV header must contain the columns " + String.join(",", CSV_COLUMNS));
+        }
+        return columns;
+    }
+
+    private static ProductDto parseCsv(String line, Map<String, Integer> columns){
+        List<String> fields = splitCsv(line);
+        if(fields.size() < columns.size()){
+            throw new BadProductRequestException("Expected " + columns.size() + " columns but found " + fields.size());
+        }
+        try {
+            return new ProductDto(null,
+                    fields.get(columns.get("name")),
+                    Integer.valueOf(fields.get(columns.get("amount")).trim()),
+                    Double.valueOf(fields.get(columns.get("price")).trim()),
+                    fields.get(columns.get("category")),
+                    null);
+        }
+        catch (NumberFormatException e){
+            throw new BadProductRequestException("Amount and price must be numbers");
+        }
+    }
+
+    private ProductDto parseNdjson(String line){
+        try {
+            return objectMapper.readValue(line, ProductDto.class);
+        }
+        catch (JsonProcessingException e){
+            throw new BadProductRequestException("Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    /**
+     * Splits a CSV line on commas. A field may be quoted to contain commas, with "" for a quote inside it.
+     */
+    static List<String> splitCsv(String line){
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for(int i = 0; i < line.length(); i++){
+            char c = line.charAt(i);
+            if(quoted){
+                if(c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"'){
+                    field.append('"');
+                    i++;
+                }
+                else if(c == '"'){
+                    quoted = false;
+                }
+                else{
+                    field.append(c);
+                }
+            }
+            else if(c == '"'){
+                quoted = true;
+            }
+            else if(c == ','){
+                fields.add(field.toString());
+                field.setLength(0);
+            }
+            else{
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private class Batch {
+        private final List<Product> products = new ArrayList<>(BATCH_SIZE);
+        private final List<Long> lines = new ArrayList<>(BATCH_SIZE);
+        private final List<RowError> errors = new ArrayList<>();
+        private int imported;
+        private int rejected;
+
+        void add(long line, ProductDto productDto){
+            products.add(ProductService.newProduct(productDto, LocalDateTime.now()));
+            lines.add(line);
+            if(products.size() == BATCH_SIZE){
+                save();
+            }
+        }
+
+        void reject(long line, String message){
+            rejected++;
+            if(errors.size() < MAX_REPORTED_ERRORS){
+                errors.add(new RowError(line, message));
+            }
+        }
+
+        void save(){
+            if(products.isEmpty()){
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    List<Product> saved = productRepository.saveAllAndFlush(products);
+                    productChangeRepository.recordCreated(saved.stream().map(Product::getId).toList());
+                    entityManager.clear();
+                });
+                imported += products.size();
+            }
+            catch (DataAccessException e){
+                logger.error("Could not save products of lines " + lines.get(0) + "-" + lines.get(lines.size() - 1), e);
+                for(Long line : lines){
+                    reject(line, "Could not save product: " + e.getMostSpecificCause().getMessage());
+                }
+            }
+            products.clear();
+            lines.clear();
+        }
+    }
+}
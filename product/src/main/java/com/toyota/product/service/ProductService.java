@@ -1,27 +1,48 @@
 package com.toyota.product.service;
 
+import com.toyota.product.dto.ProductCursor;
 import com.toyota.product.dto.ProductDto;
+import com.toyota.product.dto.ProductPage;
 import com.toyota.product.entity.Product;
+import com.toyota.product.event.ProductsChangedEvent;
 import com.toyota.product.exception.BadProductRequestException;
 import com.toyota.product.exception.ProductNotFoundException;
+import com.toyota.product.repository.ProductChangeRepository;
 import com.toyota.product.repository.ProductRepository;
 
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 public class ProductService {
     private static Logger logger = LogManager.getLogger(ProductService.class);
+    private static final int MAX_PAGE_SIZE = 500;
     private final ProductRepository productRepository;
+    private final ProductChangeRepository productChangeRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository,
+                          ProductChangeRepository productChangeRepository,
+                          ApplicationEventPublisher eventPublisher) {
         this.productRepository = productRepository;
+        this.productChangeRepository = productChangeRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -33,6 +54,99 @@ public class ProductService {
         return productRepository.findAll().stream().map(ProductDto::convert).collect(Collectors.toList());
     }
 
+    /**
+     * Function returns one page of products matching the given filters, ordered by name.
+     * Pages are found by an index seek on (name, id), so deep pages cost the same as the first one.
+     * @param categories categories to include, or every category if empty
+     * @param namePrefix case-insensitive start of the product name, or null
+     * @param minPrice lowest price to include, or null
+     * @param maxPrice highest price to include, or null
+     * @param cursor continuation token of the previous page, or null for the first page
+     * @param pageSize number of products per page
+     * @return products of the page and the token of the next page
+     */
+    public ProductPage searchProducts(List<String> categories,
+                                      String namePrefix,
+                                      Double minPrice,
+                                      Double maxPrice,
+                                      String cursor,
+                                      int pageSize){
+        if(pageSize < 1 || pageSize > MAX_PAGE_SIZE){
+            logger.warn("Page size must be between 1 and " + MAX_PAGE_SIZE);
+            throw new BadProductRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if(minPrice != null && maxPrice != null && minPrice > maxPrice){
+            logger.warn("Minimum price must not be higher than maximum price");
+            throw new BadProductRequestException("Minimum price must not be higher than maximum price");
+        }
+
+        ProductCursor after = cursor == null || cursor.isEmpty() ? null : ProductCursor.decode(cursor);
+        Specification<Product> specification = matches(categories, namePrefix, minPrice, maxPrice, after);
+
+        List<Product> products = productRepository.findBy(specification,
+                query -> query.sortBy(Sort.by("searchName", "id")).limit(pageSize).all());
+
+        String nextCursor = products.size() < pageSize ? null :
+                ProductCursor.of(products.get(products.size() - 1)).encode();
+
+        logger.info("Searching products");
+        return new ProductPage(products.stream().map(ProductDto::convert).collect(Collectors.toList()), nextCursor);
+    }
+
+    private static Specification<Product> matches(List<String> categories,
+                                                  String namePrefix,
+                                                  Double minPrice,
+                                                  Double maxPrice,
+                                                  ProductCursor after){
+        return (root, query, criteriaBuilder) -> {
+            Path<String> searchName = root.get("searchName");
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(criteriaBuilder.isNotNull(searchName));
+
+            if(categories != null && !categories.isEmpty()){
+                predicates.add(root.get("category").in(categories));
+            }
+            if(namePrefix != null && !namePrefix.isEmpty()){
+                String prefix = namePrefix.toLowerCase(Locale.ROOT);
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(searchName, prefix));
+                char last = prefix.charAt(prefix.length() - 1);
+                if(last != Character.MAX_VALUE){
+                    String upperBound = prefix.substring(0, prefix.length() - 1) + (char) (last + 1);
+                    predicates.add(criteriaBuilder.lessThan(searchName, upperBound));
+                }
+                predicates.add(criteriaBuilder.like(searchName, escapeLike(prefix) + "%", '\\'));
+            }
+            if(minPrice != null){
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("price"), minPrice));
+            }
+            if(maxPrice != null){
+                predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("price"), maxPrice));
+            }
+            if(after != null){
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(searchName, after.searchName()));
+                predicates.add(criteriaBuilder.or(criteriaBuilder.greaterThan(searchName, after.searchName()),
+                        criteriaBuilder.greaterThan(root.get("id"), after.id())));
+            }
+
+            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    private static String escapeLike(String value){
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Function fills the search name of products created before it was introduced.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void fillMissingSearchNames(){
+        int updated = productRepository.fillMissingSearchNames();
+        if(updated > 0){
+            logger.info("Filled search names of " + updated + " products");
+        }
+    }
+
     /**
      * Function returns requested product
      * @param productId productId
@@ -51,7 +165,27 @@ public class ProductService {
      * @param productDto productDto
      * @return product
      */
+    @Transactional
     public ProductDto createProduct(ProductDto productDto){
+        validate(productDto);
+
+        logger.info("Creating new product object");
+        Product saved = productRepository.saveAndFlush(newProduct(productDto, LocalDateTime.now()));
+        productChangeRepository.recordCreated(List.of(saved.getId()));
+        eventPublisher.publishEvent(new ProductsChangedEvent(1));
+        return ProductDto.convert(saved);
+    }
+
+    /**
+     * Checks that a product has every field and that all of them are usable. Single creations
+     * and bulk imports both go through here so they accept exactly the same products. The price must
+     * be a finite number: NaN and infinity are valid doubles, but pass the positive price check and
+     * would break every total they are added to.
+     *
+     * @param productDto product to check
+     * @throws BadProductRequestException if a field is missing or invalid
+     */
+    public void validate(ProductDto productDto){
         if (    productDto.name() == null ||
                 productDto.amount() == null ||
                 productDto.price() == null ||
@@ -63,20 +197,21 @@ public class ProductService {
         if (    productDto.name().isEmpty() ||
                 productDto.amount() <= 0 ||
                 productDto.price() <= 0 ||
+                !Double.isFinite(productDto.price()) ||
                 productDto.category().isEmpty()) {
             logger.warn("Invalid product data. All fields must be valid.");
             throw new BadProductRequestException("Invalid product data. All fields must be valid.");
         }
+    }
 
-
+    static Product newProduct(ProductDto productDto, LocalDateTime updatedDate){
         Product product = new Product();
         product.setName(productDto.name());
         product.setAmount(productDto.amount());
         product.setPrice(productDto.price());
         product.setCategory(productDto.category());
-        product.setUpdatedDate(LocalDateTime.now());
-
-        logger.info("Creating new product object");
-        return ProductDto.convert(productRepository.save(product));
+        product.setUpdatedDate(updatedDate);
+        product.setVersion(1L);
+        return product;
     }
 }
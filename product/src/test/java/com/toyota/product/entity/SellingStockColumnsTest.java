@@ -0,0 +1,61 @@
+package com.toyota.product.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The selling service decreases stock with plain SQL against products and product_changes, in
+ * StockReservationService there. Its StockReservationServiceTest checks that SQL against the same column
+ * lists, so renaming or dropping one of these columns here fails this test until the SQL is changed too.
+ */
+class SellingStockColumnsTest {
+    private static final Set<String> PRODUCT_COLUMNS = Set.of("id", "amount", "price", "version", "updated_date");
+    private static final Set<String> PRODUCT_CHANGE_COLUMNS = Set.of("id", "product_id", "version", "updated_date",
+            "old_price", "new_price", "old_amount", "new_amount");
+
+    @Test
+    void testProduct_shouldKeepColumnsWrittenBySellingService() {
+        assertEquals("products", Product.class.getAnnotation(Table.class).name());
+        assertEquals(Set.of(), missing(PRODUCT_COLUMNS, Product.class));
+    }
+
+    @Test
+    void testProductChange_shouldKeepColumnsAndSequenceUsedBySellingService() throws NoSuchFieldException {
+        assertEquals("product_changes", ProductChange.class.getAnnotation(Table.class).name());
+        assertEquals(Set.of(), missing(PRODUCT_CHANGE_COLUMNS, ProductChange.class));
+
+        SequenceGenerator sequence = ProductChange.class.getDeclaredField("id").getAnnotation(SequenceGenerator.class);
+        assertEquals("product_changes_seq", sequence.sequenceName());
+        assertEquals(1, sequence.allocationSize());
+    }
+
+    private static Set<String> missing(Set<String> expected, Class<?> entity) {
+        Set<String> missing = new HashSet<>(expected);
+        for (Field field : entity.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || field.isAnnotationPresent(OneToMany.class)) {
+                continue;
+            }
+            Column column = field.getAnnotation(Column.class);
+            missing.remove(column != null && !column.name().isEmpty() ? column.name() : columnName(field.getName()));
+        }
+        return missing;
+    }
+
+    /**
+     * The column name Spring Boot's default naming strategy gives a field.
+     */
+    private static String columnName(String fieldName) {
+        return fieldName.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,109 @@
+package com.toyota.product.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.toyota.product.dto.CatalogSnapshot;
+import com.toyota.product.dto.ProductDto;
+import com.toyota.product.entity.ProductChangeWatermark;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProductCatalogTest {
+    private ProductService productService;
+    private ProductChangeSequencer productChangeSequencer;
+    private ProductCatalog productCatalog;
+
+    @BeforeEach
+    void setUp() {
+        productService = mock(ProductService.class);
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        productChangeSequencer = mock(ProductChangeSequencer.class);
+        when(productChangeSequencer.watermark()).thenReturn(watermark(10));
+
+        productCatalog = new ProductCatalog(productService, objectMapper, productChangeSequencer);
+    }
+
+    @Test
+    void testGet_whenCalledTwice_shouldBuildSnapshotOnce() throws IOException {
+        when(productService.getAllProducts()).thenReturn(List.of(generateProductDto(10)));
+
+        CatalogSnapshot first = productCatalog.get();
+        CatalogSnapshot second = productCatalog.get();
+
+        assertSame(first, second);
+        verify(productService, times(1)).getAllProducts();
+        assertTrue(new String(first.json()).startsWith("[{\"id\":1,\"name\":\"product\""));
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(first.gzip()))) {
+            assertArrayEquals(first.json(), gzip.readAllBytes());
+        }
+        assertNotEquals(first.etag(), first.gzipEtag());
+    }
+
+    @Test
+    void testRefresh_whenFeedHasNotMoved_shouldNotReadProducts() {
+        when(productService.getAllProducts()).thenReturn(List.of(generateProductDto(10)));
+        CatalogSnapshot first = productCatalog.get();
+
+        productCatalog.refresh();
+
+        assertSame(first, productCatalog.get());
+        verify(productService, times(1)).getAllProducts();
+    }
+
+    @Test
+    void testRefresh_whenFeedMovedButCatalogIsUnchanged_shouldKeepSnapshotAndEtag() {
+        when(productService.getAllProducts()).thenReturn(List.of(generateProductDto(10)));
+        CatalogSnapshot first = productCatalog.get();
+        when(productChangeSequencer.watermark()).thenReturn(watermark(11));
+
+        productCatalog.refresh();
+        productCatalog.refresh();
+
+        assertSame(first, productCatalog.get());
+        verify(productService, times(2)).getAllProducts();
+    }
+
+    @Test
+    void testRefresh_whenStockChanged_shouldReplaceSnapshotAndEtag() {
+        when(productService.getAllProducts()).thenReturn(List.of(generateProductDto(10)));
+        CatalogSnapshot first = productCatalog.get();
+        when(productService.getAllProducts()).thenReturn(List.of(generateProductDto(9)));
+        when(productChangeSequencer.watermark()).thenReturn(watermark(11));
+
+        productCatalog.refresh();
+
+        assertNotEquals(first.etag(), productCatalog.get().etag());
+    }
+
+    @Test
+    void testAcceptsGzip_shouldHonourQualityValues() {
+        assertTrue(ProductCatalog.acceptsGzip("gzip, deflate, br"));
+        assertTrue(ProductCatalog.acceptsGzip("deflate;q=1.0, GZIP;q=0.5"));
+        assertTrue(ProductCatalog.acceptsGzip("*"));
+        assertFalse(ProductCatalog.acceptsGzip(null));
+        assertFalse(ProductCatalog.acceptsGzip("identity"));
+        assertFalse(ProductCatalog.acceptsGzip("gzip;q=0"));
+        assertFalse(ProductCatalog.acceptsGzip("br, gzip; q=0.000"));
+        assertFalse(ProductCatalog.acceptsGzip("gzip;q=0, *"));
+        assertFalse(ProductCatalog.acceptsGzip("*;q=0"));
+    }
+
+    private static ProductChangeWatermark watermark(long assigned){
+        return new ProductChangeWatermark(ProductChangeWatermark.ID, assigned, 0);
+    }
+
+    private ProductDto generateProductDto(int amount){
+        return new ProductDto(1L, "product", amount, 10.0, "GIDA", LocalDateTime.of(2024, 1, 1, 10, 0));
+    }
+}
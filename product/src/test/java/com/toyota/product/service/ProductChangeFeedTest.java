@@ -0,0 +1,203 @@
+package com.toyota.product.service;
+
+import com.toyota.product.dto.ProductChangePage;
+import com.toyota.product.entity.ProductChange;
+import com.toyota.product.entity.ProductChangeWatermark;
+import com.toyota.product.exception.BadProductRequestException;
+import com.toyota.product.repository.ProductChangeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ProductChangeFeedTest {
+    private ProductChangeRepository productChangeRepository;
+    private ProductChangeSequencer productChangeSequencer;
+    private ProductChangeFeed productChangeFeed;
+
+    @BeforeEach
+    void setUp() {
+        productChangeRepository = mock(ProductChangeRepository.class);
+        productChangeSequencer = mock(ProductChangeSequencer.class);
+        when(productChangeSequencer.watermark()).thenReturn(watermark(100, 0));
+
+        productChangeFeed = new ProductChangeFeed(productChangeRepository, productChangeSequencer, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        productChangeFeed.shutdown();
+    }
+
+    @Test
+    void testRead_whenChangesExist_shouldReturnThemWithNextPosition() {
+        when(productChangeRepository.findByPositionGreaterThanOrderByPositionAsc(10L, Limit.of(2)))
+                .thenReturn(List.of(generateChange(11), generateChange(12)));
+
+        ProductChangePage page = productChangeFeed.read(10L, 2);
+
+        assertEquals(2, page.changes().size());
+        assertEquals(11, page.changes().get(0).position());
+        assertEquals(8, page.changes().get(0).oldAmount());
+        assertEquals(5, page.changes().get(0).newAmount());
+        assertEquals(12, page.next());
+        assertFalse(page.resync());
+    }
+
+    @Test
+    void testRead_whenChangesWerePurged_shouldAskForResync() {
+        when(productChangeSequencer.watermark()).thenReturn(watermark(100, 49));
+        when(productChangeRepository.findByPositionGreaterThanOrderByPositionAsc(eq(10L), any()))
+                .thenReturn(List.of(generateChange(50)));
+
+        assertTrue(productChangeFeed.read(10L, 100).resync());
+    }
+
+    @Test
+    void testRead_whenEveryChangeWasPurged_shouldAskForResync() {
+        when(productChangeSequencer.watermark()).thenReturn(watermark(100, 100));
+        when(productChangeRepository.findByPositionGreaterThanOrderByPositionAsc(eq(10L), any()))
+                .thenReturn(List.of());
+
+        assertTrue(productChangeFeed.read(10L, 100).resync());
+    }
+
+    @Test
+    void testRead_whenPositionIsAheadOfFeed_shouldAskForResync() {
+        when(productChangeRepository.findByPositionGreaterThanOrderByPositionAsc(eq(500L), any()))
+                .thenReturn(List.of());
+
+        assertTrue(productChangeFeed.read(500L, 100).resync());
+    }
+
+    @Test
+    void testRead_withoutPosition_shouldReturnCurrentPosition() {
+        when(productChangeSequencer.watermark()).thenReturn(watermark(42, 0));
+
+        ProductChangePage page = productChangeFeed.read(null, 100);
+
+        assertTrue(page.changes().isEmpty());
+        assertEquals(42, page.next());
+    }
+
+    @Test
+    void testRead_whenLimitIsInvalid_shouldThrowBadProductRequestException() {
+        assertThrows(BadProductRequestException.class, () -> productChangeFeed.read(0L, 0));
+        assertThrows(BadProductRequestException.class, () -> productChangeFeed.read(0L, ProductChangeFeed.MAX_PAGE_SIZE + 1));
+    }
+
+    @Test
+    void testPoll_whenNoChanges_shouldWaitUntilPublished() {
+        when(productChangeSequencer.watermark()).thenReturn(watermark(10, 0));
+        when(productChangeRepository.findByPositionGreaterThanOrderByPositionAsc(eq(10L), any()))
+                .thenReturn(List.of())
+                .thenReturn(List.of(generateChange(11)));
+
+        DeferredResult<ProductChangePage> result = productChangeFeed.poll(10L, 100, Duration.ofSeconds(20));
+        assertFalse(result.hasResult());
+
+        productChangeFeed.publish();
+        assertFalse(result.hasResult());
+
+        when(productChangeSequencer.watermark()).thenReturn(watermark(11, 0));
+        productChangeFeed.publish();
+
+        assertTrue(result.hasResult());
+        assertEquals(11, ((ProductChangePage) result.getResult()).next());
+    }
+
+    @Test
+    void testPublish_whenNobodyIsWaiting_shouldNotQuery() {
+        productChangeFeed.publish();
+
+        verifyNoInteractions(productChangeRepository, productChangeSequencer);
+    }
+
+    @Test
+    void testPublish_whenStreamIsAheadOfFeed_shouldSendResync() throws InterruptedException {
+        RecordingEmitter emitter = new RecordingEmitter(new CountDownLatch(0));
+        productChangeFeed.stream(500L, emitter);
+
+        productChangeFeed.publish();
+
+        String event = emitter.events.poll(5, TimeUnit.SECONDS);
+        assertNotNull(event);
+        assertTrue(event.startsWith("event:resync\ndata:100"));
+    }
+
+    @Test
+    void testPublish_whenStreamClientIsSlow_shouldStillAnswerPolls() throws InterruptedException {
+        when(productChangeSequencer.watermark()).thenReturn(watermark(10, 0));
+        when(productChangeRepository.findByPositionGreaterThanOrderByPositionAsc(eq(10L), any()))
+                .thenReturn(List.of());
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter emitter = new RecordingEmitter(release);
+        productChangeFeed.stream(10L, emitter);
+        DeferredResult<ProductChangePage> result = productChangeFeed.poll(10L, 100, Duration.ofSeconds(20));
+
+        when(productChangeSequencer.watermark()).thenReturn(watermark(11, 0));
+        when(productChangeRepository.findByPositionGreaterThanOrderByPositionAsc(eq(10L), any()))
+                .thenReturn(List.of(generateChange(11)));
+        productChangeFeed.publish();
+        productChangeFeed.publish();
+
+        assertTrue(result.hasResult());
+        assertTrue(emitter.events.isEmpty());
+
+        release.countDown();
+        String event = emitter.events.poll(5, TimeUnit.SECONDS);
+        assertNotNull(event);
+        assertTrue(event.startsWith("event:change\nid:11\n"));
+        assertNull(emitter.events.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    private static ProductChangeWatermark watermark(long assigned, long purged){
+        return new ProductChangeWatermark(ProductChangeWatermark.ID, assigned, purged);
+    }
+
+    private static ProductChange generateChange(long position){
+        return new ProductChange(position + 1000, position, 3L, position, LocalDateTime.now().minusSeconds(5), 1.5, 1.5, 8, 5);
+    }
+
+    /**
+     * Records the events sent to it, after waiting for the latch like a client that is slow to read.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+        private final CountDownLatch release;
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            events.add(builder.build().stream()
+                    .map(data -> data.getData().toString())
+                    .collect(Collectors.joining()));
+        }
+    }
+}
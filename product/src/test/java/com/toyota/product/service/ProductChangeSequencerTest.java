@@ -0,0 +1,160 @@
+package com.toyota.product.service;
+
+import com.toyota.product.dto.ProductChangeDto;
+import com.toyota.product.dto.ProductChangePage;
+import com.toyota.product.entity.ProductChange;
+import com.toyota.product.entity.ProductChangeWatermark;
+import com.toyota.product.repository.ProductChangeRepository;
+import com.toyota.product.repository.ProductChangeWatermarkRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the sequencer and the feed against an in-memory product_changes table where, like in the database,
+ * a change is only visible once its transaction has committed.
+ */
+class ProductChangeSequencerTest {
+    private final TreeMap<Long, Row> rows = new TreeMap<>();
+    private ProductChangeWatermark watermark;
+    private ProductChangeRepository productChangeRepository;
+    private ProductChangeWatermarkRepository watermarkRepository;
+    private ProductChangeSequencer productChangeSequencer;
+    private ProductChangeFeed productChangeFeed;
+
+    @BeforeEach
+    void setUp() {
+        productChangeRepository = mock(ProductChangeRepository.class);
+        watermarkRepository = mock(ProductChangeWatermarkRepository.class);
+
+        when(watermarkRepository.findById(ProductChangeWatermark.ID)).thenAnswer(i -> Optional.ofNullable(watermark));
+        when(watermarkRepository.createIfAbsent(ProductChangeWatermark.ID)).thenAnswer(i -> {
+            if(watermark == null){
+                watermark = new ProductChangeWatermark(ProductChangeWatermark.ID, 0, 0);
+                return 1;
+            }
+            return 0;
+        });
+        when(watermarkRepository.findByIdForUpdate(ProductChangeWatermark.ID)).thenAnswer(i -> Optional.ofNullable(watermark));
+        when(productChangeRepository.existsByPositionIsNull()).thenAnswer(i ->
+                committed().anyMatch(row -> row.position == null));
+        when(productChangeRepository.assignPositions(anyLong(), anyInt())).thenAnswer(i -> {
+            long position = i.getArgument(0);
+            int limit = i.getArgument(1);
+            List<Row> pending = committed().filter(row -> row.position == null).limit(limit).toList();
+            for(Row row : pending){
+                row.position = ++position;
+            }
+            return pending.size();
+        });
+        when(productChangeRepository.findByPositionGreaterThanOrderByPositionAsc(anyLong(), any(Limit.class))).thenAnswer(i -> {
+            long after = i.getArgument(0);
+            Limit limit = i.getArgument(1);
+            return committed()
+                    .filter(row -> row.position != null && row.position > after)
+                    .sorted(Comparator.comparing(row -> row.position))
+                    .limit(limit.max())
+                    .map(Row::toChange)
+                    .toList();
+        });
+        when(productChangeRepository.findLastPositionBefore(any(LocalDateTime.class))).thenAnswer(i -> {
+            LocalDateTime before = i.getArgument(0);
+            return committed()
+                    .filter(row -> row.position != null && row.updatedDate.isBefore(before))
+                    .map(row -> row.position)
+                    .max(Long::compare)
+                    .orElse(null);
+        });
+        when(productChangeRepository.deleteByPositionLessThanEqual(anyLong())).thenAnswer(i -> {
+            long position = i.getArgument(0);
+            int before = rows.size();
+            rows.values().removeIf(row -> row.position != null && row.position <= position);
+            return before - rows.size();
+        });
+
+        productChangeSequencer = new ProductChangeSequencer(productChangeRepository, watermarkRepository, Duration.ofDays(7));
+        productChangeFeed = new ProductChangeFeed(productChangeRepository, productChangeSequencer, 1);
+    }
+
+    @Test
+    void testAssignPositions_whenLowerIdCommitsLater_shouldNotSkipIt() {
+        Row slow = write(10, LocalDateTime.now());
+        Row fast = write(11, LocalDateTime.now());
+        fast.committed = true;
+
+        productChangeSequencer.assignPositions();
+        ProductChangePage first = productChangeFeed.read(0L, 100);
+        assertEquals(List.of(11L), productIds(first));
+
+        slow.committed = true;
+        productChangeSequencer.assignPositions();
+        ProductChangePage second = productChangeFeed.read(first.next(), 100);
+
+        assertEquals(List.of(10L), productIds(second));
+        assertFalse(second.resync());
+    }
+
+    @Test
+    void testAssignPositions_whenNothingIsPending_shouldNotLock() {
+        productChangeSequencer.assignPositions();
+
+        verify(watermarkRepository, never()).findByIdForUpdate(any());
+    }
+
+    @Test
+    void testPurge_whenEveryChangeIsPurged_shouldStillAskBehindReadersToResync() {
+        write(10, LocalDateTime.now().minusDays(8)).committed = true;
+        write(11, LocalDateTime.now().minusDays(8)).committed = true;
+        productChangeSequencer.assignPositions();
+
+        productChangeSequencer.purge();
+
+        assertTrue(rows.isEmpty());
+        assertTrue(productChangeFeed.read(1L, 100).resync());
+        assertFalse(productChangeFeed.read(2L, 100).resync());
+    }
+
+    private Row write(long id, LocalDateTime updatedDate){
+        Row row = new Row(id, updatedDate);
+        rows.put(id, row);
+        return row;
+    }
+
+    private Stream<Row> committed(){
+        return rows.values().stream().filter(row -> row.committed);
+    }
+
+    private static List<Long> productIds(ProductChangePage page){
+        return page.changes().stream().map(ProductChangeDto::productId).toList();
+    }
+
+    private static class Row {
+        private final long id;
+        private final LocalDateTime updatedDate;
+        private boolean committed;
+        private Long position;
+
+        Row(long id, LocalDateTime updatedDate) {
+            this.id = id;
+            this.updatedDate = updatedDate;
+        }
+
+        ProductChange toChange(){
+            return new ProductChange(id, position, id, 1L, updatedDate, 1.5, 1.5, 8, 5);
+        }
+    }
+}
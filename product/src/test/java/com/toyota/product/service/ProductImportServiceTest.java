@@ -0,0 +1,189 @@
+package com.toyota.product.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.toyota.product.dto.ProductImportReport;
+import com.toyota.product.entity.Product;
+import com.toyota.product.event.ProductsChangedEvent;
+import com.toyota.product.exception.BadProductRequestException;
+import com.toyota.product.repository.ProductChangeRepository;
+import com.toyota.product.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ProductImportServiceTest {
+    private ProductRepository productRepository;
+    private ProductChangeRepository productChangeRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private EntityManager entityManager;
+    private ProductImportService productImportService;
+    private final List<List<Product>> savedBatches = new ArrayList<>();
+    private long lastId;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        productChangeRepository = mock(ProductChangeRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        entityManager = mock(EntityManager.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(productRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> {
+            List<Product> batch = invocation.getArgument(0);
+            batch.forEach(product -> product.setId(++lastId));
+            savedBatches.add(new ArrayList<>(batch));
+            return batch;
+        });
+
+        productImportService = new ProductImportService(
+                new ProductService(productRepository, productChangeRepository, eventPublisher),
+                productRepository, productChangeRepository, transactionTemplate, new ObjectMapper().findAndRegisterModules(), eventPublisher,
+                entityManager);
+    }
+
+    @Test
+    void testImportProducts_withCsv_shouldSaveValidRowsAndReportInvalidOnes() throws IOException {
+        String csv = """
+                category,name,price,amount
+                fruit,"Apple, red",1.5,10
+
+                fruit,Pear,abc,5
+                drink,"Cola \"\"Zero\"\"",2,0
+                drink,Water,0.5,100
+                fruit,Plum,NaN,5
+                fruit,Fig,Infinity,5
+                """;
+
+        ProductImportReport report = productImportService.importProducts(stream(csv), "csv");
+
+        assertEquals(2, report.imported());
+        assertEquals(4, report.rejected());
+        assertEquals(List.of(
+                new ProductImportReport.RowError(4, "Amount and price must be numbers"),
+                new ProductImportReport.RowError(5, "Invalid product data. All fields must be valid."),
+                new ProductImportReport.RowError(7, "Invalid product data. All fields must be valid."),
+                new ProductImportReport.RowError(8, "Invalid product data. All fields must be valid.")), report.errors());
+
+        assertEquals(1, savedBatches.size());
+        Product apple = savedBatches.get(0).get(0);
+        assertEquals("Apple, red", apple.getName());
+        assertEquals("apple, red", apple.getSearchName());
+        assertEquals(10, apple.getAmount());
+        assertEquals(1.5, apple.getPrice());
+        assertEquals("fruit", apple.getCategory());
+        assertNotNull(apple.getUpdatedDate());
+
+        ArgumentCaptor<ProductsChangedEvent> event = ArgumentCaptor.forClass(ProductsChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(2, event.getValue().count());
+    }
+
+    @Test
+    void testImportProducts_withNdjson_shouldReportMissingFieldsAndMalformedLines() throws IOException {
+        String ndjson = """
+                {"name":"Apple","amount":10,"price":1.5,"category":"fruit"}
+                {"name":"Pear","amount":5,"price":2.0}
+                {"name":
+                """;
+
+        ProductImportReport report = productImportService.importProducts(stream(ndjson), "NDJSON");
+
+        assertEquals(1, report.imported());
+        assertEquals(2, report.rejected());
+        assertEquals("Invalid product data. All fields are required.", report.errors().get(0).message());
+        assertEquals(3, report.errors().get(1).line());
+        assertTrue(report.errors().get(1).message().startsWith("Malformed JSON"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testImportProducts_withManyRows_shouldSaveInBatches() throws IOException {
+        StringBuilder csv = new StringBuilder("name,amount,price,category\n");
+        for(int i = 0; i < 1200; i++){
+            csv.append("product").append(i).append(",1,1.0,category\n");
+        }
+
+        ProductImportReport report = productImportService.importProducts(stream(csv.toString()), "csv");
+
+        assertEquals(1200, report.imported());
+        assertEquals(List.of(500, 500, 200), savedBatches.stream().map(List::size).toList());
+        ArgumentCaptor<List<Long>> recorded = ArgumentCaptor.forClass(List.class);
+        verify(productChangeRepository, times(3)).recordCreated(recorded.capture());
+        assertEquals(List.of(1001L, 1200L), List.of(recorded.getValue().get(0), recorded.getValue().get(199)));
+    }
+
+    @Test
+    void testImportProducts_withManyRows_shouldClearPersistenceContextAfterEveryBatch() throws IOException {
+        StringBuilder csv = new StringBuilder("name,amount,price,category\n");
+        for(int i = 0; i < 1200; i++){
+            csv.append("product").append(i).append(",1,1.0,category\n");
+        }
+
+        productImportService.importProducts(stream(csv.toString()), "csv");
+
+        InOrder inOrder = inOrder(productRepository, productChangeRepository, entityManager);
+        for(int i = 0; i < 3; i++){
+            inOrder.verify(productRepository).saveAllAndFlush(anyList());
+            inOrder.verify(productChangeRepository).recordCreated(anyList());
+            inOrder.verify(entityManager).clear();
+        }
+        inOrder.verifyNoMoreInteractions();
+    }
+
+    @Test
+    void testImportProducts_whenBatchFails_shouldRejectItsRowsAndContinue() throws IOException {
+        when(productRepository.saveAllAndFlush(anyList()))
+                .thenThrow(new DataIntegrityViolationException("value too long"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        StringBuilder csv = new StringBuilder("name,amount,price,category\n");
+        for(int i = 0; i < 600; i++){
+            csv.append("product").append(i).append(",1,1.0,category\n");
+        }
+
+        ProductImportReport report = productImportService.importProducts(stream(csv.toString()), "csv");
+
+        assertEquals(100, report.imported());
+        assertEquals(500, report.rejected());
+        assertEquals(2, report.errors().get(0).line());
+        assertEquals("Could not save product: value too long", report.errors().get(0).message());
+    }
+
+    @Test
+    void testImportProducts_withIncompleteHeader_shouldThrowBadProductRequestException() {
+        String csv = "name,price,category\nApple,1.5,fruit\n";
+
+        assertThrows(BadProductRequestException.class, () -> productImportService.importProducts(stream(csv), "csv"));
+        verify(productRepository, never()).saveAllAndFlush(anyList());
+    }
+
+    @Test
+    void testImportProducts_withUnsupportedFormat_shouldThrowBadProductRequestException() {
+        assertThrows(BadProductRequestException.class, () -> productImportService.importProducts(stream(""), "xlsx"));
+    }
+
+    private static InputStream stream(String content){
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,22 +1,32 @@
 package com.toyota.product.service;
 
+import com.toyota.product.dto.ProductCursor;
 import com.toyota.product.dto.ProductDto;
+import com.toyota.product.dto.ProductPage;
 import com.toyota.product.entity.Product;
+import com.toyota.product.event.ProductsChangedEvent;
 import com.toyota.product.exception.BadProductRequestException;
 import com.toyota.product.exception.ProductNotFoundException;
+import com.toyota.product.repository.ProductChangeRepository;
 import com.toyota.product.repository.ProductRepository;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.repository.query.FluentQuery;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -26,13 +36,18 @@ import static org.mockito.Mockito.times;
 class ProductServiceTest {
     private ProductService productService;
     private ProductRepository productRepository;
+    private ProductChangeRepository productChangeRepository;
+    private ApplicationEventPublisher eventPublisher;
     private MockedStatic<ProductDto> mockStatic;
     @BeforeEach
     void setUp() {
         productRepository = Mockito.mock(ProductRepository.class);
+        productChangeRepository = Mockito.mock(ProductChangeRepository.class);
         mockStatic = Mockito.mockStatic(ProductDto.class);
 
-        productService = new ProductService(productRepository);
+        eventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+
+        productService = new ProductService(productRepository, productChangeRepository, eventPublisher);
     }
 
     @Test
@@ -96,6 +111,93 @@ class ProductServiceTest {
         verify(productRepository, times(1)).findById(productId);
     }
 
+    @Test
+    void testCreateProduct_whenProductIsValid_shouldSaveProductRecordChangeAndPublishChange() {
+        Product product = generateProduct();
+        ProductDto productDto = generateProductDto(product);
+
+        when(productRepository.saveAndFlush(any(Product.class))).thenReturn(product);
+        when(ProductDto.convert(product)).thenReturn(productDto);
+
+        ProductDto result = productService.createProduct(productDto);
+
+        assertEquals(productDto, result);
+        verify(productChangeRepository, times(1)).recordCreated(List.of(product.getId()));
+        verify(eventPublisher, times(1)).publishEvent(new ProductsChangedEvent(1));
+    }
+
+    @Test
+    void testCreateProduct_whenProductIsInvalid_shouldThrowBadProductRequestException() {
+        ProductDto productDto = new ProductDto(null, "", 1, 1.0, "GIDA", null);
+
+        assertThrows(BadProductRequestException.class, () -> {
+            productService.createProduct(productDto);
+        });
+
+        verify(eventPublisher, never()).publishEvent(any());
+        verifyNoInteractions(productChangeRepository);
+    }
+
+    @Test
+    void testCreateProduct_whenPriceIsNotFinite_shouldThrowBadProductRequestException() {
+        for (double price : new double[]{Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY}) {
+            ProductDto productDto = new ProductDto(null, "Apple", 1, price, "GIDA", null);
+
+            assertThrows(BadProductRequestException.class, () -> {
+                productService.createProduct(productDto);
+            });
+        }
+
+        verify(productRepository, never()).save(any());
+        verifyNoInteractions(productChangeRepository);
+    }
+
+    @Test
+    void testSearchProducts_whenPageIsFull_shouldReturnProductsWithNextCursor() {
+        Product product = generateProduct();
+        ProductDto productDto = generateProductDto(product);
+        FluentQuery.FetchableFluentQuery<Product> query = mockFindBy(List.of(product));
+        when(ProductDto.convert(product)).thenReturn(productDto);
+
+        ProductPage result = productService.searchProducts(List.of("GIDA"), "Pro", 1.0, 20.0, null, 1);
+
+        assertEquals(List.of(productDto), result.products());
+        assertEquals(new ProductCursor("product", 1L), ProductCursor.decode(result.nextCursor()));
+        verify(query).sortBy(Sort.by("searchName", "id"));
+        verify(query).limit(1);
+    }
+
+    @Test
+    void testSearchProducts_whenPageIsNotFull_shouldReturnNullCursor() {
+        mockFindBy(List.of());
+
+        ProductPage result = productService.searchProducts(null, null, null, null,
+                new ProductCursor("product", 1L).encode(), 10);
+
+        assertEquals(List.of(), result.products());
+        assertNull(result.nextCursor());
+    }
+
+    @Test
+    void testSearchProducts_whenRequestIsInvalid_shouldThrowBadProductRequestException() {
+        assertThrows(BadProductRequestException.class,
+                () -> productService.searchProducts(null, null, null, null, null, 0));
+        assertThrows(BadProductRequestException.class,
+                () -> productService.searchProducts(null, null, 10.0, 5.0, null, 10));
+        assertThrows(BadProductRequestException.class,
+                () -> productService.searchProducts(null, null, null, null, "not-a-cursor", 10));
+    }
+
+    @SuppressWarnings("unchecked")
+    private FluentQuery.FetchableFluentQuery<Product> mockFindBy(List<Product> products){
+        FluentQuery.FetchableFluentQuery<Product> query = mock(FluentQuery.FetchableFluentQuery.class, RETURNS_SELF);
+        when(query.all()).thenReturn(products);
+        when(productRepository.findBy(any(Specification.class), any())).thenAnswer(invocation ->
+                invocation.<Function<FluentQuery.FetchableFluentQuery<Product>, List<Product>>>getArgument(1).apply(query));
+
+        return query;
+    }
+
     private Product generateProduct(){
         Product product = new Product();
 
@@ -3,5 +3,4 @@ package com.toyota.report.constant;
 public class Constant {
     public static final String ADDRESS = "toki konutlari sk. akpinar mah.\n05332147878\nKocaeli ";
     public static final String COMPANY_NAME = "  MARKET\n\n";
-    public static final String SECRET = "5367566B59703373367639792F423F4528482B4D6251655468576D5A71347437";
 }
@@ -1,28 +1,40 @@
 package com.toyota.report.controller;
 
+import com.toyota.report.dto.RenderedBill;
+import com.toyota.report.dto.SaleSlice;
 import com.toyota.report.entity.Sale;
+import com.toyota.report.service.BillBatchService;
+import com.toyota.report.service.SaleExportService;
 import com.toyota.report.service.SaleListingService;
-import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.io.IOException;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 @RestController
 @RequestMapping("/sales")
 public class SaleController {
+    private static final DateTimeFormatter FILE_NAME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd:hh:mm:ss");
     private final SaleListingService saleListingService;
+    private final SaleExportService saleExportService;
+    private final BillBatchService billBatchService;
 
-    public SaleController(SaleListingService saleListingService) {
+    public SaleController(SaleListingService saleListingService,
+                          SaleExportService saleExportService,
+                          BillBatchService billBatchService) {
         this.saleListingService = saleListingService;
+        this.saleExportService = saleExportService;
+        this.billBatchService = billBatchService;
     }
 
     @GetMapping
@@ -32,29 +44,70 @@ public class SaleController {
         return new ResponseEntity<>(saleListingService.findBySaleDate(year, month, day), HttpStatus.OK);
     }
 
+    @GetMapping("week")
+    public ResponseEntity<List<Sale>> searchBySaleWeek(@RequestParam int year, @RequestParam int week){
+        return new ResponseEntity<>(saleListingService.findBySaleWeek(year, week), HttpStatus.OK);
+    }
+
+    @GetMapping("month")
+    public ResponseEntity<List<Sale>> searchBySaleMonth(@RequestParam int year, @RequestParam int month){
+        return new ResponseEntity<>(saleListingService.findBySaleMonth(year, month), HttpStatus.OK);
+    }
+
+    @GetMapping("range")
+    public ResponseEntity<List<Sale>> searchBySaleDateRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end){
+        return new ResponseEntity<>(saleListingService.findBySaleDateBetween(start, end), HttpStatus.OK);
+    }
+
     @GetMapping("paged")
     public ResponseEntity<Page<Sale>> getAllPaged(@RequestParam(value="pageNo",defaultValue = "0",required = false) int pageNo,
                                                   @RequestParam(value="pageSize",defaultValue = "1",required = false) int pageSize){
         return new ResponseEntity<>(saleListingService.getAllSales(pageNo, pageSize),HttpStatus.OK);
     }
 
+    @GetMapping("seek")
+    public ResponseEntity<SaleSlice> getAllAfter(@RequestParam(value="after", required = false) String after,
+                                                 @RequestParam(value="pageSize", defaultValue = "100", required = false) int pageSize){
+        return new ResponseEntity<>(saleListingService.getSalesAfter(after, pageSize), HttpStatus.OK);
+    }
+
     @GetMapping("sorted")
-    public ResponseEntity<List<Sale>> getAllSorted(@RequestParam String sortBy, @RequestParam String sortOrder){
-        return new ResponseEntity<>(saleListingService.getAllSortedSales(sortBy, sortOrder), HttpStatus.OK);
+    public ResponseEntity<SaleSlice> getAllSorted(@RequestParam String sortBy,
+                                                  @RequestParam String sortOrder,
+                                                  @RequestParam(value="after", required = false) String after,
+                                                  @RequestParam(value="pageSize", defaultValue = "100", required = false) int pageSize){
+        return new ResponseEntity<>(saleListingService.getSortedSales(sortBy, sortOrder, after, pageSize), HttpStatus.OK);
+    }
+
+    @GetMapping("export")
+    public void exportSales(HttpServletResponse response,
+                            @RequestParam(value="format", defaultValue = "ndjson", required = false) String format) throws IOException {
+        saleExportService.exportSales(response, format);
     }
 
     @GetMapping("createbill")
-    public void createBillForSale(HttpServletResponse response, @RequestParam String billId) throws IOException {
+    public ResponseEntity<byte[]> createBillForSale(@RequestParam String billId){
+        RenderedBill bill = saleListingService.createBillForSale(billId);
+
+        String currentDateTime = LocalDateTime.now().format(FILE_NAME_FORMATTER);
 
-        response.setContentType("application/pdf");
-        DateFormat dateFormatter = new SimpleDateFormat("yyyy-MM-dd:hh:mm:ss");
-        String currentDateTime = dateFormatter.format(new Date());
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.set(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=pdf_" + currentDateTime + ".pdf");
+        headers.setETag(bill.etag());
+        headers.setCacheControl(CacheControl.noCache().cachePrivate());
 
-        String headerKey = "Content-Disposition";
-        String headerValue = "attachment; filename=pdf_" + currentDateTime + ".pdf";
-        response.setHeader(headerKey, headerValue);
+        return new ResponseEntity<>(bill.pdf(), headers, HttpStatus.OK);
+    }
 
-        saleListingService.createBillForSale(response, billId);
+    @GetMapping("bills")
+    public void createBillsForSales(HttpServletResponse response,
+                                    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                    @RequestParam(value="cashierName", required = false) String cashierName) throws IOException {
+        billBatchService.writeBills(response, start, end, cashierName);
     }
 
 }
@@ -0,0 +1,38 @@
+package com.toyota.report.controller;
+
+import com.toyota.report.dto.SalesDashboard;
+import com.toyota.report.service.SaleRollupService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/sales/dashboard")
+public class SaleDashboardController {
+    private final SaleRollupService saleRollupService;
+
+    public SaleDashboardController(SaleRollupService saleRollupService) {
+        this.saleRollupService = saleRollupService;
+    }
+
+    @GetMapping("daily")
+    public ResponseEntity<SalesDashboard> getDailyDashboard(@RequestParam int year,
+                                                            @RequestParam int month,
+                                                            @RequestParam int day){
+        return new ResponseEntity<>(saleRollupService.getDailyDashboard(year, month, day), HttpStatus.OK);
+    }
+
+    @GetMapping("monthly")
+    public ResponseEntity<SalesDashboard> getMonthlyDashboard(@RequestParam int year, @RequestParam int month){
+        return new ResponseEntity<>(saleRollupService.getMonthlyDashboard(year, month), HttpStatus.OK);
+    }
+
+    @PostMapping("backfill")
+    public ResponseEntity<Long> backfill(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to){
+        return new ResponseEntity<>(saleRollupService.backfill(from, to), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,10 @@
+package com.toyota.report.dto;
+
+/**
+ * A rendered PDF bill.
+ *
+ * @param pdf The PDF document.
+ * @param etag The quoted entity tag of the document, derived from its content.
+ */
+public record RenderedBill(byte[] pdf, String etag) {
+}
@@ -0,0 +1,33 @@
+package com.toyota.report.dto;
+
+import com.toyota.report.entity.RollupDimension;
+
+/**
+ * Summed rollup totals of one dimension key over a date range.
+ *
+ * @param dimension The dimension of the totals.
+ * @param key The cashier name, payment method or product ID; empty for the whole day.
+ * @param saleCount The number of sales.
+ * @param totalPrice The total price before discounts.
+ * @param paidPrice The paid price, or null for product rows rolled up before line prices were recorded.
+ * @param discount The total discount, or null when the paid price is null.
+ * @param units The number of sold product units.
+ */
+public record RollupTotal(RollupDimension dimension,
+                          String key,
+                          Long saleCount,
+                          Double totalPrice,
+                          Double paidPrice,
+                          Double discount,
+                          Long units) {
+
+    public RollupTotal(RollupDimension dimension, String key, Long saleCount, Double totalPrice, Double paidPrice,
+                       Long units) {
+        this(dimension, key, saleCount, totalPrice, paidPrice,
+                paidPrice == null ? null : totalPrice - paidPrice, units);
+    }
+
+    public static RollupTotal empty(){
+        return new RollupTotal(RollupDimension.ALL, "", 0L, 0.0, 0.0, 0L);
+    }
+}
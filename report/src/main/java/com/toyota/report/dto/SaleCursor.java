@@ -0,0 +1,51 @@
+package com.toyota.report.dto;
+
+import com.toyota.report.entity.Sale;
+import com.toyota.report.exception.BadSaleRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last sale returned by a keyset page. Sent to clients as an opaque token.
+ *
+ * @param field The field the page was sorted by.
+ * @param value The sort field value of the last returned sale.
+ * @param billId The bill ID of the last returned sale.
+ */
+public record SaleCursor(SaleSortField field, String value, String billId) {
+    private static final String SEPARATOR = "|";
+
+    public static SaleCursor of(Sale sale, SaleSortField field){
+        return new SaleCursor(field, field.valueOf(sale), sale.getBillId());
+    }
+
+    public String encode(){
+        String token = field.name() + SEPARATOR + billId + SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads a token created by {@link #encode()}.
+     *
+     * @param token The continuation token sent by the client.
+     * @param field The field the requested page is sorted by.
+     * @return The decoded cursor.
+     * @throws BadSaleRequestException if the token is not a valid cursor for that field.
+     */
+    public static SaleCursor decode(String token, SaleSortField field){
+        String value;
+        try {
+            value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new BadSaleRequestException("Invalid cursor");
+        }
+
+        String prefix = field.name() + SEPARATOR;
+        int separator = value.indexOf(SEPARATOR, prefix.length());
+        if(!value.startsWith(prefix) || separator < 0){
+            throw new BadSaleRequestException("Invalid cursor");
+        }
+        return new SaleCursor(field, value.substring(separator + 1), value.substring(prefix.length(), separator));
+    }
+}
@@ -0,0 +1,41 @@
+package com.toyota.report.dto;
+
+import com.toyota.report.entity.PaymentMethod;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A sale with its lines as written to an NDJSON export.
+ */
+public record SaleExport(String billId,
+                         LocalDateTime saleDate,
+                         String cashierName,
+                         PaymentMethod paymentMethod,
+                         Double totalPrice,
+                         Double paidPrice,
+                         List<Line> lines) {
+
+    public record Line(Long productId, String productName, Double price, Integer saledAmount) {
+    }
+
+    /**
+     * Starts a sale from the first export row of its bill.
+     *
+     * @param row The first row of the sale.
+     * @return The sale holding that row's line, if it has one.
+     */
+    public static SaleExport of(SaleExportRow row){
+        SaleExport sale = new SaleExport(row.billId(), row.saleDate(), row.cashierName(), row.paymentMethod(),
+                row.totalPrice(), row.paidPrice(), new ArrayList<>());
+        sale.add(row);
+        return sale;
+    }
+
+    public void add(SaleExportRow row){
+        if(row.productId() != null){
+            lines.add(new Line(row.productId(), row.productName(), row.productPrice(), row.saledAmount()));
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.toyota.report.dto;
+
+import com.toyota.report.entity.PaymentMethod;
+
+import java.time.LocalDateTime;
+
+/**
+ * One line of a sale joined with its sale and product, read straight from the export and rollup queries without
+ * creating managed entities. A sale without lines is returned once with null product columns.
+ * <p>
+ * The product price is the unit price the line was sold at. Lines sold before that price was recorded fall back
+ * to the current price of the product and have no line paid price.
+ */
+public record SaleExportRow(String billId,
+                            LocalDateTime saleDate,
+                            String cashierName,
+                            PaymentMethod paymentMethod,
+                            Double totalPrice,
+                            Double paidPrice,
+                            Long productId,
+                            String productName,
+                            Double productPrice,
+                            Integer saledAmount,
+                            Double linePaidPrice) {
+}
@@ -0,0 +1,14 @@
+package com.toyota.report.dto;
+
+import com.toyota.report.entity.Sale;
+
+import java.util.List;
+
+/**
+ * One keyset page of sales.
+ *
+ * @param sales The sales of the page.
+ * @param nextCursor The token to request the next page with, or null if this is the last page.
+ */
+public record SaleSlice(List<Sale> sales, String nextCursor) {
+}
@@ -0,0 +1,70 @@
+package com.toyota.report.dto;
+
+import com.toyota.report.entity.Sale;
+import com.toyota.report.exception.BadSaleRequestException;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.function.Function;
+
+/**
+ * Fields sales can be sorted by. Each one is backed by an index on (field, billId), so a sorted page
+ * is read with an index scan instead of sorting the whole table. The selling service always sets
+ * these fields, so they are never null.
+ */
+public enum SaleSortField {
+    SALE_DATE("saleDate", Sale::getSaleDate, LocalDateTime::parse),
+    TOTAL_PRICE("totalPrice", Sale::getTotalPrice, Double::valueOf),
+    PAID_PRICE("paidPrice", Sale::getPaidPrice, Double::valueOf),
+    CASHIER_NAME("cashierName", Sale::getCashierName, Function.identity());
+
+    private final String property;
+    private final Function<Sale, ? extends Comparable<?>> getter;
+    private final Function<String, ? extends Comparable<?>> parser;
+
+    SaleSortField(String property, Function<Sale, ? extends Comparable<?>> getter,
+                  Function<String, ? extends Comparable<?>> parser) {
+        this.property = property;
+        this.getter = getter;
+        this.parser = parser;
+    }
+
+    /**
+     * Finds the sort field with the given entity property name.
+     *
+     * @param property The property name sent by the client, e.g. "saleDate".
+     * @return The matching sort field.
+     * @throws BadSaleRequestException if sales can not be sorted by that property.
+     */
+    public static SaleSortField of(String property){
+        for(SaleSortField field : values()){
+            if(field.property.equals(property)){
+                return field;
+            }
+        }
+        throw new BadSaleRequestException("Sales can not be sorted by: " + property);
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public String valueOf(Sale sale){
+        return getter.apply(sale).toString();
+    }
+
+    /**
+     * Converts a value written by {@link #valueOf(Sale)} back to the type of the field.
+     *
+     * @param value The value read from a cursor.
+     * @return The typed value.
+     * @throws BadSaleRequestException if the value does not belong to this field.
+     */
+    public Comparable<?> parse(String value){
+        try {
+            return parser.apply(value);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new BadSaleRequestException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.toyota.report.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Sales totals of a date range read from the rollups.
+ *
+ * @param start The first day of the range.
+ * @param end The day after the last day of the range.
+ * @param rolledUpTo The sale date up to which sales are counted, or null if nothing has been rolled up yet.
+ * @param total The totals of every sale in the range.
+ * @param byCashier The totals of each cashier.
+ * @param byPaymentMethod The totals of each payment method.
+ * @param byProduct The sale count, units and gross value of each product.
+ */
+public record SalesDashboard(LocalDate start,
+                             LocalDate end,
+                             LocalDateTime rolledUpTo,
+                             RollupTotal total,
+                             List<RollupTotal> byCashier,
+                             List<RollupTotal> byPaymentMethod,
+                             List<RollupTotal> byProduct) {
+}
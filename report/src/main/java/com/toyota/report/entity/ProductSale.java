@@ -21,6 +21,16 @@ public class ProductSale {
 
     private int saledAmount;
 
+    /**
+     * The unit price of the product when it was sold. Null for lines sold before the price was recorded.
+     */
+    private Double price;
+
+    /**
+     * The price paid for the whole line after its campaign. Null for lines sold before the price was recorded.
+     */
+    private Double paidPrice;
+
     public ProductSale() {
     }
 
@@ -55,4 +65,20 @@ public class ProductSale {
     public void setSaledAmount(int saledAmount) {
         this.saledAmount = saledAmount;
     }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public void setPrice(Double price) {
+        this.price = price;
+    }
+
+    public Double getPaidPrice() {
+        return paidPrice;
+    }
+
+    public void setPaidPrice(Double paidPrice) {
+        this.paidPrice = paidPrice;
+    }
 }
@@ -0,0 +1,8 @@
+package com.toyota.report.entity;
+
+public enum RollupDimension {
+    ALL,
+    CASHIER,
+    PAYMENT_METHOD,
+    PRODUCT
+}
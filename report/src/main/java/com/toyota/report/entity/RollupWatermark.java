@@ -0,0 +1,38 @@
+package com.toyota.report.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sale date up to which sales have been added to the rollups. Sales made before it are counted,
+ * sales made on or after it are not yet.
+ */
+@Entity
+@Table(name = "rollup_watermarks")
+public class RollupWatermark {
+    @Id
+    private String name;
+    private LocalDateTime rolledUpTo;
+
+    public RollupWatermark() {
+    }
+
+    public RollupWatermark(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LocalDateTime getRolledUpTo() {
+        return rolledUpTo;
+    }
+
+    public void setRolledUpTo(LocalDateTime rolledUpTo) {
+        this.rolledUpTo = rolledUpTo;
+    }
+}
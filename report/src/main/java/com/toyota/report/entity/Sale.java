@@ -9,7 +9,12 @@ import java.time.LocalDateTime;
 import java.util.Set;
 
 @Entity
-@Table(name="sales")
+@Table(name="sales", indexes = {
+        @Index(name = "idx_sales_sale_date_bill_id", columnList = "saleDate, billId"),
+        @Index(name = "idx_sales_total_price_bill_id", columnList = "totalPrice, billId"),
+        @Index(name = "idx_sales_paid_price_bill_id", columnList = "paidPrice, billId"),
+        @Index(name = "idx_sales_cashier_name_bill_id", columnList = "cashierName, billId")
+})
 public class Sale {
     @Id
     @GeneratedValue(generator = "UUID")
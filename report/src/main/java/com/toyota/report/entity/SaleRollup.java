@@ -0,0 +1,82 @@
+package com.toyota.report.entity;
+
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+
+import java.util.Objects;
+
+/**
+ * Totals of the sales made on one day, for the whole day or for one cashier, payment method or product.
+ * Product rows sum the prices their lines were sold at; lines sold before those prices were recorded
+ * only add to the sale count and units.
+ */
+@Entity
+@Table(name = "sale_rollups")
+public class SaleRollup {
+    @EmbeddedId
+    private SaleRollupId id;
+    private long saleCount;
+    private double totalPrice;
+    private Double paidPrice;
+    private long units;
+    @Version
+    private Long version;
+
+    public SaleRollup() {
+    }
+
+    public SaleRollup(SaleRollupId id) {
+        this.id = id;
+        this.paidPrice = 0.0;
+    }
+
+    /**
+     * Adds the totals of another rollup with the same ID to this one.
+     *
+     * @param other The rollup to add.
+     */
+    public void add(SaleRollup other){
+        saleCount += other.saleCount;
+        totalPrice += other.totalPrice;
+        paidPrice = Objects.requireNonNullElse(paidPrice, 0.0) + Objects.requireNonNullElse(other.paidPrice, 0.0);
+        units += other.units;
+    }
+
+    public SaleRollupId getId() {
+        return id;
+    }
+
+    public long getSaleCount() {
+        return saleCount;
+    }
+
+    public void setSaleCount(long saleCount) {
+        this.saleCount = saleCount;
+    }
+
+    public double getTotalPrice() {
+        return totalPrice;
+    }
+
+    public void setTotalPrice(double totalPrice) {
+        this.totalPrice = totalPrice;
+    }
+
+    public Double getPaidPrice() {
+        return paidPrice;
+    }
+
+    public void setPaidPrice(Double paidPrice) {
+        this.paidPrice = paidPrice;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public void setUnits(long units) {
+        this.units = units;
+    }
+}
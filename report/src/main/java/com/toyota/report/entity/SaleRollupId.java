@@ -0,0 +1,51 @@
+package com.toyota.report.entity;
+
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+@Embeddable
+public class SaleRollupId implements Serializable {
+    private LocalDate saleDay;
+    @Enumerated(EnumType.STRING)
+    private RollupDimension dimension;
+    private String dimensionKey;
+
+    public SaleRollupId() {
+    }
+
+    public SaleRollupId(LocalDate saleDay, RollupDimension dimension, String dimensionKey) {
+        this.saleDay = saleDay;
+        this.dimension = dimension;
+        this.dimensionKey = dimensionKey;
+    }
+
+    public LocalDate getSaleDay() {
+        return saleDay;
+    }
+
+    public RollupDimension getDimension() {
+        return dimension;
+    }
+
+    public String getDimensionKey() {
+        return dimensionKey;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SaleRollupId that)) return false;
+        return Objects.equals(saleDay, that.saleDay) && dimension == that.dimension
+                && Objects.equals(dimensionKey, that.dimensionKey);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(saleDay, dimension, dimensionKey);
+    }
+}
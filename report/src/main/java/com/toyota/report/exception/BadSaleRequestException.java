@@ -0,0 +1,7 @@
+package com.toyota.report.exception;
+
+public class BadSaleRequestException extends RuntimeException{
+    public BadSaleRequestException(String message) {
+        super(message);
+    }
+}
@@ -1,16 +1,67 @@
 package com.toyota.report.repository;
 
+import com.toyota.report.dto.SaleExportRow;
 import com.toyota.report.entity.Sale;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface SaleRepository extends JpaRepository<Sale, String> {
-    @Query("SELECT s FROM Sale s " +
-            "WHERE YEAR(s.saleDate) = :year AND MONTH(s.saleDate) = :month AND DAY(s.saleDate) = :day")
-    List<Sale> findBySaleDate(int year, int month, int day);
+public interface SaleRepository extends JpaRepository<Sale, String>, JpaSpecificationExecutor<Sale> {
+    @EntityGraph(attributePaths = {"productSales", "productSales.product"})
+    @Query("SELECT DISTINCT s FROM Sale s " +
+            "WHERE s.saleDate >= :start AND s.saleDate < :end")
+    List<Sale> findBySaleDateBetween(LocalDateTime start, LocalDateTime end);
 
+    @EntityGraph(attributePaths = {"productSales", "productSales.product"})
+    Optional<Sale> findById(String billId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.toyota.report.dto.SaleExportRow(s.billId, s.saleDate, s.cashierName, s.paymentMethod, " +
+            "s.totalPrice, s.paidPrice, p.id, p.name, COALESCE(ps.price, p.price), ps.saledAmount, ps.paidPrice) " +
+            "FROM Sale s LEFT JOIN s.productSales ps LEFT JOIN ps.product p " +
+            "ORDER BY s.saleDate, s.billId, ps.id")
+    Stream<SaleExportRow> streamAllForExport();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.toyota.report.dto.SaleExportRow(s.billId, s.saleDate, s.cashierName, s.paymentMethod, " +
+            "s.totalPrice, s.paidPrice, p.id, p.name, COALESCE(ps.price, p.price), ps.saledAmount, ps.paidPrice) " +
+            "FROM Sale s LEFT JOIN s.productSales ps LEFT JOIN ps.product p " +
+            "WHERE s.saleDate >= :start AND s.saleDate < :end " +
+            "ORDER BY s.billId")
+    Stream<SaleExportRow> streamBetween(LocalDateTime start, LocalDateTime end);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.toyota.report.dto.SaleExportRow(s.billId, s.saleDate, s.cashierName, s.paymentMethod, " +
+            "s.totalPrice, s.paidPrice, p.id, p.name, COALESCE(ps.price, p.price), ps.saledAmount, ps.paidPrice) " +
+            "FROM Sale s LEFT JOIN s.productSales ps LEFT JOIN ps.product p " +
+            "WHERE s.saleDate >= :start AND s.saleDate < :end " +
+            "AND (:cashierName IS NULL OR s.cashierName = :cashierName) " +
+            "ORDER BY s.saleDate, s.billId, ps.id")
+    Stream<SaleExportRow> streamForBills(LocalDateTime start, LocalDateTime end, String cashierName);
+
+    @Query("SELECT COUNT(s) FROM Sale s " +
+            "WHERE s.saleDate >= :start AND s.saleDate < :end " +
+            "AND (:cashierName IS NULL OR s.cashierName = :cashierName)")
+    long countForBills(LocalDateTime start, LocalDateTime end, String cashierName);
+
+    @Query("SELECT MIN(s.saleDate) FROM Sale s")
+    LocalDateTime findFirstSaleDate();
 }
@@ -0,0 +1,23 @@
+package com.toyota.report.repository;
+
+import com.toyota.report.dto.RollupTotal;
+import com.toyota.report.entity.SaleRollup;
+import com.toyota.report.entity.SaleRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SaleRollupRepository extends JpaRepository<SaleRollup, SaleRollupId> {
+    @Query("SELECT new com.toyota.report.dto.RollupTotal(r.id.dimension, r.id.dimensionKey, " +
+            "SUM(r.saleCount), SUM(r.totalPrice), SUM(r.paidPrice), SUM(r.units)) " +
+            "FROM SaleRollup r WHERE r.id.saleDay >= :start AND r.id.saleDay < :end " +
+            "GROUP BY r.id.dimension, r.id.dimensionKey")
+    List<RollupTotal> sumBetween(LocalDate start, LocalDate end);
+
+    @Modifying
+    @Query("DELETE FROM SaleRollup r WHERE r.id.saleDay >= :start AND r.id.saleDay < :end")
+    int deleteBetween(LocalDate start, LocalDate end);
+}
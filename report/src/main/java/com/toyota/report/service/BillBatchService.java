@@ -0,0 +1,199 @@
+package com.toyota.report.service;
+
+import com.toyota.report.dto.SaleExportRow;
+import com.toyota.report.entity.Product;
+import com.toyota.report.entity.ProductSale;
+import com.toyota.report.entity.Sale;
+import com.toyota.report.exception.BadSaleRequestException;
+import com.toyota.report.repository.SaleRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+@Service
+public class BillBatchService {
+    private static final Logger logger = LogManager.getLogger(BillBatchService.class);
+    private static final int PROGRESS_INTERVAL = 500;
+    private final SaleRepository saleRepository;
+    private final BillRenderer billRenderer;
+    private final ExecutorService workers;
+    private final int window;
+
+    public BillBatchService(SaleRepository saleRepository,
+                            BillRenderer billRenderer,
+                            @Value("${report.bill-batch.threads:4}") int threads) {
+        this.saleRepository = saleRepository;
+        this.billRenderer = billRenderer;
+        AtomicInteger workerCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "bill-renderer-" + workerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.window = threads * 2;
+    }
+
+    @PreDestroy
+    public void shutdown(){
+        workers.shutdownNow();
+    }
+
+    /**
+     * Writes the bills of every sale made in [start, end) to the response as a ZIP with one PDF per sale,
+     * in sale date order. Sales are read through a single streamed query and rendered in parallel on
+     * the bill worker pool. At most a few bills per worker are held in memory at a time. The number of
+     * bills is sent up front in the X-Bill-Count header so clients can show progress.
+     *
+     * @param response The HttpServletResponse to which the ZIP will be written.
+     * @param start The inclusive start of the interval.
+     * @param end The exclusive end of the interval.
+     * @param cashierName Only bills of this cashier are written, or every cashier's if null.
+     * @throws BadSaleRequestException if start is not before end.
+     * @throws IOException If there is an input/output error while writing the response.
+     */
+    @Transactional(readOnly = true)
+    public void writeBills(HttpServletResponse response, LocalDateTime start, LocalDateTime end,
+                           String cashierName) throws IOException {
+        if(!start.isBefore(end)){
+            logger.warn("Start date must be before end date");
+            throw new BadSaleRequestException("Start date must be before end date");
+        }
+
+        long billCount = saleRepository.countForBills(start, end, cashierName);
+        response.setContentType("application/zip");
+        response.setHeader("Content-Disposition", "attachment; filename=bills_" + start.toLocalDate() + ".zip");
+        response.setHeader("X-Bill-Count", String.valueOf(billCount));
+
+        BillZip bills = new BillZip(new ZipOutputStream(response.getOutputStream()));
+        try (Stream<SaleExportRow> rows = saleRepository.streamForBills(start, end, cashierName)) {
+            Iterator<SaleExportRow> iterator = rows.iterator();
+            Sale sale = null;
+            while (iterator.hasNext()){
+                SaleExportRow row = iterator.next();
+                if(sale == null || !sale.getBillId().equals(row.billId())){
+                    if(sale != null){
+                        bills.submit(sale);
+                    }
+                    sale = toSale(row);
+                }
+                addLine(sale, row);
+            }
+            if(sale != null){
+                bills.submit(sale);
+            }
+            bills.finish();
+        } finally {
+            bills.cancel();
+        }
+
+        logger.info("Created " + bills.written + " bills for sales between " + start + " and " + end);
+    }
+
+    /**
+     * Renders submitted sales on the worker pool and writes them to the ZIP in submission order.
+     * Once more than the window of bills is in flight, the oldest one is written before another is submitted.
+     */
+    private final class BillZip {
+        private final Deque<Future<RenderedEntry>> pending = new ArrayDeque<>();
+        private final ZipOutputStream zip;
+        private int written;
+
+        private BillZip(ZipOutputStream zip) {
+            this.zip = zip;
+            this.zip.setLevel(Deflater.BEST_SPEED);
+        }
+
+        private void submit(Sale sale) throws IOException {
+            pending.add(workers.submit(() -> new RenderedEntry(sale.getBillId(), billRenderer.render(sale))));
+            if(pending.size() > window){
+                writeNext();
+            }
+        }
+
+        private void finish() throws IOException {
+            while (!pending.isEmpty()){
+                writeNext();
+            }
+            zip.finish();
+            zip.flush();
+        }
+
+        private void cancel(){
+            pending.forEach(future -> future.cancel(true));
+        }
+
+        private void writeNext() throws IOException {
+            RenderedEntry entry;
+            try {
+                entry = pending.poll().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while creating bills", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Could not create bill", e.getCause());
+            }
+
+            zip.putNextEntry(new ZipEntry(entry.billId() + ".pdf"));
+            zip.write(entry.pdf());
+            zip.closeEntry();
+
+            written++;
+            if(written % PROGRESS_INTERVAL == 0){
+                logger.info("Created " + written + " bills");
+            }
+        }
+    }
+
+    private static Sale toSale(SaleExportRow row){
+        Sale sale = new Sale();
+        sale.setBillId(row.billId());
+        sale.setSaleDate(row.saleDate());
+        sale.setCashierName(row.cashierName());
+        sale.setPaymentMethod(row.paymentMethod());
+        sale.setTotalPrice(row.totalPrice());
+        sale.setPaidPrice(row.paidPrice());
+        sale.setProductSales(new LinkedHashSet<>());
+        return sale;
+    }
+
+    private static void addLine(Sale sale, SaleExportRow row){
+        if(row.productId() == null){
+            return;
+        }
+
+        Product product = new Product();
+        product.setId(row.productId());
+        product.setName(row.productName());
+        product.setPrice(row.productPrice());
+
+        ProductSale productSale = new ProductSale();
+        productSale.setSale(sale);
+        productSale.setProduct(product);
+        productSale.setSaledAmount(row.saledAmount());
+        productSale.setPrice(row.productPrice());
+        sale.getProductSales().add(productSale);
+    }
+
+    private record RenderedEntry(String billId, byte[] pdf) {
+    }
+}
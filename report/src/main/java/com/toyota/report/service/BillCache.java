@@ -0,0 +1,127 @@
+package com.toyota.report.service;
+
+import com.toyota.report.dto.RenderedBill;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+@Component
+public class BillCache {
+    private static Logger logger = LogManager.getLogger(BillCache.class);
+    private static final Pattern FILE_SAFE_BILL_ID = Pattern.compile("[A-Za-z0-9-]{1,64}");
+    private final long maxBytes;
+    private final Path directory;
+    private final LinkedHashMap<String, RenderedBill> bills = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+
+    public BillCache(@Value("${report.bill-cache.max-bytes:67108864}") long maxBytes,
+                     @Value("${report.bill-cache.directory:}") String directory) {
+        this.maxBytes = maxBytes;
+        this.directory = directory.isBlank() ? null : Path.of(directory);
+    }
+
+    /**
+     * Returns the rendered bill with the given ID. Sales never change once written, so a bill is rendered
+     * once and then served from memory, or from disk when a directory is configured. The least recently
+     * used bills are dropped from memory when the cache grows over its size limit.
+     *
+     * @param billId The bill ID of the sale.
+     * @param renderer Renders the bill when it is not cached.
+     * @return The rendered bill.
+     */
+    public RenderedBill get(String billId, Supplier<byte[]> renderer){
+        RenderedBill bill = getCached(billId);
+        if(bill != null){
+            return bill;
+        }
+
+        byte[] pdf = readFromDisk(billId);
+        if(pdf == null){
+            pdf = renderer.get();
+            writeToDisk(billId, pdf);
+        }
+
+        bill = new RenderedBill(pdf, etag(pdf));
+        put(billId, bill);
+        return bill;
+    }
+
+    private synchronized RenderedBill getCached(String billId){
+        return bills.get(billId);
+    }
+
+    private synchronized void put(String billId, RenderedBill bill){
+        if(bill.pdf().length > maxBytes){
+            return;
+        }
+
+        RenderedBill previous = bills.put(billId, bill);
+        size += bill.pdf().length - (previous == null ? 0 : previous.pdf().length);
+
+        Iterator<Map.Entry<String, RenderedBill>> eldest = bills.entrySet().iterator();
+        while (size > maxBytes && eldest.hasNext()){
+            size -= eldest.next().getValue().pdf().length;
+            eldest.remove();
+        }
+    }
+
+    private byte[] readFromDisk(String billId){
+        Path file = file(billId);
+        if(file == null || !Files.exists(file)){
+            return null;
+        }
+
+        try {
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            logger.warn("Could not read cached bill " + billId + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeToDisk(String billId, byte[] pdf){
+        Path file = file(billId);
+        if(file == null){
+            return;
+        }
+
+        try {
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, billId, ".tmp");
+            Files.write(temp, pdf);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Could not write cached bill " + billId + ": " + e.getMessage());
+        }
+    }
+
+    private Path file(String billId){
+        if(directory == null || !FILE_SAFE_BILL_ID.matcher(billId).matches()){
+            return null;
+        }
+        return directory.resolve(billId + ".pdf");
+    }
+
+    private static String etag(byte[] pdf){
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(pdf);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.toyota.report.service;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.Font;
+import com.lowagie.text.FontFactory;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.pdf.PdfWriter;
+import com.toyota.report.constant.Constant;
+import com.toyota.report.entity.ProductSale;
+import com.toyota.report.entity.Sale;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.time.format.DateTimeFormatter;
+
+@Component
+public class BillRenderer {
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+    private static final DateTimeFormatter HOUR_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss");
+    private static final String SEPARATOR = "----------------------------------------------------------------------------" +
+            "------------------------------------\n";
+    private static final String COLUMN_GAP = "               " + "               ";
+    private static final int LINE_WIDTH = 70;
+    private final Font headerFont;
+    private final Font paragraphFont;
+
+    public BillRenderer() {
+        headerFont = FontFactory.getFont(FontFactory.TIMES_BOLD);
+        headerFont.setSize(22);
+        paragraphFont = FontFactory.getFont(FontFactory.TIMES);
+        paragraphFont.setSize(14);
+    }
+
+    /**
+     * Renders the bill of a sale. The fonts and formatters are created once and shared, and the text
+     * of the bill is built in a single buffer before it is added to the document.
+     *
+     * @param sale The sale with its product sales and products loaded.
+     * @return The PDF document.
+     */
+    public byte[] render(Sale sale){
+        ByteArrayOutputStream pdf = new ByteArrayOutputStream(4096);
+        Document document = new Document(PageSize.A4);
+        PdfWriter.getInstance(document, pdf);
+
+        document.open();
+        Paragraph headerParagraph = new Paragraph(Constant.COMPANY_NAME + Constant.ADDRESS, headerFont);
+        headerParagraph.setAlignment(Paragraph.ALIGN_CENTER);
+
+        Paragraph pdfParagraph = new Paragraph(text(sale), paragraphFont);
+        pdfParagraph.setAlignment(Paragraph.ALIGN_LEFT);
+
+        document.add(headerParagraph);
+        document.add(pdfParagraph);
+        document.close();
+
+        return pdf.toByteArray();
+    }
+
+    private static String text(Sale sale){
+        StringBuilder text = new StringBuilder(512);
+        text.append("\nCashier: ").append(sale.getCashierName())
+                .append(COLUMN_GAP).append("Date: ").append(sale.getSaleDate().format(DATE_FORMATTER))
+                .append(COLUMN_GAP).append("Hour: ").append(sale.getSaleDate().format(HOUR_FORMATTER))
+                .append("\n");
+
+        text.append("Bill Id: ").append(sale.getBillId())
+                .append("                             Payment: ").append(sale.getPaymentMethod())
+                .append("\n");
+
+        text.append("\n").append(SEPARATOR);
+
+        for(ProductSale s : sale.getProductSales()){
+            Double price = s.getPrice() != null ? s.getPrice() : s.getProduct().getPrice();
+            String quantity = s.getSaledAmount() + " PIECE X " + price;
+            text.append(s.getProduct().getId()).append("    ")
+                    .append("(").append(quantity).append(")").append("\n")
+                    .append(s.getProduct().getName());
+
+            int spaceCount = LINE_WIDTH - (s.getProduct().getName().length() + quantity.length());
+            text.append(" ".repeat(Math.max(spaceCount, 0)));
+
+            text.append(price * s.getSaledAmount()).append("\n");
+        }
+
+        text.append(SEPARATOR);
+
+        text.append("\nTotal Price: ").append(sale.getTotalPrice());
+        text.append("\nDiscount:    ").append(sale.getTotalPrice() - sale.getPaidPrice());
+        text.append("\nPaid Price:  ").append(sale.getPaidPrice());
+
+        return text.toString();
+    }
+}
@@ -0,0 +1,123 @@
+package com.toyota.report.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.toyota.report.dto.SaleExport;
+import com.toyota.report.dto.SaleExportRow;
+import com.toyota.report.exception.BadSaleRequestException;
+import com.toyota.report.repository.SaleRepository;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+@Service
+public class SaleExportService {
+    private static final Logger logger = LogManager.getLogger(SaleExportService.class);
+    private static final String CSV_HEADER = "billId,saleDate,cashierName,paymentMethod,totalPrice,paidPrice," +
+            "productId,productName,productPrice,saledAmount";
+    private final SaleRepository saleRepository;
+    private final ObjectMapper objectMapper;
+
+    public SaleExportService(SaleRepository saleRepository, ObjectMapper objectMapper) {
+        this.saleRepository = saleRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Writes every sale to the response in sale date order. Rows are read through a database cursor
+     * and written as they arrive, so memory use does not grow with the number of sales.
+     *
+     * @param response The HttpServletResponse to which the export will be written.
+     * @param format Either "csv" for one line per sold product or "ndjson" for one JSON object per sale.
+     * @throws BadSaleRequestException If the format is not supported.
+     * @throws IOException If there is an input/output error while writing the response.
+     */
+    @Transactional(readOnly = true)
+    public void exportSales(HttpServletResponse response, String format) throws IOException {
+        String extension = format.toLowerCase(Locale.ROOT);
+        switch (extension) {
+            case "csv" -> response.setContentType("text/csv");
+            case "ndjson" -> response.setContentType("application/x-ndjson");
+            default -> {
+                logger.warn("Unsupported export format: " + format);
+                throw new BadSaleRequestException("Unsupported export format: " + format);
+            }
+        }
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Content-Disposition", "attachment; filename=sales." + extension);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+        try (Stream<SaleExportRow> rows = saleRepository.streamAllForExport()) {
+            if(extension.equals("csv")){
+                writeCsv(rows.iterator(), writer);
+            }
+            else{
+                writeNdjson(rows.iterator(), writer);
+            }
+        }
+        writer.flush();
+
+        logger.info("Exported sales as " + extension);
+    }
+
+    private void writeCsv(Iterator<SaleExportRow> rows, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (rows.hasNext()){
+            SaleExportRow row = rows.next();
+            writer.write(String.join(",",
+                    csv(row.billId()), csv(row.saleDate()), csv(row.cashierName()), csv(row.paymentMethod()),
+                    csv(row.totalPrice()), csv(row.paidPrice()), csv(row.productId()), csv(row.productName()),
+                    csv(row.productPrice()), csv(row.saledAmount())));
+            writer.write('\n');
+        }
+    }
+
+    /**
+     * Rows arrive grouped by bill, so a sale is complete as soon as a row of the next bill is read.
+     * Only the sale being assembled is held in memory.
+     */
+    private void writeNdjson(Iterator<SaleExportRow> rows, Writer writer) throws IOException {
+        SaleExport current = null;
+        while (rows.hasNext()){
+            SaleExportRow row = rows.next();
+            if(current != null && current.billId().equals(row.billId())){
+                current.add(row);
+                continue;
+            }
+            if(current != null){
+                writeJsonLine(current, writer);
+            }
+            current = SaleExport.of(row);
+        }
+        if(current != null){
+            writeJsonLine(current, writer);
+        }
+    }
+
+    private void writeJsonLine(SaleExport sale, Writer writer) throws IOException {
+        writer.write(objectMapper.writeValueAsString(sale));
+        writer.write('\n');
+    }
+
+    private static String csv(Object value){
+        if(value == null){
+            return "";
+        }
+        String text = value.toString();
+        if(text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0){
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
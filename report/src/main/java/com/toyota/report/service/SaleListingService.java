@@ -1,40 +1,48 @@
 package com.toyota.report.service;
 
-import com.lowagie.text.*;
-import com.lowagie.text.pdf.PdfWriter;
-import com.toyota.report.constant.Constant;
-import com.toyota.report.entity.Product;
-import com.toyota.report.entity.ProductSale;
+import com.toyota.report.dto.RenderedBill;
+import com.toyota.report.dto.SaleCursor;
+import com.toyota.report.dto.SaleSlice;
+import com.toyota.report.dto.SaleSortField;
 import com.toyota.report.entity.Sale;
+import com.toyota.report.exception.BadSaleRequestException;
 import com.toyota.report.exception.SaleNotFoundException;
 import com.toyota.report.repository.ProductSaleRepository;
 import com.toyota.report.repository.SaleRepository;
-import jakarta.servlet.http.HttpServletResponse;
+import jakarta.persistence.criteria.Path;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.temporal.IsoFields;
 import java.util.List;
-import java.util.Optional;
+import java.util.function.Supplier;
 
 @Service
 public class SaleListingService {
     private static final Logger logger = LogManager.getLogger(SaleListingService.class);
+    private static final int MAX_PAGE_SIZE = 1000;
     private final ProductSaleRepository productSaleRepository;
     private final SaleRepository saleRepository;
+    private final BillRenderer billRenderer;
+    private final BillCache billCache;
 
 
-    public SaleListingService(ProductSaleRepository productSaleRepository, SaleRepository saleRepository) {
+    public SaleListingService(ProductSaleRepository productSaleRepository, SaleRepository saleRepository,
+                              BillRenderer billRenderer, BillCache billCache) {
         this.productSaleRepository = productSaleRepository;
         this.saleRepository = saleRepository;
+        this.billRenderer = billRenderer;
+        this.billCache = billCache;
     }
 
     /**
@@ -46,8 +54,63 @@ public class SaleListingService {
      * @return A list of Sale objects that match the specified sale date.
      */
     public List<Sale> findBySaleDate(int year, int month, int day){
-        return saleRepository.findBySaleDate(year, month, day);
+        LocalDateTime start = toDate(() -> LocalDate.of(year, month, day)).atStartOfDay();
+        return findBySaleDateBetween(start, start.plusDays(1));
     }
+
+    /**
+     * Finds sales made in the given ISO week.
+     *
+     * @param year The week based year.
+     * @param week The ISO week of the year, starting from 1.
+     * @return A list of Sale objects made in that week.
+     */
+    public List<Sale> findBySaleWeek(int year, int week){
+        LocalDateTime start = toDate(() -> LocalDate.of(year, 1, 4)
+                .with(IsoFields.WEEK_OF_WEEK_BASED_YEAR, week)
+                .with(DayOfWeek.MONDAY)).atStartOfDay();
+        return findBySaleDateBetween(start, start.plusWeeks(1));
+    }
+
+    /**
+     * Finds sales made in the given month.
+     *
+     * @param year The year of the month.
+     * @param month The month, from 1 to 12.
+     * @return A list of Sale objects made in that month.
+     */
+    public List<Sale> findBySaleMonth(int year, int month){
+        LocalDateTime start = toDate(() -> LocalDate.of(year, month, 1)).atStartOfDay();
+        return findBySaleDateBetween(start, start.plusMonths(1));
+    }
+
+    /**
+     * Finds sales made in the half-open interval [start, end). The query is served by the sale date index.
+     *
+     * @param start The inclusive start of the interval.
+     * @param end The exclusive end of the interval.
+     * @return A list of Sale objects made in the interval.
+     * @throws BadSaleRequestException if start is not before end.
+     */
+    public List<Sale> findBySaleDateBetween(LocalDateTime start, LocalDateTime end){
+        if(!start.isBefore(end)){
+            logger.warn("Start date must be before end date");
+            throw new BadSaleRequestException("Start date must be before end date");
+        }
+
+        logger.info("Getting sales between " + start + " and " + end);
+        return saleRepository.findBySaleDateBetween(start, end);
+    }
+
+    private LocalDate toDate(Supplier<LocalDate> date){
+        try {
+            return date.get();
+        } catch (DateTimeException e) {
+            logger.warn("Invalid date: " + e.getMessage());
+            throw new BadSaleRequestException("Invalid date: " + e.getMessage());
+        }
+    }
+
     /**
      * Retrieves a paginated list of all sales.
      *
@@ -64,19 +127,72 @@ public class SaleListingService {
         return salePage;
     }
     /**
-     * Retrieves all sales sorted by the specified field and order.
+     * Retrieves one page of sales ordered by sale date and bill ID, starting after the given cursor.
      *
-     * @param sortBy The field to sort by.
+     * @param cursor The continuation token of the previous page, or null for the first page.
+     * @param pageSize The number of sales per page.
+     * @return The sales of the page and the token of the next page.
+     * @throws BadSaleRequestException if the page size is out of range or the cursor is invalid.
+     */
+    public SaleSlice getSalesAfter(String cursor, int pageSize){
+        return getSortedSales(SaleSortField.SALE_DATE.getProperty(), Sort.Direction.ASC.name(), cursor, pageSize);
+    }
+
+    /**
+     * Retrieves one page of sales sorted by the specified field and order, starting after the given cursor.
+     * Ties are broken by bill ID. Only indexed fields are accepted and pages are found by an index seek,
+     * so deep pages cost the same as the first one, and no count query is run.
+     *
+     * @param sortBy The field to sort by: saleDate, totalPrice, paidPrice or cashierName.
      * @param sortOrder The order of sorting, either "ASC" for ascending or "DESC" for descending.
-     * @return A sorted list of Sale objects.
+     * @param cursor The continuation token of the previous page, or null for the first page.
+     * @param pageSize The number of sales per page.
+     * @return The sales of the page and the token of the next page.
+     * @throws BadSaleRequestException if the field is not sortable, the page size is out of range or the cursor is invalid.
      */
-    public List<Sale> getAllSortedSales(String sortBy, String sortOrder){
-        Sort sort = sortOrder.equalsIgnoreCase(Sort.Direction.ASC.name()) ? Sort.by(sortBy).ascending() :
-                Sort.by(sortBy).descending();
+    public SaleSlice getSortedSales(String sortBy, String sortOrder, String cursor, int pageSize){
+        if(pageSize < 1 || pageSize > MAX_PAGE_SIZE){
+            logger.warn("Page size must be between 1 and " + MAX_PAGE_SIZE);
+            throw new BadSaleRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        SaleSortField field = SaleSortField.of(sortBy);
+        Sort.Direction direction = sortOrder.equalsIgnoreCase(Sort.Direction.ASC.name()) ? Sort.Direction.ASC :
+                Sort.Direction.DESC;
+        Sort sort = Sort.by(direction, field.getProperty(), "billId");
+
+        Specification<Sale> specification = cursor == null || cursor.isEmpty() ? Specification.where(null) :
+                after(SaleCursor.decode(cursor, field), direction);
+
+        List<Sale> sales = saleRepository.findBy(specification, query -> query.sortBy(sort).limit(pageSize).all());
+
+        String nextCursor = sales.size() < pageSize ? null : SaleCursor.of(sales.get(sales.size() - 1), field).encode();
 
-        logger.info("Getting all sorted sales");
-        return saleRepository.findAll(sort);
+        logger.info("Getting sales sorted by " + field.getProperty());
+        return new SaleSlice(sales, nextCursor);
     }
+
+    /**
+     * Matches the sales that come after the cursor in the given order. The redundant bound on the sort field
+     * lets the database start the index scan at the cursor.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Specification<Sale> after(SaleCursor cursor, Sort.Direction direction){
+        Comparable value = cursor.field().parse(cursor.value());
+        return (root, query, criteriaBuilder) -> {
+            Path<Comparable> field = root.get(cursor.field().getProperty());
+            Path<String> billId = root.get("billId");
+            if(direction.isAscending()){
+                return criteriaBuilder.and(criteriaBuilder.greaterThanOrEqualTo(field, value),
+                        criteriaBuilder.or(criteriaBuilder.greaterThan(field, value),
+                                criteriaBuilder.greaterThan(billId, cursor.billId())));
+            }
+            return criteriaBuilder.and(criteriaBuilder.lessThanOrEqualTo(field, value),
+                    criteriaBuilder.or(criteriaBuilder.lessThan(field, value),
+                            criteriaBuilder.lessThan(billId, cursor.billId())));
+        };
+    }
+
     /**
      * Retrieves a specific sale by its bill ID.
      *
@@ -92,77 +208,17 @@ public class SaleListingService {
     }
 
     /**
-     * Generates a PDF bill for a specific sale identified by the bill ID.
+     * Generates a PDF bill for a specific sale identified by the bill ID. Bills are rendered once and
+     * repeated downloads are served from the bill cache without reading the sale again.
      *
-     * @param response The HttpServletResponse to which content will be written.
      * @param billId The ID of the bill for which the PDF is generated.
-     * @throws IOException If there is an input/output error during the PDF creation process.
+     * @return The rendered bill and its entity tag.
+     * @throws SaleNotFoundException if the sale with the given bill ID is not found.
      */
-    public void createBillForSale(HttpServletResponse response, String billId) throws IOException {
-        Sale sale = getSale(billId);
-
-        Document document = new Document(PageSize.A4);
-        PdfWriter.getInstance(document, response.getOutputStream());
-
-        document.open();
-        Font fontHeader = FontFactory.getFont(FontFactory.TIMES_BOLD);
-        fontHeader.setSize(22);
-
-        Paragraph headerParagraph = new Paragraph(Constant.COMPANY_NAME +
-                Constant.ADDRESS
-                , fontHeader);
-        headerParagraph.setAlignment(Paragraph.ALIGN_CENTER);
-
-        Font fontParagraph = FontFactory.getFont(FontFactory.TIMES);
-        fontParagraph.setSize(14);
-
-        Paragraph pdfParagraph = new Paragraph("", fontParagraph);
-        pdfParagraph.setAlignment(Paragraph.ALIGN_LEFT);
-
-        pdfParagraph.add("\nCashier: " + sale.getCashierName());
-        pdfParagraph.add("               " +
-                "               Date: " + sale.getSaleDate().format(DateTimeFormatter.ofPattern("dd-MM-yyyy")));
-        pdfParagraph.add("               " +
-                "               Hour: " + sale.getSaleDate().format(DateTimeFormatter.ofPattern("HH:mm:ss")));
-        pdfParagraph.add("\n");
-
-
-        pdfParagraph.add("Bill Id: " + billId);
-        pdfParagraph.add("                             Payment: " + sale.getPaymentMethod());
-        pdfParagraph.add("\n");
-
-        pdfParagraph.add("\n----------------------------------------------------------------------------" +
-                "------------------------------------\n");
-
-        sale.getProductSales().forEach(s -> {
-            pdfParagraph.add(s.getProduct().getId().toString());
-            pdfParagraph.add("    ");
-            pdfParagraph.add("(" + s.getSaledAmount() + " PIECE X " + s.getProduct().getPrice() + ")");
-            pdfParagraph.add("\n");
-            pdfParagraph.add(s.getProduct().getName());
-
-
-            int spaceCount = 70 - (s.getProduct().getName().length() + (s.getSaledAmount() + " PIECE X " + s.getProduct().getPrice()).length());
-            for (int i = 0; i < spaceCount; i++) {
-                pdfParagraph.add(" ");
-            }
-
-            pdfParagraph.add((s.getProduct().getPrice() * s.getSaledAmount()) + "\n");
-        });
-
-        pdfParagraph.add("----------------------------------------------------------------------------" +
-                "------------------------------------\n");
-
-        pdfParagraph.add("\nTotal Price: " + sale.getTotalPrice());
-        pdfParagraph.add("\nDiscount:    " + (sale.getTotalPrice() - sale.getPaidPrice()));
-        pdfParagraph.add("\nPaid Price:  " + sale.getPaidPrice());
-
-
-
-        document.add(headerParagraph);
-        document.add(pdfParagraph);
-        document.close();
+    public RenderedBill createBillForSale(String billId){
+        RenderedBill bill = billCache.get(billId, () -> billRenderer.render(getSale(billId)));
 
         logger.info("Creating bill for requested sale with id: " + billId);
+        return bill;
     }
 }
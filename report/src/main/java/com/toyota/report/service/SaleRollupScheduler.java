@@ -0,0 +1,39 @@
+package com.toyota.report.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Component
+public class SaleRollupScheduler {
+    private final SaleRollupService saleRollupService;
+    private final Duration settleDelay;
+
+    public SaleRollupScheduler(SaleRollupService saleRollupService,
+                               @Value("${report.rollup.settle-delay:PT1M}") Duration settleDelay) {
+        this.saleRollupService = saleRollupService;
+        this.settleDelay = settleDelay;
+    }
+
+    /**
+     * Rolls up new sales. Sales are written by the selling service, so the watermark trails the clock
+     * by the settle delay to leave time for in-flight sales to commit.
+     */
+    @Scheduled(fixedDelayString = "${report.rollup.interval:PT30S}")
+    public void rollUp(){
+        saleRollupService.rollUpTo(LocalDateTime.now().minus(settleDelay));
+    }
+
+    /**
+     * Rebuilds yesterday from the raw sales to count any sale that committed later than the settle delay.
+     */
+    @Scheduled(cron = "${report.rollup.reconcile-cron:0 30 0 * * *}")
+    public void reconcileYesterday(){
+        LocalDate today = LocalDate.now();
+        saleRollupService.backfill(today.minusDays(1), today);
+    }
+}
@@ -0,0 +1,234 @@
+package com.toyota.report.service;
+
+import com.toyota.report.dto.RollupTotal;
+import com.toyota.report.dto.SaleExportRow;
+import com.toyota.report.dto.SalesDashboard;
+import com.toyota.report.entity.RollupDimension;
+import com.toyota.report.entity.RollupWatermark;
+import com.toyota.report.entity.SaleRollup;
+import com.toyota.report.entity.SaleRollupId;
+import com.toyota.report.exception.BadSaleRequestException;
+import com.toyota.report.repository.RollupWatermarkRepository;
+import com.toyota.report.repository.SaleRepository;
+import com.toyota.report.repository.SaleRollupRepository;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+public class SaleRollupService {
+    private static final Logger logger = LogManager.getLogger(SaleRollupService.class);
+    private static final String WATERMARK = "sales";
+    private final SaleRepository saleRepository;
+    private final SaleRollupRepository saleRollupRepository;
+    private final RollupWatermarkRepository rollupWatermarkRepository;
+
+    public SaleRollupService(SaleRepository saleRepository,
+                             SaleRollupRepository saleRollupRepository,
+                             RollupWatermarkRepository rollupWatermarkRepository) {
+        this.saleRepository = saleRepository;
+        this.saleRollupRepository = saleRollupRepository;
+        this.rollupWatermarkRepository = rollupWatermarkRepository;
+    }
+
+    /**
+     * Adds the sales made between the watermark and the given time to the rollups and moves the watermark.
+     * Sales are never changed once written, so only the new ones are read. The first run starts from
+     * the oldest sale, which fills the rollups for the whole history.
+     *
+     * @param upTo The exclusive sale date to roll up to.
+     * @return The number of sales added to the rollups.
+     */
+    @Transactional
+    public long rollUpTo(LocalDateTime upTo){
+        RollupWatermark watermark = lockWatermark();
+        LocalDateTime from = watermark.getRolledUpTo() != null ? watermark.getRolledUpTo() :
+                saleRepository.findFirstSaleDate();
+
+        long sales = 0;
+        if(from != null && from.isBefore(upTo)){
+            sales = addToRollups(from, upTo);
+        }
+        if(from == null || from.isBefore(upTo)){
+            watermark.setRolledUpTo(upTo);
+            rollupWatermarkRepository.save(watermark);
+        }
+
+        if(sales > 0){
+            logger.info("Rolled up " + sales + " sales made before " + upTo);
+        }
+        return sales;
+    }
+
+    /**
+     * Rebuilds the rollups of the given days from the raw sales. Used to count sales that were committed
+     * after the watermark had already passed their sale date. Days after the watermark are left to
+     * {@link #rollUpTo(LocalDateTime)}.
+     *
+     * @param from The first day to rebuild.
+     * @param to The day after the last day to rebuild.
+     * @return The number of sales counted in the rebuilt days.
+     * @throws BadSaleRequestException if from is not before to.
+     */
+    @Transactional
+    public long backfill(LocalDate from, LocalDate to){
+        if(!from.isBefore(to)){
+            logger.warn("Start date must be before end date");
+            throw new BadSaleRequestException("Start date must be before end date");
+        }
+
+        RollupWatermark watermark = lockWatermark();
+        if(watermark.getRolledUpTo() == null){
+            return 0;
+        }
+
+        LocalDateTime end = to.atStartOfDay().isBefore(watermark.getRolledUpTo()) ? to.atStartOfDay() :
+                watermark.getRolledUpTo();
+
+        saleRollupRepository.deleteBetween(from, to);
+        long sales = from.atStartOfDay().isBefore(end) ? addToRollups(from.atStartOfDay(), end) : 0;
+
+        logger.info("Rebuilt rollups from " + from + " to " + to + " with " + sales + " sales");
+        return sales;
+    }
+
+    /**
+     * Returns the totals of one day.
+     *
+     * @param year The year of the day.
+     * @param month The month of the day.
+     * @param day The day of the month.
+     * @return The dashboard of that day.
+     */
+    public SalesDashboard getDailyDashboard(int year, int month, int day){
+        LocalDate start = toDate(() -> LocalDate.of(year, month, day));
+        return getDashboard(start, start.plusDays(1));
+    }
+
+    /**
+     * Returns the totals of one month.
+     *
+     * @param year The year of the month.
+     * @param month The month, from 1 to 12.
+     * @return The dashboard of that month.
+     */
+    public SalesDashboard getMonthlyDashboard(int year, int month){
+        LocalDate start = toDate(() -> LocalDate.of(year, month, 1));
+        return getDashboard(start, start.plusMonths(1));
+    }
+
+    private SalesDashboard getDashboard(LocalDate start, LocalDate end){
+        Map<RollupDimension, List<RollupTotal>> totals = saleRollupRepository.sumBetween(start, end).stream()
+                .sorted(Comparator.comparing(RollupTotal::key))
+                .collect(Collectors.groupingBy(RollupTotal::dimension));
+        LocalDateTime rolledUpTo = rollupWatermarkRepository.findById(WATERMARK)
+                .map(RollupWatermark::getRolledUpTo)
+                .orElse(null);
+
+        logger.info("Getting sales dashboard from " + start + " to " + end);
+        return new SalesDashboard(start, end, rolledUpTo,
+                totals.getOrDefault(RollupDimension.ALL, List.of(RollupTotal.empty())).get(0),
+                totals.getOrDefault(RollupDimension.CASHIER, List.of()),
+                totals.getOrDefault(RollupDimension.PAYMENT_METHOD, List.of()),
+                totals.getOrDefault(RollupDimension.PRODUCT, List.of()));
+    }
+
+    private RollupWatermark lockWatermark(){
+        return rollupWatermarkRepository.lockByName(WATERMARK)
+                .orElseGet(() -> rollupWatermarkRepository.saveAndFlush(new RollupWatermark(WATERMARK)));
+    }
+
+    /**
+     * Streams the sales made in [start, end) and adds their totals to the stored rollups.
+     * Only one row per touched day and key is kept in memory. Product rows count each bill once, however many
+     * lines of that product it has, and take their prices from the lines as they were sold.
+     */
+    private long addToRollups(LocalDateTime start, LocalDateTime end){
+        Map<SaleRollupId, SaleRollup> deltas = new HashMap<>();
+        Set<Long> billProducts = new HashSet<>();
+        long sales = 0;
+        try (Stream<SaleExportRow> rows = saleRepository.streamBetween(start, end)) {
+            Iterator<SaleExportRow> iterator = rows.iterator();
+            String billId = null;
+            while (iterator.hasNext()){
+                SaleExportRow row = iterator.next();
+                LocalDate day = row.saleDate().toLocalDate();
+                List<SaleRollup> saleRollups = List.of(
+                        delta(deltas, day, RollupDimension.ALL, null),
+                        delta(deltas, day, RollupDimension.CASHIER, row.cashierName()),
+                        delta(deltas, day, RollupDimension.PAYMENT_METHOD, row.paymentMethod()));
+
+                if(!row.billId().equals(billId)){
+                    billId = row.billId();
+                    billProducts.clear();
+                    sales++;
+                    for(SaleRollup rollup : saleRollups){
+                        rollup.setSaleCount(rollup.getSaleCount() + 1);
+                        rollup.setTotalPrice(rollup.getTotalPrice() + Objects.requireNonNullElse(row.totalPrice(), 0.0));
+                        rollup.setPaidPrice(rollup.getPaidPrice() + Objects.requireNonNullElse(row.paidPrice(), 0.0));
+                    }
+                }
+
+                if(row.productId() != null){
+                    for(SaleRollup rollup : saleRollups){
+                        rollup.setUnits(rollup.getUnits() + row.saledAmount());
+                    }
+                    SaleRollup product = delta(deltas, day, RollupDimension.PRODUCT, row.productId());
+                    if(billProducts.add(row.productId())){
+                        product.setSaleCount(product.getSaleCount() + 1);
+                    }
+                    product.setUnits(product.getUnits() + row.saledAmount());
+                    if(row.linePaidPrice() != null){
+                        product.setTotalPrice(product.getTotalPrice() + row.productPrice() * row.saledAmount());
+                        product.setPaidPrice(product.getPaidPrice() + row.linePaidPrice());
+                    }
+                }
+            }
+        }
+
+        Map<SaleRollupId, SaleRollup> stored = saleRollupRepository.findAllById(deltas.keySet()).stream()
+                .collect(Collectors.toMap(SaleRollup::getId, Function.identity()));
+        deltas.forEach((id, delta) -> {
+            if(stored.containsKey(id)){
+                stored.get(id).add(delta);
+            }
+            else{
+                stored.put(id, delta);
+            }
+        });
+        saleRollupRepository.saveAll(stored.values());
+
+        return sales;
+    }
+
+    private static SaleRollup delta(Map<SaleRollupId, SaleRollup> deltas, LocalDate day,
+                                    RollupDimension dimension, Object key){
+        return deltas.computeIfAbsent(new SaleRollupId(day, dimension, Objects.toString(key, "")), SaleRollup::new);
+    }
+
+    private LocalDate toDate(Supplier<LocalDate> date){
+        try {
+            return date.get();
+        } catch (DateTimeException e) {
+            logger.warn("Invalid date: " + e.getMessage());
+            throw new BadSaleRequestException("Invalid date: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.toyota.report.service;
+
+import com.toyota.report.dto.SaleExportRow;
+import com.toyota.report.entity.PaymentMethod;
+import com.toyota.report.exception.BadSaleRequestException;
+import com.toyota.report.repository.SaleRepository;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BillBatchServiceTest {
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime END = START.plusDays(1);
+    private SaleRepository saleRepository;
+    private BillBatchService billBatchService;
+    private HttpServletResponse response;
+    private ByteArrayOutputStream outputStream;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        saleRepository = mock(SaleRepository.class);
+        billBatchService = new BillBatchService(saleRepository, new BillRenderer(), 2);
+
+        outputStream = new ByteArrayOutputStream();
+        response = mock(HttpServletResponse.class);
+        when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+
+            }
+
+            @Override
+            public void write(int b) {
+                outputStream.write(b);
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        billBatchService.shutdown();
+    }
+
+    @Test
+    void testWriteBills_whenSalesExist_shouldWriteOnePdfPerSaleInSaleOrder() throws IOException {
+        List<SaleExportRow> rows = new ArrayList<>();
+        IntStream.range(0, 10).forEach(i -> {
+            rows.add(new SaleExportRow("bill-" + i, START.plusHours(i), "ozgur", PaymentMethod.CASH, 20.0, 20.0,
+                    1L, "Milk", 10.0, 1, 10.0));
+            rows.add(new SaleExportRow("bill-" + i, START.plusHours(i), "ozgur", PaymentMethod.CASH, 20.0, 20.0,
+                    2L, "Bread", 10.0, 1, 10.0));
+        });
+        when(saleRepository.countForBills(START, END, "ozgur")).thenReturn(10L);
+        when(saleRepository.streamForBills(START, END, "ozgur")).thenReturn(rows.stream());
+
+        billBatchService.writeBills(response, START, END, "ozgur");
+
+        List<String> names = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            for(ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()){
+                names.add(entry.getName());
+                assertEquals("%PDF", new String(zip.readNBytes(4)));
+            }
+        }
+        assertEquals(IntStream.range(0, 10).mapToObj(i -> "bill-" + i + ".pdf").toList(), names);
+        verify(response).setHeader("X-Bill-Count", "10");
+        verify(response).setContentType("application/zip");
+    }
+
+    @Test
+    void testWriteBills_whenRangeIsInvalid_shouldThrowBadSaleRequestException() {
+        assertThrows(BadSaleRequestException.class, () -> billBatchService.writeBills(response, END, START, null));
+        verify(saleRepository, never()).streamForBills(any(), any(), any());
+    }
+}
@@ -0,0 +1,75 @@
+package com.toyota.report.service;
+
+import com.toyota.report.dto.RenderedBill;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BillCacheTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void testGet_whenBillIsCached_shouldNotRenderAgain() {
+        BillCache billCache = new BillCache(1000, "");
+        AtomicInteger renders = new AtomicInteger();
+        Supplier<byte[]> renderer = () -> {
+            renders.incrementAndGet();
+            return new byte[]{1, 2, 3};
+        };
+
+        RenderedBill first = billCache.get("a", renderer);
+        RenderedBill second = billCache.get("a", renderer);
+
+        assertSame(first, second);
+        assertEquals(1, renders.get());
+        assertTrue(first.etag().startsWith("\"") && first.etag().endsWith("\""));
+    }
+
+    @Test
+    void testGet_whenCacheIsFull_shouldEvictLeastRecentlyUsedBill() {
+        BillCache billCache = new BillCache(10, "");
+        AtomicInteger renders = new AtomicInteger();
+        Supplier<byte[]> renderer = () -> {
+            renders.incrementAndGet();
+            return new byte[4];
+        };
+
+        billCache.get("a", renderer);
+        billCache.get("b", renderer);
+        billCache.get("a", renderer);
+        billCache.get("c", renderer);
+        billCache.get("a", renderer);
+        billCache.get("b", renderer);
+
+        assertEquals(4, renders.get());
+    }
+
+    @Test
+    void testGet_whenDirectoryIsConfigured_shouldServeBillsRenderedByAnotherInstance() throws IOException {
+        new BillCache(1000, directory.toString()).get("a-1", () -> new byte[]{7});
+
+        RenderedBill bill = new BillCache(1000, directory.toString()).get("a-1", () -> {
+            throw new AssertionError("should not render");
+        });
+
+        assertArrayEquals(new byte[]{7}, bill.pdf());
+        assertArrayEquals(new byte[]{7}, Files.readAllBytes(directory.resolve("a-1.pdf")));
+    }
+
+    @Test
+    void testGet_whenBillIdIsNotFileSafe_shouldNotTouchDisk() throws IOException {
+        new BillCache(1000, directory.toString()).get("../a", () -> new byte[]{7});
+
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+}
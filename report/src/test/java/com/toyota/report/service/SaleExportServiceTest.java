@@ -0,0 +1,94 @@
+package com.toyota.report.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.toyota.report.dto.SaleExportRow;
+import com.toyota.report.entity.PaymentMethod;
+import com.toyota.report.exception.BadSaleRequestException;
+import com.toyota.report.repository.SaleRepository;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SaleExportServiceTest {
+    private SaleRepository saleRepository;
+    private SaleExportService saleExportService;
+    private HttpServletResponse response;
+    private ByteArrayOutputStream outputStream;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        saleRepository = mock(SaleRepository.class);
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        saleExportService = new SaleExportService(saleRepository, objectMapper);
+
+        outputStream = new ByteArrayOutputStream();
+        response = mock(HttpServletResponse.class);
+        when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+
+            }
+
+            @Override
+            public void write(int b) {
+                outputStream.write(b);
+            }
+        });
+    }
+
+    @Test
+    void testExportSales_whenFormatIsNdjson_shouldWriteOneLinePerSale() throws IOException {
+        LocalDateTime date = LocalDateTime.of(2024, 1, 1, 10, 0);
+        when(saleRepository.streamAllForExport()).thenReturn(Stream.of(
+                new SaleExportRow("a", date, "ozgur", PaymentMethod.CASH, 30.0, 30.0, 1L, "Milk", 10.0, 1, 10.0),
+                new SaleExportRow("a", date, "ozgur", PaymentMethod.CASH, 30.0, 30.0, 2L, "Bread", 20.0, 1, 20.0),
+                new SaleExportRow("b", date, "ozgur", PaymentMethod.CASH, 0.0, 0.0, null, null, null, null, null)));
+
+        saleExportService.exportSales(response, "ndjson");
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"billId\":\"a\",\"saleDate\":\"2024-01-01T10:00:00\""));
+        assertTrue(lines[0].contains("\"productName\":\"Bread\""));
+        assertTrue(lines[1].contains("\"lines\":[]"));
+        verify(response).setContentType("application/x-ndjson");
+    }
+
+    @Test
+    void testExportSales_whenFormatIsCsv_shouldWriteOneLinePerRowAndQuoteSpecialCharacters() throws IOException {
+        LocalDateTime date = LocalDateTime.of(2024, 1, 1, 10, 0);
+        when(saleRepository.streamAllForExport()).thenReturn(Stream.of(
+                new SaleExportRow("a", date, "ozgur", PaymentMethod.CASH, 10.0, 10.0, 1L, "Milk, \"whole\"", 10.0, 1, 10.0)));
+
+        saleExportService.exportSales(response, "CSV");
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("a,2024-01-01T10:00,ozgur,CASH,10.0,10.0,1,\"Milk, \"\"whole\"\"\",10.0,1", lines[1]);
+        verify(response).setContentType("text/csv");
+    }
+
+    @Test
+    void testExportSales_whenFormatIsUnsupported_shouldThrowBadSaleRequestException() {
+        assertThrows(BadSaleRequestException.class, () -> saleExportService.exportSales(response, "xml"));
+        verify(saleRepository, never()).streamAllForExport();
+    }
+}
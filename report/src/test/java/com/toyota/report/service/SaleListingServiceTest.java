@@ -1,15 +1,17 @@
 package com.toyota.report.service;
 
+import com.toyota.report.dto.RenderedBill;
+import com.toyota.report.dto.SaleCursor;
+import com.toyota.report.dto.SaleSlice;
+import com.toyota.report.dto.SaleSortField;
 import com.toyota.report.entity.PaymentMethod;
 import com.toyota.report.entity.Product;
 import com.toyota.report.entity.ProductSale;
 import com.toyota.report.entity.Sale;
+import com.toyota.report.exception.BadSaleRequestException;
 import com.toyota.report.exception.SaleNotFoundException;
 import com.toyota.report.repository.ProductSaleRepository;
 import com.toyota.report.repository.SaleRepository;
-import jakarta.servlet.ServletOutputStream;
-import jakarta.servlet.WriteListener;
-import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -17,14 +19,18 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.repository.query.FluentQuery;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class SaleListingServiceTest {
@@ -37,7 +43,8 @@ class SaleListingServiceTest {
         productSaleRepository = mock(ProductSaleRepository.class);
         saleRepository = mock(SaleRepository.class);
 
-        saleListingService = new SaleListingService (productSaleRepository, saleRepository);
+        saleListingService = new SaleListingService (productSaleRepository, saleRepository,
+                new BillRenderer(), new BillCache(1_000_000, ""));
     }
 
     @Test
@@ -47,13 +54,48 @@ class SaleListingServiceTest {
         int month = 12;
         int day = 31;
         List<Sale> expectedSales = new ArrayList<>();
-        when(saleRepository.findBySaleDate(year, month, day)).thenReturn(expectedSales);
+        when(saleRepository.findBySaleDateBetween(LocalDateTime.of(2022, 12, 31, 0, 0),
+                LocalDateTime.of(2023, 1, 1, 0, 0))).thenReturn(expectedSales);
 
         List<Sale> result = saleListingService.findBySaleDate(year, month, day);
 
         assertEquals(expectedSales, result);
     }
 
+    @Test
+    void testFindBySaleWeek_whenRequestIsValid_shouldQueryFromMondayToNextMonday() {
+        List<Sale> expectedSales = new ArrayList<>();
+        when(saleRepository.findBySaleDateBetween(LocalDateTime.of(2024, 3, 4, 0, 0),
+                LocalDateTime.of(2024, 3, 11, 0, 0))).thenReturn(expectedSales);
+
+        List<Sale> result = saleListingService.findBySaleWeek(2024, 10);
+
+        assertEquals(expectedSales, result);
+    }
+
+    @Test
+    void testFindBySaleMonth_whenRequestIsValid_shouldQueryWholeMonth() {
+        List<Sale> expectedSales = new ArrayList<>();
+        when(saleRepository.findBySaleDateBetween(LocalDateTime.of(2024, 2, 1, 0, 0),
+                LocalDateTime.of(2024, 3, 1, 0, 0))).thenReturn(expectedSales);
+
+        List<Sale> result = saleListingService.findBySaleMonth(2024, 2);
+
+        assertEquals(expectedSales, result);
+    }
+
+    @Test
+    void testFindBySaleDate_whenDateIsInvalid_shouldThrowBadSaleRequestException() {
+        assertThrows(BadSaleRequestException.class, () -> saleListingService.findBySaleDate(2024, 13, 1));
+    }
+
+    @Test
+    void testFindBySaleDateBetween_whenStartIsNotBeforeEnd_shouldThrowBadSaleRequestException() {
+        LocalDateTime date = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+        assertThrows(BadSaleRequestException.class, () -> saleListingService.findBySaleDateBetween(date, date));
+    }
+
     @Test
     void testGetAllSales_whenPageRequestIsValid_shouldReturnAllDates() {
         int pageNo = 0;
@@ -68,27 +110,67 @@ class SaleListingServiceTest {
     }
 
     @Test
-    void testGetAllSortedSales_whenSortUrlRequestIsValidAndAscend_shouldReturnAllSalesByRequestedOrder() {
-        String sortBy = "date";
-        String sortOrder = "asc";
-        List<Sale> expectedSales = new ArrayList<>();
-        when(saleRepository.findAll(Sort.by(sortBy).ascending())).thenReturn(expectedSales);
+    void testGetSalesAfter_whenCursorIsNull_shouldReturnFirstPageWithNextCursor() {
+        Sale sale1 = generateSale("a", LocalDateTime.of(2024, 1, 1, 10, 0));
+        Sale sale2 = generateSale("b", LocalDateTime.of(2024, 1, 1, 11, 0));
+        FluentQuery.FetchableFluentQuery<Sale> query = mockFindBy(List.of(sale1, sale2));
+
+        SaleSlice result = saleListingService.getSalesAfter(null, 2);
+
+        assertEquals(List.of(sale1, sale2), result.sales());
+        assertEquals(new SaleCursor(SaleSortField.SALE_DATE, sale2.getSaleDate().toString(), "b"),
+                SaleCursor.decode(result.nextCursor(), SaleSortField.SALE_DATE));
+        verify(query).sortBy(Sort.by(Sort.Direction.ASC, "saleDate", "billId"));
+        verify(query).limit(2);
+    }
+
+    @Test
+    void testGetSalesAfter_whenCursorIsGiven_shouldSeekAfterCursorAndEndOnShortPage() {
+        Sale sale = generateSale("c", LocalDateTime.of(2024, 1, 2, 9, 0));
+        String cursor = new SaleCursor(SaleSortField.SALE_DATE, LocalDateTime.of(2024, 1, 1, 11, 0).toString(), "b")
+                .encode();
+        mockFindBy(List.of(sale));
 
-        List<Sale> result = saleListingService.getAllSortedSales(sortBy, sortOrder);
+        SaleSlice result = saleListingService.getSalesAfter(cursor, 2);
 
-        assertEquals(expectedSales, result);
+        assertEquals(List.of(sale), result.sales());
+        assertNull(result.nextCursor());
     }
 
     @Test
-    void testGetAllSortedSales_whenSortUrlRequestIsValidAndDescend_shouldReturnAllSalesByRequestedOrder() {
-        String sortBy = "date";
-        String sortOrder = "desc";
-        List<Sale> expectedSales = new ArrayList<>();
-        when(saleRepository.findAll(Sort.by(sortBy).ascending())).thenReturn(expectedSales);
+    void testGetSalesAfter_whenCursorOrPageSizeIsInvalid_shouldThrowBadSaleRequestException() {
+        assertThrows(BadSaleRequestException.class, () -> saleListingService.getSalesAfter("not-a-cursor", 2));
+        assertThrows(BadSaleRequestException.class, () -> saleListingService.getSalesAfter(null, 0));
+    }
+
+    @Test
+    void testGetSortedSales_whenSortFieldIsIndexedAndDescend_shouldReturnPageByRequestedOrder() {
+        Sale sale = generateSale("a", LocalDateTime.of(2024, 1, 1, 10, 0));
+        sale.setTotalPrice(12.5);
+        FluentQuery.FetchableFluentQuery<Sale> query = mockFindBy(List.of(sale));
 
-        List<Sale> result = saleListingService.getAllSortedSales(sortBy, sortOrder);
+        SaleSlice result = saleListingService.getSortedSales("totalPrice", "desc", null, 1);
 
-        assertEquals(expectedSales, result);
+        assertEquals(List.of(sale), result.sales());
+        assertEquals(new SaleCursor(SaleSortField.TOTAL_PRICE, "12.5", "a"),
+                SaleCursor.decode(result.nextCursor(), SaleSortField.TOTAL_PRICE));
+        verify(query).sortBy(Sort.by(Sort.Direction.DESC, "totalPrice", "billId"));
+    }
+
+    @Test
+    void testGetSortedSales_whenSortFieldIsNotIndexed_shouldThrowBadSaleRequestException() {
+        assertThrows(BadSaleRequestException.class, () -> saleListingService.getSortedSales("date", "asc", null, 10));
+        assertThrows(BadSaleRequestException.class,
+                () -> saleListingService.getSortedSales("paymentMethod", "asc", null, 10));
+    }
+
+    @Test
+    void testGetSortedSales_whenCursorBelongsToAnotherField_shouldThrowBadSaleRequestException() {
+        String cursor = new SaleCursor(SaleSortField.SALE_DATE, LocalDateTime.of(2024, 1, 1, 11, 0).toString(), "b")
+                .encode();
+
+        assertThrows(BadSaleRequestException.class,
+                () -> saleListingService.getSortedSales("totalPrice", "asc", cursor, 10));
     }
 
     @Test
@@ -114,7 +196,7 @@ class SaleListingServiceTest {
     }
 
     @Test
-    public void testCreateBillForSale_whenSaleIsFound_shouldCreatePdfDocument() throws IOException {
+    public void testCreateBillForSale_whenSaleIsFound_shouldCreatePdfDocument() {
 
         String billId = "123";
         Sale sale = new Sale();
@@ -134,42 +216,41 @@ class SaleListingServiceTest {
         productSale.setSaledAmount(2);
         sale.setProductSales(Set.of(productSale));
 
-        HttpServletResponse response = mock(HttpServletResponse.class);
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
-            @Override
-            public boolean isReady() {
-                return false;
-            }
-
-            @Override
-            public void setWriteListener(WriteListener writeListener) {
-
-            }
-
-            @Override
-            public void write(int b) throws IOException {
-                outputStream.write(b);
-            }
-        });
-
         when(saleRepository.findById(billId)).thenReturn(Optional.of(sale));
 
-        assertDoesNotThrow(() -> {
-            saleListingService.createBillForSale(response, billId);
-        });
+        RenderedBill first = saleListingService.createBillForSale(billId);
+        RenderedBill second = saleListingService.createBillForSale(billId);
+
+        assertEquals("%PDF", new String(first.pdf(), 0, 4, StandardCharsets.US_ASCII));
+        assertSame(first, second);
+        verify(saleRepository, Mockito.times(1)).findById(billId);
     }
 
     @Test
-    public void testCreateBillForSale_whenSaleIsNotFound_shouldThrowSaleNotFoundException() throws IOException {
+    public void testCreateBillForSale_whenSaleIsNotFound_shouldThrowSaleNotFoundException() {
         String billId = "123";
         when(saleRepository.findById(billId)).thenThrow(new SaleNotFoundException("Sale not found with id: " + billId));
 
-        HttpServletResponse response = mock(HttpServletResponse.class);
-
         assertThrows(SaleNotFoundException.class, () -> {
-            saleListingService.createBillForSale(response, billId);
+            saleListingService.createBillForSale(billId);
         });
     }
 
-}
\ No newline at end of file
+    @SuppressWarnings("unchecked")
+    private FluentQuery.FetchableFluentQuery<Sale> mockFindBy(List<Sale> sales){
+        FluentQuery.FetchableFluentQuery<Sale> query = mock(FluentQuery.FetchableFluentQuery.class, Mockito.RETURNS_SELF);
+        when(query.all()).thenReturn(sales);
+        when(saleRepository.findBy(any(Specification.class), any())).thenAnswer(invocation ->
+                invocation.<Function<FluentQuery.FetchableFluentQuery<Sale>, List<Sale>>>getArgument(1).apply(query));
+
+        return query;
+    }
+
+    private Sale generateSale(String billId, LocalDateTime saleDate){
+        Sale sale = new Sale();
+        sale.setBillId(billId);
+        sale.setSaleDate(saleDate);
+
+        return sale;
+    }
+}
@@ -0,0 +1,191 @@
+package com.toyota.report.service;
+
+import com.toyota.report.dto.RollupTotal;
+import com.toyota.report.dto.SaleExportRow;
+import com.toyota.report.dto.SalesDashboard;
+import com.toyota.report.entity.PaymentMethod;
+import com.toyota.report.entity.RollupDimension;
+import com.toyota.report.entity.RollupWatermark;
+import com.toyota.report.entity.SaleRollup;
+import com.toyota.report.entity.SaleRollupId;
+import com.toyota.report.exception.BadSaleRequestException;
+import com.toyota.report.repository.RollupWatermarkRepository;
+import com.toyota.report.repository.SaleRepository;
+import com.toyota.report.repository.SaleRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SaleRollupServiceTest {
+    private static final LocalDate DAY = LocalDate.of(2024, 1, 1);
+    private SaleRepository saleRepository;
+    private SaleRollupRepository saleRollupRepository;
+    private RollupWatermarkRepository rollupWatermarkRepository;
+    private SaleRollupService saleRollupService;
+
+    @BeforeEach
+    void setUp() {
+        saleRepository = mock(SaleRepository.class);
+        saleRollupRepository = mock(SaleRollupRepository.class);
+        rollupWatermarkRepository = mock(RollupWatermarkRepository.class);
+
+        saleRollupService = new SaleRollupService(saleRepository, saleRollupRepository, rollupWatermarkRepository);
+    }
+
+    @Test
+    void testRollUpTo_whenNothingIsRolledUpYet_shouldAddEverySaleFromTheFirstOneAndMoveWatermark() {
+        RollupWatermark watermark = new RollupWatermark("sales");
+        LocalDateTime first = DAY.atTime(9, 0);
+        LocalDateTime upTo = DAY.atTime(12, 0);
+        when(rollupWatermarkRepository.lockByName("sales")).thenReturn(Optional.of(watermark));
+        when(saleRepository.findFirstSaleDate()).thenReturn(first);
+        when(saleRepository.streamBetween(first, upTo)).thenReturn(Stream.of(
+                new SaleExportRow("a", first, "ozgur", PaymentMethod.CASH, 30.0, 25.0, 1L, "Milk", 10.0, 1, 5.0),
+                new SaleExportRow("a", first, "ozgur", PaymentMethod.CASH, 30.0, 25.0, 2L, "Bread", 10.0, 2, 20.0),
+                new SaleExportRow("b", first, "berkay", PaymentMethod.CASH, 12.0, 12.0, 1L, "Milk", 12.0, 1, 12.0)));
+        when(saleRollupRepository.findAllById(any())).thenReturn(List.of());
+
+        long sales = saleRollupService.rollUpTo(upTo);
+
+        assertEquals(2, sales);
+        assertEquals(upTo, watermark.getRolledUpTo());
+        Map<SaleRollupId, SaleRollup> saved = captureSaved();
+        assertRollup(saved.get(new SaleRollupId(DAY, RollupDimension.ALL, "")), 2, 42.0, 37.0, 4);
+        assertRollup(saved.get(new SaleRollupId(DAY, RollupDimension.CASHIER, "ozgur")), 1, 30.0, 25.0, 3);
+        assertRollup(saved.get(new SaleRollupId(DAY, RollupDimension.PAYMENT_METHOD, "CASH")), 2, 42.0, 37.0, 4);
+        assertRollup(saved.get(new SaleRollupId(DAY, RollupDimension.PRODUCT, "1")), 2, 22.0, 17.0, 2);
+        assertRollup(saved.get(new SaleRollupId(DAY, RollupDimension.PRODUCT, "2")), 1, 20.0, 20.0, 2);
+    }
+
+    @Test
+    void testRollUpTo_whenBillHasManyLinesOfOneProduct_shouldCountTheBillOnceForThatProduct() {
+        RollupWatermark watermark = new RollupWatermark("sales");
+        watermark.setRolledUpTo(DAY.atTime(10, 0));
+        when(rollupWatermarkRepository.lockByName("sales")).thenReturn(Optional.of(watermark));
+        when(saleRepository.streamBetween(DAY.atTime(10, 0), DAY.atTime(11, 0))).thenReturn(Stream.of(
+                new SaleExportRow("a", DAY.atTime(10, 30), "ozgur", PaymentMethod.CASH, 30.0, 27.0, 1L, "Milk", 10.0, 1, 9.0),
+                new SaleExportRow("a", DAY.atTime(10, 30), "ozgur", PaymentMethod.CASH, 30.0, 27.0, 1L, "Milk", 10.0, 2, 18.0)));
+        when(saleRollupRepository.findAllById(any())).thenReturn(List.of());
+
+        saleRollupService.rollUpTo(DAY.atTime(11, 0));
+
+        Map<SaleRollupId, SaleRollup> saved = captureSaved();
+        assertRollup(saved.get(new SaleRollupId(DAY, RollupDimension.ALL, "")), 1, 30.0, 27.0, 3);
+        assertRollup(saved.get(new SaleRollupId(DAY, RollupDimension.PRODUCT, "1")), 1, 30.0, 27.0, 3);
+    }
+
+    @Test
+    void testRollUpTo_whenLineHasNoRecordedPrice_shouldCountItWithoutRevenue() {
+        RollupWatermark watermark = new RollupWatermark("sales");
+        watermark.setRolledUpTo(DAY.atTime(10, 0));
+        when(rollupWatermarkRepository.lockByName("sales")).thenReturn(Optional.of(watermark));
+        when(saleRepository.streamBetween(DAY.atTime(10, 0), DAY.atTime(11, 0))).thenReturn(Stream.of(
+                new SaleExportRow("a", DAY.atTime(10, 30), "ozgur", PaymentMethod.CASH, 10.0, 10.0, 1L, "Milk", 99.0, 1, null)));
+        when(saleRollupRepository.findAllById(any())).thenReturn(List.of());
+
+        saleRollupService.rollUpTo(DAY.atTime(11, 0));
+
+        assertRollup(captureSaved().get(new SaleRollupId(DAY, RollupDimension.PRODUCT, "1")), 1, 0.0, 0.0, 1);
+    }
+
+    @Test
+    void testRollUpTo_whenRollupAlreadyExists_shouldAddNewSalesToIt() {
+        RollupWatermark watermark = new RollupWatermark("sales");
+        watermark.setRolledUpTo(DAY.atTime(10, 0));
+        SaleRollup stored = new SaleRollup(new SaleRollupId(DAY, RollupDimension.ALL, ""));
+        stored.setSaleCount(5);
+        stored.setTotalPrice(50.0);
+        stored.setPaidPrice(45.0);
+        stored.setUnits(7);
+        when(rollupWatermarkRepository.lockByName("sales")).thenReturn(Optional.of(watermark));
+        when(saleRepository.streamBetween(DAY.atTime(10, 0), DAY.atTime(11, 0))).thenReturn(Stream.of(
+                new SaleExportRow("c", DAY.atTime(10, 30), "ozgur", PaymentMethod.CASH, 10.0, 10.0, 1L, "Milk", 10.0, 1, 10.0)));
+        when(saleRollupRepository.findAllById(any())).thenReturn(List.of(stored));
+
+        saleRollupService.rollUpTo(DAY.atTime(11, 0));
+
+        assertRollup(captureSaved().get(stored.getId()), 6, 60.0, 55.0, 8);
+        verify(saleRepository, never()).findFirstSaleDate();
+    }
+
+    @Test
+    void testRollUpTo_whenWatermarkIsAlreadyPast_shouldNotReadSales() {
+        RollupWatermark watermark = new RollupWatermark("sales");
+        watermark.setRolledUpTo(DAY.atTime(12, 0));
+        when(rollupWatermarkRepository.lockByName("sales")).thenReturn(Optional.of(watermark));
+
+        assertEquals(0, saleRollupService.rollUpTo(DAY.atTime(11, 0)));
+
+        verify(saleRepository, never()).streamBetween(any(), any());
+        assertEquals(DAY.atTime(12, 0), watermark.getRolledUpTo());
+    }
+
+    @Test
+    void testBackfill_whenRangePassesWatermark_shouldRebuildOnlyUpToWatermark() {
+        RollupWatermark watermark = new RollupWatermark("sales");
+        watermark.setRolledUpTo(DAY.atTime(12, 0));
+        when(rollupWatermarkRepository.lockByName("sales")).thenReturn(Optional.of(watermark));
+        when(saleRepository.streamBetween(DAY.minusDays(1).atStartOfDay(), DAY.atTime(12, 0))).thenReturn(Stream.of(
+                new SaleExportRow("a", DAY.atTime(9, 0), "ozgur", PaymentMethod.CASH, 10.0, 10.0, null, null, null, null, null)));
+        when(saleRollupRepository.findAllById(any())).thenReturn(List.of());
+
+        long sales = saleRollupService.backfill(DAY.minusDays(1), DAY.plusDays(1));
+
+        assertEquals(1, sales);
+        verify(saleRollupRepository).deleteBetween(DAY.minusDays(1), DAY.plusDays(1));
+    }
+
+    @Test
+    void testBackfill_whenRangeIsInvalid_shouldThrowBadSaleRequestException() {
+        assertThrows(BadSaleRequestException.class, () -> saleRollupService.backfill(DAY, DAY));
+    }
+
+    @Test
+    void testGetMonthlyDashboard_whenMonthIsValid_shouldGroupTotalsByDimension() {
+        RollupTotal total = new RollupTotal(RollupDimension.ALL, "", 3L, 40.0, 35.0, 4L);
+        RollupTotal cashier = new RollupTotal(RollupDimension.CASHIER, "ozgur", 3L, 40.0, 35.0, 4L);
+        RollupTotal product = new RollupTotal(RollupDimension.PRODUCT, "1", 2L, 20.0, null, 2L);
+        when(saleRollupRepository.sumBetween(DAY, DAY.plusMonths(1))).thenReturn(List.of(product, cashier, total));
+        when(rollupWatermarkRepository.findById("sales")).thenReturn(Optional.empty());
+
+        SalesDashboard dashboard = saleRollupService.getMonthlyDashboard(2024, 1);
+
+        assertEquals(total, dashboard.total());
+        assertEquals(5.0, dashboard.total().discount());
+        assertEquals(List.of(cashier), dashboard.byCashier());
+        assertEquals(List.of(), dashboard.byPaymentMethod());
+        assertEquals(List.of(product), dashboard.byProduct());
+        assertNull(dashboard.byProduct().get(0).discount());
+    }
+
+    @Test
+    void testGetDailyDashboard_whenDateIsInvalid_shouldThrowBadSaleRequestException() {
+        assertThrows(BadSaleRequestException.class, () -> saleRollupService.getDailyDashboard(2024, 2, 30));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<SaleRollupId, SaleRollup> captureSaved(){
+        ArgumentCaptor<Collection<SaleRollup>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(saleRollupRepository).saveAll(captor.capture());
+
+        return captor.getValue().stream().collect(Collectors.toMap(SaleRollup::getId, Function.identity()));
+    }
+
+    private static void assertRollup(SaleRollup rollup, long saleCount, double totalPrice, Double paidPrice, long units){
+        assertEquals(saleCount, rollup.getSaleCount());
+        assertEquals(totalPrice, rollup.getTotalPrice());
+        assertEquals(paidPrice, rollup.getPaidPrice());
+        assertEquals(units, rollup.getUnits());
+    }
+}
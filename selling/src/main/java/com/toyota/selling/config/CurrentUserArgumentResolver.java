@@ -0,0 +1,101 @@
+package com.toyota.selling.config;
+
+import com.toyota.selling.dto.CurrentUser;
+import com.toyota.selling.exception.UnauthenticatedException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Resolves {@link CurrentUser} controller parameters from the identity headers set by the gateway.
+ * The token has already been verified there, so only the gateway's HMAC signature over the username, roles
+ * and timestamp is checked here. Headers without a valid signature, or signed longer ago than the allowed
+ * age, are rejected, since the service may also be reached without passing through the gateway.
+ */
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+    private static Logger logger = LogManager.getLogger(CurrentUserArgumentResolver.class);
+    private static final String ALGORITHM = "HmacSHA256";
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> mac;
+    private final long maxAgeSeconds;
+    private final Clock clock;
+
+    public CurrentUserArgumentResolver(String secret, Duration maxAge, Clock clock) {
+        if (secret == null || secret.length() < 32) {
+            throw new IllegalArgumentException("security.identity.secret must be at least 32 characters");
+        }
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.mac = ThreadLocal.withInitial(this::newMac);
+        this.maxAgeSeconds = maxAge.getSeconds();
+        this.clock = clock;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return CurrentUser.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public CurrentUser resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                       NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        String username = webRequest.getHeader(CurrentUser.USER_HEADER);
+        if (username == null || username.isEmpty()) {
+            logger.warn("Missing user header. Request has not passed through the gateway.");
+            throw new UnauthenticatedException("Missing authenticated user");
+        }
+
+        String roles = webRequest.getHeader(CurrentUser.ROLES_HEADER);
+        if (roles == null) {
+            roles = "";
+        }
+        if (!isSignedByGateway(username, roles, webRequest.getHeader(CurrentUser.TIMESTAMP_HEADER),
+                webRequest.getHeader(CurrentUser.SIGNATURE_HEADER))) {
+            logger.warn("Invalid identity signature for user " + username + ". Request has not passed through the gateway.");
+            throw new UnauthenticatedException("Missing authenticated user");
+        }
+        return new CurrentUser(username, roles.isEmpty() ? Set.of() : Set.of(roles.split(",")));
+    }
+
+    private boolean isSignedByGateway(String username, String roles, String timestamp, String signature) {
+        if (timestamp == null || signature == null) {
+            return false;
+        }
+        long signedAt;
+        try {
+            signedAt = Long.parseLong(timestamp);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        if (Math.abs(clock.instant().getEpochSecond() - signedAt) > maxAgeSeconds) {
+            return false;
+        }
+        byte[] payload = (username + "\n" + roles + "\n" + signedAt).getBytes(StandardCharsets.UTF_8);
+        byte[] expected = Base64.getUrlEncoder().withoutPadding()
+                .encode(mac.get().doFinal(payload));
+        return MessageDigest.isEqual(expected, signature.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac instance = Mac.getInstance(ALGORITHM);
+            instance.init(key);
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        }
+    }
+}
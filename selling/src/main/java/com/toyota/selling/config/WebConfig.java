@@ -0,0 +1,27 @@
+package com.toyota.selling.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+    private final String identitySecret;
+    private final Duration identityMaxAge;
+
+    public WebConfig(@Value("${security.identity.secret}") String identitySecret,
+                     @Value("${security.identity.max-age:PT30S}") Duration identityMaxAge) {
+        this.identitySecret = identitySecret;
+        this.identityMaxAge = identityMaxAge;
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new CurrentUserArgumentResolver(identitySecret, identityMaxAge, Clock.systemUTC()));
+    }
+}
@@ -0,0 +1,16 @@
+package com.toyota.selling.dto;
+
+import java.util.Set;
+
+/**
+ * The user of the current request, as verified and forwarded by the gateway.
+ *
+ * @param username The username of the token owner.
+ * @param roles The roles of the token owner.
+ */
+public record CurrentUser(String username, Set<String> roles) {
+    public static final String USER_HEADER = "X-Auth-User";
+    public static final String ROLES_HEADER = "X-Auth-Roles";
+    public static final String TIMESTAMP_HEADER = "X-Auth-Timestamp";
+    public static final String SIGNATURE_HEADER = "X-Auth-Signature";
+}
@@ -27,4 +27,9 @@ public class GlobalExceptionHandler{
     public ResponseEntity<Object> handle(ProductNotFoundException e){
         return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
     }
+
+    @ExceptionHandler(UnauthenticatedException.class)
+    public ResponseEntity<Object> handle(UnauthenticatedException e){
+        return new ResponseEntity<>(e.getMessage(), HttpStatus.UNAUTHORIZED);
+    }
 }
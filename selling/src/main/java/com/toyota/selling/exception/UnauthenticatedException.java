@@ -0,0 +1,7 @@
+package com.toyota.selling.exception;
+
+public class UnauthenticatedException extends RuntimeException{
+    public UnauthenticatedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,86 @@
+package com.toyota.selling.service;
+
+import com.toyota.selling.entity.Campaign;
+import com.toyota.selling.repository.CampaignRepository;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+public class CampaignCache {
+    private static Logger logger = LogManager.getLogger(CampaignCache.class);
+    private final CampaignRepository campaignRepository;
+    private volatile Map<Long, Campaign> campaigns = Map.of();
+
+    public CampaignCache(CampaignRepository campaignRepository) {
+        this.campaignRepository = campaignRepository;
+    }
+
+    /**
+     * Reloads every campaign from the repository. Called once the application is ready and on an interval,
+     * because campaigns saved or deleted through another instance only update that instance's cache.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${selling.campaign-cache.refresh-interval:PT30S}",
+            initialDelayString = "${selling.campaign-cache.refresh-interval:PT30S}")
+    public synchronized void refresh(){
+        Map<Long, Campaign> loaded = campaignRepository.findAll().stream()
+                .collect(Collectors.toUnmodifiableMap(Campaign::getId, Function.identity()));
+        if(!loaded.keySet().equals(campaigns.keySet())){
+            logger.info("Campaign cache loaded with " + loaded.size() + " campaigns");
+        }
+        campaigns = loaded;
+    }
+
+    /**
+     * Returns the campaign with the given ID without touching the database.
+     *
+     * @param campaignId The ID of the campaign.
+     * @return The cached campaign, or null if there is no campaign with that ID.
+     */
+    public Campaign get(Long campaignId){
+        return campaignId == null ? null : campaigns.get(campaignId);
+    }
+
+    /**
+     * Checks whether the campaign is running at the given time. A campaign ends exactly at its end date.
+     *
+     * @param campaign The campaign to check.
+     * @param now The time of the sale.
+     * @return true if the campaign has started and not yet ended.
+     */
+    public static boolean isActive(Campaign campaign, LocalDateTime now){
+        return now.isAfter(campaign.getStartDate()) && now.isBefore(campaign.getEndDate());
+    }
+
+    /**
+     * Adds or replaces a campaign in the cache.
+     *
+     * @param campaign The saved campaign.
+     */
+    public synchronized void put(Campaign campaign){
+        Map<Long, Campaign> updated = new HashMap<>(campaigns);
+        updated.put(campaign.getId(), campaign);
+        campaigns = Map.copyOf(updated);
+    }
+
+    /**
+     * Removes a campaign from the cache.
+     *
+     * @param campaignId The ID of the deleted campaign.
+     */
+    public synchronized void remove(Long campaignId){
+        Map<Long, Campaign> updated = new HashMap<>(campaigns);
+        updated.remove(campaignId);
+        campaigns = Map.copyOf(updated);
+    }
+}
@@ -16,9 +16,11 @@ import java.util.stream.Collectors;
 public class CampaignService {
     private static Logger logger = LogManager.getLogger(CampaignService.class);
     private final CampaignRepository campaignRepository;
+    private final CampaignCache campaignCache;
 
-    public CampaignService(CampaignRepository campaignRepository) {
+    public CampaignService(CampaignRepository campaignRepository, CampaignCache campaignCache) {
         this.campaignRepository = campaignRepository;
+        this.campaignCache = campaignCache;
     }
 
     /**
@@ -77,7 +79,10 @@ public class CampaignService {
         campaign.setCampaignType(campaignDto.campaignType());
         campaign.setDiscountRate(campaignDto.discountRate());
 
-        return CampaignDto.convert(campaignRepository.save(campaign));
+        Campaign savedCampaign = campaignRepository.save(campaign);
+        campaignCache.put(savedCampaign);
+
+        return CampaignDto.convert(savedCampaign);
     }
 
     /**
@@ -89,6 +94,7 @@ public class CampaignService {
     public String deleteCampaign(Long campaignId) {
         if(campaignRepository.existsById(campaignId)){
             campaignRepository.deleteById(campaignId);
+            campaignCache.remove(campaignId);
             logger.info("Campaign deleted");
             return "Campaign deleted";
         }
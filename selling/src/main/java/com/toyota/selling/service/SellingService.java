@@ -7,7 +7,6 @@ import com.toyota.selling.exception.BadCampaignRequestException;
 import com.toyota.selling.exception.BadSaleRequestException;
 import com.toyota.selling.exception.CampaignNotFoundException;
 import com.toyota.selling.exception.ProductNotFoundException;
-import com.toyota.selling.repository.CampaignRepository;
 import com.toyota.selling.repository.ProductRepository;
 import com.toyota.selling.repository.SaleRepository;
 import jakarta.ws.rs.BadRequestException;
@@ -16,10 +15,12 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static com.toyota.selling.entity.CampaignType.BUY_TWO_GET_ONE_FREE;
@@ -29,14 +30,17 @@ import static com.toyota.selling.entity.CampaignType.FLAT_DISCOUNT;
 public class SellingService {
     private static Logger logger = LogManager.getLogger(SellingService.class);
     private final SaleRepository saleRepository;
-    private final CampaignRepository campaignRepository;
+    private final CampaignCache campaignCache;
     private final ProductRepository productRepository;
+    private final StockReservationService stockReservationService;
 
 
-    public SellingService(SaleRepository saleRepository, CampaignRepository campaignRepository, ProductRepository productRepository) {
+    public SellingService(SaleRepository saleRepository, CampaignCache campaignCache,
+                          ProductRepository productRepository, StockReservationService stockReservationService) {
         this.saleRepository = saleRepository;
-        this.campaignRepository = campaignRepository;
+        this.campaignCache = campaignCache;
         this.productRepository = productRepository;
+        this.stockReservationService = stockReservationService;
     }
 
     /**
@@ -47,70 +51,66 @@ public class SellingService {
      * @param username The username of the cashier making the sale.
      * @return A string message indicating the result of the sale process.
      */
+    @Transactional
     public String makeSale(List<SaleRequest> saleRequests, PaymentMethod paymentMethod, String username){
         double totalPrice = 0;
         double paidPrice = 0;
-        long campaignId;
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<Long, Product> products = loadProducts(saleRequests);
 
         Sale sale = new Sale();
         Set<ProductSale> productSales = new HashSet<>();
+        Map<Long, Integer> requestedAmounts = new HashMap<>();
 
         for(SaleRequest s : saleRequests){
-            Product product = productRepository.findById(s.getProductId())
-                    .orElseThrow(() -> new ProductNotFoundException("Requested product has not found."));
+            Product product = products.get(s.getProductId());
+            if(product == null){
+                throw new ProductNotFoundException("Requested product has not found.");
+            }
 
-            if(s.getRequestedAmount() > product.getAmount()){
+            int requestedAmount = requestedAmounts.merge(product.getId(), s.getRequestedAmount(), Integer::sum);
+            if(requestedAmount > product.getAmount()){
                 logger.warn("Requested amount must not be higher than available value.");
                 throw new BadSaleRequestException("Requested amount must not be higher than available stock.");
             }
 
+            Campaign campaign = campaignCache.get(s.getCampaignId());
+            if(campaign != null && !CampaignCache.isActive(campaign, now)){
+                logger.warn("Requested campaign is not available now.");
+                throw new CampaignNotFoundException("Requested campaign is not available now."); //change
+            }
+
+            double linePrice = saleWithoutDiscount(s, product);
+            double linePaidPrice = linePrice;
+            if(campaign != null){
+                switch(campaign.getCampaignType()){
+                    case BUY_TWO_GET_ONE_FREE:
+                        linePaidPrice = buyTwoGetOneForFree(s, product);
+                        break;
+
+                    case FLAT_DISCOUNT:
+                        linePaidPrice = flatDiscount(s, product, campaign);
+                        break;
+                }
+            }
+            totalPrice += linePrice;
+            paidPrice += linePaidPrice;
+
             ProductSale productSale = new ProductSale();
             productSale.setProduct(product);
             productSale.setSaledAmount(s.getRequestedAmount());
+            productSale.setPrice(product.getPrice());
+            productSale.setPaidPrice(linePaidPrice);
             productSale.setSale(sale);
 
             productSales.add(productSale);
-
-            if(s.getCampaignId() == null){ //null check
-                campaignId = -1;
-            }else{
-                campaignId = s.getCampaignId();
-            }
-
-            Optional<Campaign> campaign = campaignRepository.findById(campaignId);
-            if(campaign.isPresent()){
-                if(LocalDateTime.now().isAfter(campaign.get().getStartDate()) &&
-                        LocalDateTime.now().isBefore(campaign.get().getEndDate())
-                ){
-                    switch(campaign.get().getCampaignType()){
-                        case BUY_TWO_GET_ONE_FREE:
-                            paidPrice += buyTwoGetOneForFree(s, product);
-                            totalPrice += saleWithoutDiscount(s, product);
-                            product.setAmount(product.getAmount() - s.getRequestedAmount());
-                            break;
-
-                        case FLAT_DISCOUNT:
-                            paidPrice += flatDiscount(s, product, campaign.get());
-                            totalPrice += saleWithoutDiscount(s, product);
-                            product.setAmount(product.getAmount() - s.getRequestedAmount());
-                            break;
-                    }
-                }
-                else{
-                    logger.warn("Requested campaign is not available now.");
-                    throw new CampaignNotFoundException("Requested campaign is not available now."); //change
-                }
-
-            }
-            else{
-                paidPrice += saleWithoutDiscount(s, product);
-                totalPrice = paidPrice;
-                product.setAmount(product.getAmount() - s.getRequestedAmount());
-            }
         }
 
+        stockReservationService.reserve(requestedAmounts);
+
         sale.setProductSales(productSales);
-        sale.setSaleDate(LocalDateTime.now());
+        sale.setSaleDate(now);
         sale.setPaidPrice(paidPrice);
         sale.setTotalPrice(totalPrice);
         sale.setPaymentMethod(paymentMethod);
@@ -121,6 +121,23 @@ public class SellingService {
 
         return "Sale is made.";
     }
+
+    /**
+     * Loads every product referenced by the sale requests with a single query.
+     *
+     * @param saleRequests The sale requests of the basket.
+     * @return The found products keyed by their ID.
+     */
+    private Map<Long, Product> loadProducts(List<SaleRequest> saleRequests){
+        Set<Long> productIds = saleRequests.stream()
+                .map(SaleRequest::getProductId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        return productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+    }
+
     /**
      * Calculates the price for a "Buy Two, Get One Free" sale.
      *
@@ -0,0 +1,68 @@
+package com.toyota.selling.service;
+
+import com.toyota.selling.exception.BadSaleRequestException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+@Service
+public class StockReservationService {
+    private static Logger logger = LogManager.getLogger(StockReservationService.class);
+    /**
+     * Writes products and product_changes, which the product service owns. The columns are checked on both
+     * sides: here by StockReservationServiceTest and in the product service by SellingStockColumnsTest.
+     */
+    static final String DECREASE_STOCK =
+            "WITH changed AS (" +
+            "UPDATE products SET amount = amount - ?, version = COALESCE(version, 0) + 1, updated_date = LOCALTIMESTAMP " +
+            "WHERE id = ? AND amount >= ? " +
+            "RETURNING id, version, updated_date, price, amount) " +
+            "INSERT INTO product_changes " +
+            "(id, product_id, version, updated_date, old_price, new_price, old_amount, new_amount) " +
+            "SELECT nextval('product_changes_seq'), id, version, updated_date, price, price, amount + ?, amount FROM changed";
+    private final JdbcTemplate jdbcTemplate;
+
+    public StockReservationService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Decreases the stock of every requested product with one conditional update per product,
+     * sent to the database as a single batch. A row is only updated when it still has enough stock,
+     * so concurrent sales can never oversell. Products are updated in ascending ID order to keep
+     * the lock order identical between concurrent baskets.
+     * <p>
+     * Every decrease also bumps the version of the product and records the change in product_changes,
+     * in the same statement, so the change feed of the product service sees every stock change. The change
+     * gets its feed position from the product service once this transaction has committed.
+     *
+     * @param requestedAmounts The total requested amount of each product keyed by product ID.
+     * @throws BadSaleRequestException If any product does not have enough stock; the whole basket is rolled back.
+     */
+    @Transactional
+    public void reserve(Map<Long, Integer> requestedAmounts){
+        if(requestedAmounts.isEmpty()){
+            return;
+        }
+
+        List<Object[]> batchArgs = new TreeMap<>(requestedAmounts).entrySet().stream()
+                .map(e -> new Object[]{e.getValue(), e.getKey(), e.getValue(), e.getValue()})
+                .collect(Collectors.toList());
+
+        int[] updatedRows = jdbcTemplate.batchUpdate(DECREASE_STOCK, batchArgs);
+
+        for(int updated : updatedRows){
+            if(updated == 0){
+                logger.warn("Requested amount must not be higher than available value.");
+                throw new BadSaleRequestException("Requested amount must not be higher than available stock.");
+            }
+        }
+    }
+}
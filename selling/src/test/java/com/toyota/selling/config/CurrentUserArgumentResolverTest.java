@@ -0,0 +1,90 @@
+package com.toyota.selling.config;
+
+import com.toyota.selling.dto.CurrentUser;
+import com.toyota.selling.exception.UnauthenticatedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CurrentUserArgumentResolverTest {
+    private static final String SECRET = "test-identity-secret-of-at-least-32-chars";
+    private static final Instant NOW = Instant.parse("2024-01-01T10:00:00Z");
+    private CurrentUserArgumentResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        resolver = new CurrentUserArgumentResolver(SECRET, Duration.ofSeconds(30), Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void testResolveArgument_whenGatewayHeadersAreSigned_shouldReturnCurrentUser() throws Exception {
+        MockHttpServletRequest request = signedRequest("cashier", "CASHIER,MANAGER", NOW.getEpochSecond());
+
+        CurrentUser result = resolver.resolveArgument(null, null, new ServletWebRequest(request), null);
+
+        assertEquals(new CurrentUser("cashier", Set.of("CASHIER", "MANAGER")), result);
+    }
+
+    @Test
+    void testResolveArgument_whenUserHeaderIsMissing_shouldThrowUnauthenticatedException() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+
+        assertThrows(UnauthenticatedException.class, () ->
+                resolver.resolveArgument(null, null, new ServletWebRequest(request), null));
+    }
+
+    @Test
+    void testResolveArgument_whenSignatureIsMissing_shouldThrowUnauthenticatedException() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(CurrentUser.USER_HEADER, "cashier");
+        request.addHeader(CurrentUser.ROLES_HEADER, "CASHIER");
+
+        assertThrows(UnauthenticatedException.class, () ->
+                resolver.resolveArgument(null, null, new ServletWebRequest(request), null));
+    }
+
+    @Test
+    void testResolveArgument_whenRolesAreChangedAfterSigning_shouldThrowUnauthenticatedException() throws Exception {
+        MockHttpServletRequest request = signedRequest("cashier", "CASHIER", NOW.getEpochSecond());
+        request.removeHeader(CurrentUser.ROLES_HEADER);
+        request.addHeader(CurrentUser.ROLES_HEADER, "CASHIER,ADMIN");
+
+        assertThrows(UnauthenticatedException.class, () ->
+                resolver.resolveArgument(null, null, new ServletWebRequest(request), null));
+    }
+
+    @Test
+    void testResolveArgument_whenSignatureIsTooOld_shouldThrowUnauthenticatedException() throws Exception {
+        MockHttpServletRequest request = signedRequest("cashier", "CASHIER", NOW.getEpochSecond() - 31);
+
+        assertThrows(UnauthenticatedException.class, () ->
+                resolver.resolveArgument(null, null, new ServletWebRequest(request), null));
+    }
+
+    private MockHttpServletRequest signedRequest(String username, String roles, long timestamp) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        String signature = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(mac.doFinal((username + "\n" + roles + "\n" + timestamp).getBytes(StandardCharsets.UTF_8)));
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(CurrentUser.USER_HEADER, username);
+        request.addHeader(CurrentUser.ROLES_HEADER, roles);
+        request.addHeader(CurrentUser.TIMESTAMP_HEADER, Long.toString(timestamp));
+        request.addHeader(CurrentUser.SIGNATURE_HEADER, signature);
+        return request;
+    }
+}
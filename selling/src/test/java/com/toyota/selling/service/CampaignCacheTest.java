@@ -0,0 +1,87 @@
+package com.toyota.selling.service;
+
+import com.toyota.selling.entity.Campaign;
+import com.toyota.selling.entity.CampaignType;
+import com.toyota.selling.repository.CampaignRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CampaignCacheTest {
+    private CampaignRepository campaignRepository;
+    private CampaignCache campaignCache;
+
+    @BeforeEach
+    void setUp() {
+        campaignRepository = Mockito.mock(CampaignRepository.class);
+
+        campaignCache = new CampaignCache(campaignRepository);
+    }
+
+    @Test
+    void testGet_whenCacheIsRefreshed_shouldReturnCampaignWithoutQueryingAgain() {
+        Campaign campaign = generateCampaign(1L);
+        when(campaignRepository.findAll()).thenReturn(List.of(campaign));
+
+        campaignCache.refresh();
+
+        assertEquals(campaign, campaignCache.get(1L));
+        assertEquals(campaign, campaignCache.get(1L));
+        assertNull(campaignCache.get(2L));
+        assertNull(campaignCache.get(null));
+        verify(campaignRepository, times(1)).findAll();
+    }
+
+    @Test
+    void testRefresh_whenCampaignChangedElsewhere_shouldReplaceCachedCampaigns() {
+        Campaign first = generateCampaign(1L);
+        Campaign second = generateCampaign(2L);
+        when(campaignRepository.findAll()).thenReturn(List.of(first)).thenReturn(List.of(second));
+
+        campaignCache.refresh();
+        campaignCache.refresh();
+
+        assertNull(campaignCache.get(1L));
+        assertEquals(second, campaignCache.get(2L));
+    }
+
+    @Test
+    void testPutAndRemove_shouldUpdateCachedCampaigns() {
+        Campaign campaign = generateCampaign(1L);
+
+        campaignCache.put(campaign);
+        assertEquals(campaign, campaignCache.get(1L));
+
+        campaignCache.remove(1L);
+        assertNull(campaignCache.get(1L));
+        verifyNoInteractions(campaignRepository);
+    }
+
+    @Test
+    void testIsActive_shouldEndExactlyAtEndDate() {
+        Campaign campaign = generateCampaign(1L);
+
+        assertTrue(CampaignCache.isActive(campaign, campaign.getEndDate().minusNanos(1)));
+        assertFalse(CampaignCache.isActive(campaign, campaign.getEndDate()));
+        assertFalse(CampaignCache.isActive(campaign, campaign.getStartDate().minusDays(1)));
+    }
+
+    private Campaign generateCampaign(Long id){
+        Campaign campaign = new Campaign();
+
+        campaign.setId(id);
+        campaign.setName("campaign");
+        campaign.setStartDate(LocalDateTime.now().minusDays(1));
+        campaign.setEndDate(LocalDateTime.now().plusDays(1));
+        campaign.setCampaignType(CampaignType.FLAT_DISCOUNT);
+        campaign.setDiscountRate(10);
+
+        return campaign;
+    }
+}
@@ -22,15 +22,17 @@ import static org.mockito.Mockito.*;
 class CampaignServiceTest {
 
     private CampaignRepository campaignRepository;
+    private CampaignCache campaignCache;
     private CampaignService campaignService;
     private MockedStatic<CampaignDto> mockStatic;
 
     @BeforeEach
     void setUp() {
         campaignRepository = Mockito.mock(CampaignRepository.class);
+        campaignCache = Mockito.mock(CampaignCache.class);
         mockStatic = Mockito.mockStatic(CampaignDto.class);
 
-        campaignService = new CampaignService(campaignRepository);
+        campaignService = new CampaignService(campaignRepository, campaignCache);
     }
 
     @Test
@@ -114,6 +116,7 @@ class CampaignServiceTest {
         String expected = "Campaign deleted";
 
         assertEquals(expected, result);
+        verify(campaignCache, times(1)).remove(campaignId);
     }
 
     @Test
@@ -5,36 +5,41 @@ import com.toyota.selling.entity.*;
 import com.toyota.selling.exception.BadSaleRequestException;
 import com.toyota.selling.exception.CampaignNotFoundException;
 import com.toyota.selling.exception.ProductNotFoundException;
-import com.toyota.selling.repository.CampaignRepository;
 import com.toyota.selling.repository.ProductRepository;
 import com.toyota.selling.repository.SaleRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.when;
 
 class SellingServiceTest {
     private SaleRepository saleRepository;
-    private CampaignRepository campaignRepository;
+    private CampaignCache campaignCache;
     private ProductRepository productRepository;
+    private StockReservationService stockReservationService;
     private SellingService sellingService;
 
     @BeforeEach
     void setUp() {
         saleRepository = Mockito.mock(SaleRepository.class);
-        campaignRepository = Mockito.mock(CampaignRepository.class);
+        campaignCache = Mockito.mock(CampaignCache.class);
         productRepository = Mockito.mock(ProductRepository.class);
+        stockReservationService = Mockito.mock(StockReservationService.class);
 
-        sellingService = new SellingService(saleRepository, campaignRepository, productRepository);
+        sellingService = new SellingService(saleRepository, campaignCache, productRepository,
+                stockReservationService);
     }
 
     @Test
@@ -54,20 +59,20 @@ class SellingServiceTest {
         product.setPrice(1.0);
 
         Campaign campaign = new Campaign();
+        campaign.setId(1L);
         campaign.setCampaignType(CampaignType.FLAT_DISCOUNT);
         campaign.setStartDate(LocalDateTime.now().minusDays(1));
         campaign.setEndDate(LocalDateTime.now().plusDays(1));
         campaign.setDiscountRate(10);
 
-        Mockito.when(productRepository.findById(anyLong())).thenReturn(Optional.of(product));
-        Mockito.when(campaignRepository.findById(anyLong())).thenReturn(Optional.of(campaign));
+        Mockito.when(productRepository.findAllById(anySet())).thenReturn(List.of(product));
+        Mockito.when(campaignCache.get(1L)).thenReturn(campaign);
 
         String expected = "Sale is made.";
         String result = sellingService.makeSale(saleRequests, paymentMethod, username);
 
         assertEquals(expected, result);
-        Mockito.verify(productRepository, times(1)).findById(anyLong());
-        Mockito.verify(campaignRepository, times(1)).findById(anyLong());
+        Mockito.verify(productRepository, times(1)).findAllById(anySet());
     }
 
     @Test
@@ -87,20 +92,20 @@ class SellingServiceTest {
         product.setPrice(1.0);
 
         Campaign campaign = new Campaign();
+        campaign.setId(1L);
         campaign.setCampaignType(CampaignType.BUY_TWO_GET_ONE_FREE);
         campaign.setStartDate(LocalDateTime.now().minusDays(1));
         campaign.setEndDate(LocalDateTime.now().plusDays(1));
         campaign.setDiscountRate(10);
 
-        Mockito.when(productRepository.findById(anyLong())).thenReturn(Optional.of(product));
-        Mockito.when(campaignRepository.findById(anyLong())).thenReturn(Optional.of(campaign));
+        Mockito.when(productRepository.findAllById(anySet())).thenReturn(List.of(product));
+        Mockito.when(campaignCache.get(1L)).thenReturn(campaign);
 
         String expected = "Sale is made.";
         String result = sellingService.makeSale(saleRequests, paymentMethod, username);
 
         assertEquals(expected, result);
-        Mockito.verify(productRepository, times(1)).findById(anyLong());
-        Mockito.verify(campaignRepository, times(1)).findById(anyLong());
+        Mockito.verify(productRepository, times(1)).findAllById(anySet());
     }
 
     @Test
@@ -112,7 +117,7 @@ class SellingServiceTest {
         PaymentMethod paymentMethod = PaymentMethod.CREDIT_CARD;
         String username = "testUser";
 
-        when(productRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(productRepository.findAllById(anySet())).thenReturn(List.of());
 
 
         assertThrows(ProductNotFoundException.class, () -> {
@@ -131,8 +136,9 @@ class SellingServiceTest {
         String username = "testUser";
 
         Product product = new Product();
+        product.setId(1L);
         product.setAmount(2);
-        when(productRepository.findById(anyLong())).thenReturn(Optional.of(product));
+        when(productRepository.findAllById(anySet())).thenReturn(List.of(product));
 
 
         assertThrows(BadSaleRequestException.class, () -> {
@@ -151,17 +157,115 @@ class SellingServiceTest {
         String username = "testUser";
 
         Product product = new Product();
+        product.setId(1L);
         product.setAmount(2);
-        when(productRepository.findById(anyLong())).thenReturn(Optional.of(product));
+        when(productRepository.findAllById(anySet())).thenReturn(List.of(product));
 
         Campaign campaign = new Campaign();
+        campaign.setId(1L);
         campaign.setCampaignType(CampaignType.FLAT_DISCOUNT);
         campaign.setStartDate(LocalDateTime.now().plusDays(1));
         campaign.setEndDate(LocalDateTime.now().plusDays(2));
-        when(campaignRepository.findById(anyLong())).thenReturn(Optional.of(campaign));
+        when(campaignCache.get(1L)).thenReturn(campaign);
 
         assertThrows(CampaignNotFoundException.class, () -> {
             sellingService.makeSale(saleRequests, paymentMethod, username);
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    void testMakeSale_whenBasketHasManyLines_shouldLoadProductsOnce() {
+        List<SaleRequest> saleRequests = new ArrayList<>();
+        saleRequests.add(new SaleRequest(1L, 1, 1L));
+        saleRequests.add(new SaleRequest(2L, 2, null));
+        saleRequests.add(new SaleRequest(1L, 1, 1L));
+
+        Product product1 = new Product();
+        product1.setId(1L);
+        product1.setAmount(5);
+        product1.setPrice(1.0);
+
+        Product product2 = new Product();
+        product2.setId(2L);
+        product2.setAmount(5);
+        product2.setPrice(2.0);
+
+        Campaign campaign = new Campaign();
+        campaign.setId(1L);
+        campaign.setCampaignType(CampaignType.FLAT_DISCOUNT);
+        campaign.setStartDate(LocalDateTime.now().minusDays(1));
+        campaign.setEndDate(LocalDateTime.now().plusDays(1));
+        campaign.setDiscountRate(10);
+
+        when(productRepository.findAllById(anySet())).thenReturn(List.of(product1, product2));
+        when(campaignCache.get(1L)).thenReturn(campaign);
+
+        String result = sellingService.makeSale(saleRequests, PaymentMethod.CASH, "testUser");
+
+        assertEquals("Sale is made.", result);
+        Mockito.verify(stockReservationService, times(1)).reserve(Map.of(1L, 2, 2L, 2));
+        Mockito.verify(productRepository, times(1)).findAllById(anySet());
+    }
+
+    @Test
+    void testMakeSale_whenBasketMixesCampaignAndPlainLines_shouldRecordLinePricesAndSumThem() {
+        List<SaleRequest> saleRequests = new ArrayList<>();
+        saleRequests.add(new SaleRequest(1L, 2, 1L));
+        saleRequests.add(new SaleRequest(2L, 1, null));
+
+        Product product1 = new Product();
+        product1.setId(1L);
+        product1.setAmount(5);
+        product1.setPrice(10.0);
+
+        Product product2 = new Product();
+        product2.setId(2L);
+        product2.setAmount(5);
+        product2.setPrice(4.0);
+
+        Campaign campaign = new Campaign();
+        campaign.setId(1L);
+        campaign.setCampaignType(CampaignType.FLAT_DISCOUNT);
+        campaign.setStartDate(LocalDateTime.now().minusDays(1));
+        campaign.setEndDate(LocalDateTime.now().plusDays(1));
+        campaign.setDiscountRate(10);
+
+        when(productRepository.findAllById(anySet())).thenReturn(List.of(product1, product2));
+        when(campaignCache.get(1L)).thenReturn(campaign);
+
+        sellingService.makeSale(saleRequests, PaymentMethod.CASH, "testUser");
+
+        ArgumentCaptor<Sale> captor = ArgumentCaptor.forClass(Sale.class);
+        Mockito.verify(saleRepository).save(captor.capture());
+        Sale sale = captor.getValue();
+        assertEquals(24.0, sale.getTotalPrice());
+        assertEquals(22.0, sale.getPaidPrice());
+
+        Map<Long, ProductSale> lines = sale.getProductSales().stream()
+                .collect(Collectors.toMap(line -> line.getProduct().getId(), Function.identity()));
+        assertEquals(10.0, lines.get(1L).getPrice());
+        assertEquals(18.0, lines.get(1L).getPaidPrice());
+        assertEquals(4.0, lines.get(2L).getPrice());
+        assertEquals(4.0, lines.get(2L).getPaidPrice());
+    }
+
+    @Test
+    void testMakeSale_whenStockIsTakenByConcurrentSale_shouldNotSaveSale() {
+        List<SaleRequest> saleRequests = new ArrayList<>();
+        saleRequests.add(new SaleRequest(1L, 2, null));
+
+        Product product = new Product();
+        product.setId(1L);
+        product.setAmount(2);
+        product.setPrice(1.0);
+
+        when(productRepository.findAllById(anySet())).thenReturn(List.of(product));
+        Mockito.doThrow(new BadSaleRequestException("Requested amount must not be higher than available stock."))
+                .when(stockReservationService).reserve(Map.of(1L, 2));
+
+        assertThrows(BadSaleRequestException.class, () -> {
+            sellingService.makeSale(saleRequests, PaymentMethod.CASH, "testUser");
+        });
+        Mockito.verifyNoInteractions(saleRepository);
+    }
+}
@@ -0,0 +1,95 @@
+package com.toyota.selling.service;
+
+import com.toyota.selling.exception.BadSaleRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class StockReservationServiceTest {
+    private JdbcTemplate jdbcTemplate;
+    private StockReservationService stockReservationService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+
+        stockReservationService = new StockReservationService(jdbcTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testReserve_whenStockIsEnough_shouldDecreaseAllProductsInOneBatchOrderedById() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1, 1});
+
+        stockReservationService.reserve(Map.of(7L, 3, 2L, 1));
+
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), captor.capture());
+
+        List<Object[]> batchArgs = captor.getValue();
+        assertEquals(2, batchArgs.size());
+        assertArrayEquals(new Object[]{1, 2L, 1, 1}, batchArgs.get(0));
+        assertArrayEquals(new Object[]{3, 7L, 3, 3}, batchArgs.get(1));
+    }
+
+    @Test
+    void testReserve_whenAnyProductHasNotEnoughStock_shouldThrowBadSaleRequestException() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1, 0});
+
+        assertThrows(BadSaleRequestException.class, () -> {
+            stockReservationService.reserve(Map.of(1L, 1, 2L, 5));
+        });
+    }
+
+    /**
+     * The product service checks its mappings against the same column lists in SellingStockColumnsTest,
+     * so a column renamed on either side fails one of the two tests.
+     */
+    @Test
+    void testDecreaseStock_shouldOnlyUseColumnsAgreedWithProductService() {
+        String sql = StockReservationService.DECREASE_STOCK;
+
+        assertEquals(Set.of("amount", "version", "updated_date"), names("(\\w+) = ", between(sql, " SET ", " WHERE ")));
+        assertEquals(Set.of("id", "amount", "price", "version", "updated_date"),
+                names("(\\w+)", between(sql, "RETURNING ", ")")));
+        assertEquals(Set.of("id", "product_id", "version", "updated_date",
+                        "old_price", "new_price", "old_amount", "new_amount"),
+                names("(\\w+)", between(sql, "INSERT INTO product_changes (", ")")));
+        assertTrue(sql.contains("nextval('product_changes_seq')"));
+    }
+
+    @Test
+    void testReserve_whenNothingIsRequested_shouldNotTouchDatabase() {
+        stockReservationService.reserve(Map.of());
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private static String between(String sql, String start, String end) {
+        int from = sql.indexOf(start) + start.length();
+        return sql.substring(from, sql.indexOf(end, from));
+    }
+
+    private static Set<String> names(String pattern, String part) {
+        Set<String> names = new HashSet<>();
+        Matcher matcher = Pattern.compile(pattern).matcher(part);
+        while (matcher.find()) {
+            names.add(matcher.group(1));
+        }
+        return names;
+    }
+}
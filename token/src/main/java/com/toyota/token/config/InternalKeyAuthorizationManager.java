@@ -0,0 +1,34 @@
+package com.toyota.token.config;
+
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.function.Supplier;
+
+/**
+ * Lets a request through only if it carries the key shared with the other services in the
+ * {@value #INTERNAL_KEY_HEADER} header. Used for endpoints that only the services call, such as the
+ * revocation list the gateway syncs, so they are protected here whatever route reaches them.
+ */
+public class InternalKeyAuthorizationManager implements AuthorizationManager<RequestAuthorizationContext> {
+    public static final String INTERNAL_KEY_HEADER = "X-Internal-Key";
+    private final byte[] key;
+
+    public InternalKeyAuthorizationManager(String key) {
+        if (key == null || key.length() < 32) {
+            throw new IllegalArgumentException("security.internal.key must be at least 32 characters");
+        }
+        this.key = key.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        String sent = context.getRequest().getHeader(INTERNAL_KEY_HEADER);
+        return new AuthorizationDecision(sent != null
+                && MessageDigest.isEqual(key, sent.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -1,7 +1,7 @@
 package com.toyota.token.config;
 
-import com.toyota.token.repository.UserRepository;
 import com.toyota.token.service.CustomUserDetailsService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -10,7 +10,6 @@ import org.springframework.security.authentication.dao.DaoAuthenticationProvider
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
@@ -18,37 +17,48 @@ import org.springframework.security.web.SecurityFilterChain;
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
-    private final UserRepository userRepository;
+    private final CustomUserDetailsService userDetailsService;
 
-    public SecurityConfig(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    public SecurityConfig(CustomUserDetailsService userDetailsService) {
+        this.userDetailsService = userDetailsService;
     }
 
+    /**
+     * The revocation list is only served to callers with the internal key, so it can not be read
+     * through a gateway route or by calling this service directly.
+     */
     @Bean
-    public UserDetailsService userDetailsService(){
-        return new CustomUserDetailsService(userRepository);
-    }
-
-    @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   @Value("${security.internal.key}") String internalKey) throws Exception {
         return http
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth ->
-                        auth.requestMatchers("/auth/token", "/auth/validate").permitAll()
+                        auth.requestMatchers("/auth/token", "/auth/refresh", "/auth/logout", "/auth/validate", "/auth/jwks").permitAll()
+                                .requestMatchers("/auth/revocations").access(new InternalKeyAuthorizationManager(internalKey))
                 )
                 .build();
     }
 
+    /**
+     * BCrypt with the configured cost. It must match the cost used by the user-management service,
+     * which hashes the passwords this service verifies.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.password.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
+    /**
+     * Verifies logins against the stored hashes. When a stored hash was made with a lower cost than
+     * the configured one, the password is hashed again with the configured cost after the login
+     * succeeds, so raising the cost takes effect for every user at their next login.
+     */
     @Bean
-    public AuthenticationProvider authenticationProvider(){
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder){
         DaoAuthenticationProvider authenticationProvider=new DaoAuthenticationProvider();
-        authenticationProvider.setUserDetailsService(userDetailsService());
-        authenticationProvider.setPasswordEncoder(passwordEncoder());
+        authenticationProvider.setUserDetailsService(userDetailsService);
+        authenticationProvider.setUserDetailsPasswordService(userDetailsService);
+        authenticationProvider.setPasswordEncoder(passwordEncoder);
         return authenticationProvider;
     }
 
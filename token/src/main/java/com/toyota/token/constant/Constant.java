@@ -1,5 +0,0 @@
-package com.toyota.token.constant;
-
-public class Constant {
-    public static final String SECRET = "5367566B59703373367639792F423F4528482B4D6251655468576D5A71347437";
-}
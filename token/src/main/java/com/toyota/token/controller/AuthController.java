@@ -1,32 +1,53 @@
 package com.toyota.token.controller;
 
+import com.toyota.token.dto.AuthResponseDto;
+import com.toyota.token.dto.JsonWebKeySet;
 import com.toyota.token.dto.LoginDto;
+import com.toyota.token.dto.RefreshTokenDto;
+import com.toyota.token.dto.TokenRevocationDto;
 import com.toyota.token.service.AuthService;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
+import com.toyota.token.service.LoginService;
+import com.toyota.token.service.SigningKeyService;
+import com.toyota.token.service.TokenRevocationService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/auth")
 public class AuthController {
     private final AuthService authService;
-    private final AuthenticationManager authenticationManager;
+    private final LoginService loginService;
+    private final SigningKeyService signingKeyService;
+    private final TokenRevocationService tokenRevocationService;
 
-    public AuthController(AuthService authService, AuthenticationManager authenticationManager) {
+    public AuthController(AuthService authService, LoginService loginService, SigningKeyService signingKeyService,
+                          TokenRevocationService tokenRevocationService) {
         this.authService = authService;
-        this.authenticationManager = authenticationManager;
+        this.loginService = loginService;
+        this.signingKeyService = signingKeyService;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     @PostMapping("/token")
-    public String getToken(@RequestBody LoginDto loginDto) {
-        Authentication authenticate = authenticationManager
-                .authenticate(new UsernamePasswordAuthenticationToken(loginDto.getUsername(), loginDto.getPassword()));
-        if (authenticate.isAuthenticated()) {
-            return authService.generateToken(loginDto.getUsername());
-        } else {
-            throw new RuntimeException("invalid access");
-        }
+    public CompletableFuture<AuthResponseDto> getToken(@RequestBody LoginDto loginDto) {
+        return loginService.login(loginDto.getUsername(), loginDto.getPassword());
+    }
+
+    @PostMapping("/refresh")
+    public AuthResponseDto refreshToken(@RequestBody RefreshTokenDto refreshTokenDto) {
+        return authService.refreshTokens(refreshTokenDto.refreshToken());
+    }
+
+    @PostMapping("/logout")
+    public String logout(@RequestBody RefreshTokenDto refreshTokenDto) {
+        authService.logout(refreshTokenDto.refreshToken());
+        return "Logged out";
     }
 
     @GetMapping("/validate")
@@ -35,4 +56,16 @@ public class AuthController {
         return "Token is valid";
     }
 
+    @GetMapping("/jwks")
+    public ResponseEntity<JsonWebKeySet> getJwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(1)))
+                .body(signingKeyService.jwks());
+    }
+
+    @GetMapping("/revocations")
+    public List<TokenRevocationDto> getRevocations(@RequestParam(value = "since", required = false) Instant since) {
+        return tokenRevocationService.getRevocations(since);
+    }
+
 }
@@ -3,11 +3,24 @@ package com.toyota.token.dto;
 public class AuthResponseDto {
     private String accessToken;
     private String tokenType = "Bearer ";
+    private String refreshToken;
+    private long expiresIn;
 
     public AuthResponseDto(String accessToken) {
         this.accessToken = accessToken;
     }
 
+    /**
+     * @param accessToken The JWT to send with every request.
+     * @param refreshToken The token to get the next access token with, usable once.
+     * @param expiresIn Seconds until the access token expires.
+     */
+    public AuthResponseDto(String accessToken, String refreshToken, long expiresIn) {
+        this.accessToken = accessToken;
+        this.refreshToken = refreshToken;
+        this.expiresIn = expiresIn;
+    }
+
     public String getAccessToken() {
         return accessToken;
     }
@@ -16,6 +29,14 @@ public class AuthResponseDto {
         return tokenType;
     }
 
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public long getExpiresIn() {
+        return expiresIn;
+    }
+
     public void setAccessToken(String accessToken) {
         this.accessToken = accessToken;
     }
@@ -0,0 +1,15 @@
+package com.toyota.token.dto;
+
+/**
+ * A public EC key in JSON Web Key format (RFC 7517).
+ *
+ * @param kty The key type, always "EC".
+ * @param crv The curve, always "P-256".
+ * @param kid The key ID, sent in the header of the tokens signed with the key.
+ * @param use The use of the key, always "sig".
+ * @param alg The signature algorithm, always "ES256".
+ * @param x The x coordinate of the public point, Base64url.
+ * @param y The y coordinate of the public point, Base64url.
+ */
+public record JsonWebKey(String kty, String crv, String kid, String use, String alg, String x, String y) {
+}
@@ -0,0 +1,11 @@
+package com.toyota.token.dto;
+
+import java.util.List;
+
+/**
+ * The public keys that tokens may currently be signed with.
+ *
+ * @param keys The keys, oldest first.
+ */
+public record JsonWebKeySet(List<JsonWebKey> keys) {
+}
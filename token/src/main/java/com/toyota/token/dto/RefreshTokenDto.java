@@ -0,0 +1,9 @@
+package com.toyota.token.dto;
+
+/**
+ * Body of the refresh and logout requests.
+ *
+ * @param refreshToken The refresh token received at login or at the last refresh.
+ */
+public record RefreshTokenDto(String refreshToken) {
+}
@@ -0,0 +1,22 @@
+package com.toyota.token.dto;
+
+import com.toyota.token.entity.TokenRevocation;
+
+import java.time.Instant;
+import java.time.ZoneId;
+
+/**
+ * A revocation as served to the gateway. Times are instants, so they compare with the iat and exp claims.
+ *
+ * @param kind SESSION or USER.
+ * @param target The session ID or the username.
+ * @param revokedAt Tokens issued before this are revoked.
+ * @param expiresAt After this no token the revocation applies to is valid any more.
+ */
+public record TokenRevocationDto(String kind, String target, Instant revokedAt, Instant expiresAt) {
+    public static TokenRevocationDto convert(TokenRevocation from){
+        return new TokenRevocationDto(from.getKind().name(), from.getTarget(),
+                from.getRevokedAt().atZone(ZoneId.systemDefault()).toInstant(),
+                from.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,83 @@
+package com.toyota.token.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A refresh token a client renews its access token with. Only a hash of the token is stored. Every
+ * refresh revokes the presented token and issues the next one of the same family, so a token can be
+ * used once; when a revoked token is presented again the whole family is revoked, because either the
+ * client or someone who stole the token is replaying it.
+ */
+@Entity
+@Table(name="refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_token_hash", columnList = "tokenHash", unique = true),
+        @Index(name = "idx_refresh_tokens_family_id", columnList = "familyId"),
+        @Index(name = "idx_refresh_tokens_expires_at", columnList = "expiresAt")
+})
+public class RefreshToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "refresh_tokens_seq")
+    @SequenceGenerator(name = "refresh_tokens_seq", sequenceName = "refresh_tokens_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * SHA-256 of the token, Base64url without padding.
+     */
+    @Column(length = 43, nullable = false)
+    private String tokenHash;
+
+    @Column(nullable = false)
+    private String username;
+
+    /**
+     * Shared by every token issued from the same login.
+     */
+    private long familyId;
+
+    private LocalDateTime createdDate;
+
+    private LocalDateTime expiresAt;
+
+    private boolean revoked;
+
+    public RefreshToken() {
+    }
+
+    public RefreshToken(String tokenHash, String username, long familyId, LocalDateTime createdDate, LocalDateTime expiresAt) {
+        this.tokenHash = tokenHash;
+        this.username = username;
+        this.familyId = familyId;
+        this.createdDate = createdDate;
+        this.expiresAt = expiresAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public long getFamilyId() {
+        return familyId;
+    }
+
+    public LocalDateTime getCreatedDate() {
+        return createdDate;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isRevoked() {
+        return revoked;
+    }
+}
@@ -0,0 +1,72 @@
+package com.toyota.token.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * An EC key pair tokens are signed with. Kept in the database so every token service instance signs
+ * with the same keys and tokens stay verifiable across restarts. The database is shared with the other
+ * services, so the private key is stored encrypted under a key only the token service has.
+ */
+@Entity
+@Table(name="signing_keys")
+public class SigningKey {
+    @Id
+    private String kid;
+
+    /**
+     * PKCS#8 encoded private key, encrypted by {@link com.toyota.token.service.SigningKeyCipher}.
+     */
+    @Column(length = 512)
+    private String privateKey;
+
+    /**
+     * X.509 encoded public key, Base64.
+     */
+    @Column(length = 512)
+    private String publicKey;
+
+    private LocalDateTime createdDate;
+
+    /**
+     * When the key starts being used for signing. Until then it is only published, so verifiers
+     * already have it when the first token signed with it arrives.
+     */
+    private LocalDateTime activatesAt;
+
+    public SigningKey() {
+    }
+
+    public SigningKey(String kid, String privateKey, String publicKey, LocalDateTime createdDate, LocalDateTime activatesAt) {
+        this.kid = kid;
+        this.privateKey = privateKey;
+        this.publicKey = publicKey;
+        this.createdDate = createdDate;
+        this.activatesAt = activatesAt;
+    }
+
+    public String getKid() {
+        return kid;
+    }
+
+    public String getPrivateKey() {
+        return privateKey;
+    }
+
+    public void setPrivateKey(String privateKey) {
+        this.privateKey = privateKey;
+    }
+
+    public String getPublicKey() {
+        return publicKey;
+    }
+
+    public LocalDateTime getCreatedDate() {
+        return createdDate;
+    }
+
+    public LocalDateTime getActivatesAt() {
+        return activatesAt;
+    }
+}
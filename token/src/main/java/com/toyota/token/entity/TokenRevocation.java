@@ -0,0 +1,80 @@
+package com.toyota.token.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Revokes the access tokens of a login session or of a user before they expire. Access tokens issued
+ * before {@code revokedAt} with a matching session ID or subject are rejected by the gateway. Written by
+ * this service when a session ends and by the user-management service when a user is changed or deleted.
+ */
+@Entity
+@Table(name="token_revocations", indexes = {
+        @Index(name = "idx_token_revocations_revoked_at", columnList = "revokedAt"),
+        @Index(name = "idx_token_revocations_target", columnList = "target")
+})
+public class TokenRevocation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "token_revocations_seq")
+    @SequenceGenerator(name = "token_revocations_seq", sequenceName = "token_revocations_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16, nullable = false)
+    private Kind kind;
+
+    /**
+     * The session ID or the username.
+     */
+    @Column(nullable = false)
+    private String target;
+
+    private LocalDateTime revokedAt;
+
+    /**
+     * When no token the revocation applies to can be valid any more.
+     */
+    private LocalDateTime expiresAt;
+
+    public TokenRevocation() {
+    }
+
+    public TokenRevocation(Kind kind, String target, LocalDateTime revokedAt, LocalDateTime expiresAt) {
+        this.kind = kind;
+        this.target = target;
+        this.revokedAt = revokedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public LocalDateTime getRevokedAt() {
+        return revokedAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public enum Kind {
+        /**
+         * Matches the sid claim of access tokens and the refresh tokens of the same login.
+         */
+        SESSION,
+        /**
+         * Matches the subject of access tokens and every refresh token of the user.
+         */
+        USER
+    }
+}
@@ -5,12 +5,13 @@ import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name="users")
-@SQLDelete(sql="UPDATE users SET deleted = true WHERE id=?")
+@SQLDelete(sql="UPDATE users SET deleted = true, updated_date = LOCALTIMESTAMP WHERE id=?")
 @Where(clause = "deleted=false")
 public class User {
 
@@ -32,6 +33,11 @@ public class User {
 
     private boolean deleted = Boolean.FALSE;
 
+    /**
+     * When the user was last saved or deleted by the user-management service.
+     */
+    private LocalDateTime updatedDate;
+
     public User() {
 
     }
@@ -63,4 +69,12 @@ public class User {
     public void setRoles(List<Role> roles) {
         this.roles = roles;
     }
+
+    public LocalDateTime getUpdatedDate() {
+        return updatedDate;
+    }
+
+    public void setUpdatedDate(LocalDateTime updatedDate) {
+        this.updatedDate = updatedDate;
+    }
 }
@@ -0,0 +1,7 @@
+package com.toyota.token.exception;
+
+public class TooManyLoginsException extends RuntimeException{
+    public TooManyLoginsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,32 @@
+package com.toyota.token.repository;
+
+import com.toyota.token.entity.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+    /**
+     * Reads the database clock at the time of the call, which revocations are stamped with.
+     */
+    @Query(value = "SELECT CAST(clock_timestamp() AS timestamp)", nativeQuery = true)
+    LocalDateTime currentTimestamp();
+
+    List<TokenRevocation> findByRevokedAtGreaterThanEqualAndExpiresAtAfter(LocalDateTime since, LocalDateTime now);
+
+    List<TokenRevocation> findByExpiresAtAfter(LocalDateTime now);
+
+    boolean existsByKindAndTargetAndRevokedAtAfter(TokenRevocation.Kind kind, String target, LocalDateTime after);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM TokenRevocation r WHERE r.expiresAt < :before")
+    int deleteByExpiresAtBefore(@Param("before") LocalDateTime before);
+}
@@ -2,7 +2,11 @@ package com.toyota.token.repository;
 
 import com.toyota.token.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -10,4 +14,23 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, String> {
     Optional<User> findByUsername(String username);
     Boolean existsByUsername(String username);
+
+    /**
+     * Replaces the password hash only if it is still the given old one, so a password changed in the
+     * meantime is never overwritten with a rehash of the previous password.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.username = :username AND u.password = :oldPassword")
+    int updatePassword(@Param("username") String username,
+                       @Param("oldPassword") String oldPassword,
+                       @Param("password") String password);
+
+    /**
+     * Returns the number of users plus the sum of their versions, which grows with every committed save or
+     * delete of a user by the user-management service, including changes of its roles alone. Deleted users
+     * are included, which is why the query is native.
+     */
+    @Query(nativeQuery = true, value = "SELECT CAST(COUNT(*) + COALESCE(SUM(version), 0) AS bigint) FROM users")
+    Long findChangeCount();
 }
@@ -1,12 +1,20 @@
 package com.toyota.token.service;
 
+import com.toyota.token.dto.AuthResponseDto;
+import com.toyota.token.exception.InvalidRefreshTokenException;
 import com.toyota.token.repository.RoleRepository;
 import com.toyota.token.repository.UserRepository;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.stream.Collectors;
+
 @Service
 public class AuthService {
     private static Logger logger = LogManager.getLogger(AuthService.class);
@@ -14,17 +22,67 @@ public class AuthService {
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
+    private final RefreshTokenService refreshTokenService;
+    private final CustomUserDetailsService userDetailsService;
 
-    public AuthService(UserRepository repository, RoleRepository roleRepository, PasswordEncoder passwordEncoder, JwtService jwtService) {
+    public AuthService(UserRepository repository, RoleRepository roleRepository, PasswordEncoder passwordEncoder,
+                       JwtService jwtService, RefreshTokenService refreshTokenService,
+                       CustomUserDetailsService userDetailsService) {
         this.repository = repository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtService = jwtService;
+        this.refreshTokenService = refreshTokenService;
+        this.userDetailsService = userDetailsService;
     }
 
-    public String generateToken(String username) {
+    /**
+     * Issues an access token and the first refresh token of a new session after a successful login.
+     *
+     * @param authentication The successful authentication of the user.
+     * @return The access token and the refresh token.
+     */
+    public AuthResponseDto issueTokens(Authentication authentication) {
+        RefreshTokenService.Session session = refreshTokenService.issue(authentication.getName());
+        String accessToken = jwtService.generateToken(authentication, session.sessionId());
         logger.info("Auth token has generated");
-        return jwtService.generateToken(username);
+        return new AuthResponseDto(accessToken, session.refreshToken(), JwtService.TOKEN_VALIDITY.toSeconds());
+    }
+
+    /**
+     * Renews the tokens of a session without checking the password again. The roles are read from the
+     * user details cache, so role changes and deleted users take effect at the next refresh.
+     *
+     * @param refreshToken The refresh token sent by the client.
+     * @return A new access token and the next refresh token.
+     * @throws InvalidRefreshTokenException If the token is not valid or the user no longer exists.
+     */
+    public AuthResponseDto refreshTokens(String refreshToken) {
+        RefreshTokenService.Session session = refreshTokenService.rotate(refreshToken);
+        UserDetails user;
+        try {
+            user = userDetailsService.loadUserByUsername(session.username());
+        }
+        catch (UsernameNotFoundException e){
+            refreshTokenService.revoke(session.refreshToken());
+            logger.warn("Refresh token of deleted user " + session.username());
+            throw new InvalidRefreshTokenException("Invalid refresh token");
+        }
+        String accessToken = jwtService.createToken(user.getUsername(), user.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toList()), session.sessionId());
+        logger.info("Auth token has refreshed");
+        return new AuthResponseDto(accessToken, session.refreshToken(), JwtService.TOKEN_VALIDITY.toSeconds());
+    }
+
+    /**
+     * Ends the session the refresh token belongs to. Its access tokens are rejected by the gateway
+     * once it has synced the revocation.
+     *
+     * @param refreshToken The refresh token sent by the client.
+     */
+    public void logout(String refreshToken) {
+        refreshTokenService.revoke(refreshToken);
     }
 
     public void validateToken(String token) {
@@ -3,9 +3,13 @@ package com.toyota.token.service;
 import com.toyota.token.entity.Role;
 import com.toyota.token.entity.User;
 import com.toyota.token.repository.UserRepository;
+import com.toyota.token.service.UserDetailsCache.CachedUser;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
@@ -15,15 +19,19 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 @Component
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+    private static Logger logger = LogManager.getLogger(CustomUserDetailsService.class);
     private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository, UserDetailsCache userDetailsCache) {
         this.userRepository = userRepository;
+        this.userDetailsCache = userDetailsCache;
     }
 
     /**
-     * Loads a user's details by their username.
+     * Loads a user's details by their username. Recently loaded users are served from the cache, so
+     * a burst of logins does not load the same user and its roles again and again.
      *
      * @param username The username of the user whose details are to be loaded.
      * @return UserDetails containing the user's information.
@@ -31,20 +39,61 @@ public class CustomUserDetailsService implements UserDetailsService {
      */
     @Override
     public UserDetails loadUserByUsername(final String username) throws UsernameNotFoundException {
-        User user = userRepository
-                .findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("username not found"));
+        CachedUser cached = userDetailsCache.get(username);
+        if(cached == null){
+            long generation = userDetailsCache.generation();
+            User user = userRepository
+                    .findByUsername(username)
+                    .orElseThrow(() -> new UsernameNotFoundException("username not found"));
+            cached = new CachedUser(user.getUsername(), user.getPassword(), mapRoleToNames(user.getRoles()));
+            userDetailsCache.put(cached, generation);
+        }
         return new org.springframework.security.core.userdetails
-                .User(user.getUsername(),user.getPassword(), mapRoleToAuthorities(user.getRoles()));
+                .User(cached.username(), cached.password(), mapNamesToAuthorities(cached.authorities()));
     }
 
     /**
-     * Maps a list of Role objects to a collection of GrantedAuthority.
+     * Stores a password hash made with the current cost after a successful login with an older, cheaper hash.
+     * The cached user is replaced as well, so the next login is not upgraded again. Nothing is stored if the
+     * password was changed since it was loaded; the new password stays and the cache learns of it by polling.
+     *
+     * @param user The authenticated user, still holding the hash the password was checked against.
+     * @param newPassword The new password hash.
+     * @return The user with the new password hash, or the given user if the password was changed meanwhile.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        long generation = userDetailsCache.generation();
+        if(userRepository.updatePassword(user.getUsername(), user.getPassword(), newPassword) == 0){
+            logger.info("Password of " + user.getUsername() + " changed during login, hash not upgraded");
+            return user;
+        }
+        List<String> roleNames = user.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toUnmodifiableList());
+        userDetailsCache.put(new CachedUser(user.getUsername(), newPassword, roleNames), generation);
+        logger.info("Password hash of " + user.getUsername() + " upgraded");
+        return new org.springframework.security.core.userdetails
+                .User(user.getUsername(), newPassword, user.getAuthorities());
+    }
+
+    /**
+     * Maps a list of Role objects to their names.
      *
      * @param roleList The list of roles to be mapped.
-     * @return A collection of GrantedAuthority based on the provided roles.
+     * @return The role names.
+     */
+    private List<String> mapRoleToNames(List<Role> roleList){
+        return roleList.stream().map(Role::getRolename).collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     * Maps role names to a collection of GrantedAuthority.
+     *
+     * @param roleNames The role names to be mapped.
+     * @return A collection of GrantedAuthority based on the provided role names.
      */
-    private Collection<GrantedAuthority> mapRoleToAuthorities(List<Role> roleList){
-        return roleList.stream().map(role -> new SimpleGrantedAuthority(role.getRolename())).collect(Collectors.toList());
+    private Collection<GrantedAuthority> mapNamesToAuthorities(List<String> roleNames){
+        return roleNames.stream().map(SimpleGrantedAuthority::new).collect(Collectors.toList());
     }
 }
@@ -1,26 +1,48 @@
 package com.toyota.token.service;
 
-import com.toyota.token.entity.Role;
-import com.toyota.token.entity.User;
-import com.toyota.token.repository.UserRepository;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
+import java.security.Key;
+import java.security.PublicKey;
+import java.time.Duration;
 import java.util.Date;
 import java.util.List;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
-import static com.toyota.token.constant.Constant.SECRET;
-
 @Component
 public class JwtService {
-    private final UserRepository userRepository;
+    public static final Duration TOKEN_VALIDITY = Duration.ofHours(1);
+    public static final String SESSION_ID_CLAIM = "sid";
+    private final SigningKeyService signingKeyService;
+    private final JwtParser parser;
 
-    public JwtService(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    public JwtService(SigningKeyService signingKeyService) {
+        this.signingKeyService = signingKeyService;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        if(!SignatureAlgorithm.ES256.getValue().equals(header.getAlgorithm())){
+                            throw new UnsupportedJwtException("Only ES256 tokens are accepted");
+                        }
+                        PublicKey key = signingKeyService.verificationKey(header.getKeyId());
+                        if(key == null){
+                            throw new UnsupportedJwtException("Unknown signing key " + header.getKeyId());
+                        }
+                        return key;
+                    }
+                })
+                .build();
     }
 
     /**
@@ -29,43 +51,51 @@ public class JwtService {
      * @param token The JWT token to be validated.
      */
     public void validateToken(final String token){
-        Jwts.parserBuilder().setSigningKey(SECRET).build().parseClaimsJws(token);
+        parser.parseClaimsJws(token);
     }
     /**
-     * Generates a JWT token for a user with the given username.
+     * Generates a JWT token for an authenticated user. The roles are taken from the authorities loaded
+     * during the authentication, so issuing the token does not read the user again.
      *
-     * @param userName The username for which the token will be generated.
+     * @param authentication The successful authentication of the user.
+     * @param sessionId The login session the token belongs to.
      * @return A JWT token string for the user.
      */
-    public String generateToken(String userName) {
-        Optional<User> user = userRepository.findByUsername(userName);
-        Optional<List<Role>> roles = Optional.ofNullable(user.get().getRoles());
-        return createToken(userName, roles.get());
+    public String generateToken(Authentication authentication, String sessionId) {
+        return createToken(authentication.getName(), authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toList()), sessionId);
     }
     /**
-     * Creates a JWT token with the specified username and roles.
+     * Creates a JWT token with the specified username and roles, signed with the current EC key.
+     * The ID of the key is put in the header so verifiers can pick the public key from the key set.
+     * The session ID is put in the sid claim, so ending the session revokes the token at the gateway.
+     * The iat claim is written with milliseconds, so the gateway can tell a token issued just after a
+     * revocation from one issued just before it in the same second.
      *
      * @param username The subject for whom the token is being created.
-     * @param roles The roles that will be included in the token's claims.
+     * @param roles The names of the roles that will be included in the token's claims.
+     * @param sessionId The login session the token belongs to.
      * @return A JWT token string that includes the user's roles.
      */
-    public String createToken(String username, List<Role> roles) {
+    public String createToken(String username, List<String> roles, String sessionId) {
 
         Claims claims = Jwts.claims().setSubject(username);
-        claims.put("authorities", roles.stream().map(role -> {
-            return role.getRolename();
-        }).collect(Collectors.toList()));
+        claims.put("authorities", roles);
+        claims.put(SESSION_ID_CLAIM, sessionId);
 
 
         Date issuedAt = new Date();
-        Date validUntil = new Date(issuedAt.getTime() + 3600000);
+        claims.put(Claims.ISSUED_AT, BigDecimal.valueOf(issuedAt.getTime(), 3));
+        Date validUntil = new Date(issuedAt.getTime() + TOKEN_VALIDITY.toMillis());
 
+        SigningKeyService.ActiveKey signingKey = signingKeyService.signingKey();
         return Jwts
                 .builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKey.kid())
                 .setClaims(claims)
-                .setIssuedAt(issuedAt)
                 .setExpiration(validUntil)
-                .signWith(SignatureAlgorithm.HS256, SECRET)
+                .signWith(signingKey.key(), SignatureAlgorithm.ES256)
                 .compact();
 
     }
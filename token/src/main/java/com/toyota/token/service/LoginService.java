@@ -0,0 +1,76 @@
+package com.toyota.token.service;
+
+import com.toyota.token.dto.AuthResponseDto;
+import com.toyota.token.exception.TooManyLoginsException;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class LoginService {
+    private static Logger logger = LogManager.getLogger(LoginService.class);
+    private final AuthenticationManager authenticationManager;
+    private final AuthService authService;
+    private final ThreadPoolExecutor workers;
+
+    public LoginService(AuthenticationManager authenticationManager,
+                        AuthService authService,
+                        @Value("${token.login.threads:0}") int threads,
+                        @Value("${token.login.queue-capacity:64}") int queueCapacity) {
+        this.authenticationManager = authenticationManager;
+        this.authService = authService;
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger workerCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), task -> {
+                    Thread thread = new Thread(task, "login-" + workerCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown(){
+        workers.shutdownNow();
+    }
+
+    /**
+     * Checks the credentials and issues the tokens on the login pool instead of the request thread.
+     * Password checks are CPU bound, so the pool is sized to the cores and only a bounded number of
+     * logins may wait for it; a burst of logins beyond that is turned away at once instead of tying up
+     * request threads that token validations need.
+     *
+     * @param username The username of the user.
+     * @param password The password of the user.
+     * @return The access and refresh tokens, once the credentials have been checked.
+     * @throws TooManyLoginsException If the login pool and its queue are full.
+     */
+    public CompletableFuture<AuthResponseDto> login(String username, String password){
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                Authentication authenticate = authenticationManager
+                        .authenticate(new UsernamePasswordAuthenticationToken(username, password));
+                if (!authenticate.isAuthenticated()) {
+                    throw new RuntimeException("invalid access");
+                }
+                return authService.issueTokens(authenticate);
+            }, workers);
+        }
+        catch (RejectedExecutionException e){
+            logger.warn("Login queue is full, rejecting login");
+            throw new TooManyLoginsException("Too many logins at the moment, please try again.");
+        }
+    }
+}
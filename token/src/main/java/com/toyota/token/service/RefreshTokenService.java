@@ -0,0 +1,151 @@
+package com.toyota.token.service;
+
+import com.toyota.token.entity.RefreshToken;
+import com.toyota.token.exception.InvalidRefreshTokenException;
+import com.toyota.token.repository.RefreshTokenRepository;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+@Service
+public class RefreshTokenService {
+    private static Logger logger = LogManager.getLogger(RefreshTokenService.class);
+    private static final int TOKEN_BYTES = 32;
+    private final SecureRandom random = new SecureRandom();
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TokenRevocationService tokenRevocationService;
+    private final Duration validity;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               TokenRevocationService tokenRevocationService,
+                               @Value("${token.refresh.validity:P1D}") Duration validity) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.tokenRevocationService = tokenRevocationService;
+        this.validity = validity;
+    }
+
+    /**
+     * Issues the first refresh token of a new login.
+     *
+     * @param username The user who logged in.
+     * @return The session with its refresh token. Only the hash of the token is stored, so it can not be read back later.
+     */
+    public Session issue(String username){
+        return save(username, random.nextLong());
+    }
+
+    /**
+     * Exchanges a refresh token for the next one of its family. The presented token is revoked in the same
+     * transaction, so a token works once even when it is sent twice at the same time. Presenting a revoked
+     * token revokes its whole family, which ends the session of whoever holds the newest token as well.
+     * A token issued before its user was revoked by the user-management service is rejected the same way.
+     *
+     * @param refreshToken The refresh token sent by the client.
+     * @return The session with the next refresh token.
+     * @throws InvalidRefreshTokenException If the token is unknown, expired, was already used or its user was revoked.
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public Session rotate(String refreshToken){
+        RefreshToken stored = find(refreshToken);
+        if(stored.getExpiresAt().isBefore(LocalDateTime.now())){
+            logger.warn("Expired refresh token of " + stored.getUsername());
+            throw new InvalidRefreshTokenException("Refresh token has expired");
+        }
+        if(tokenRevocationService.isUserRevoked(stored.getUsername(), stored.getCreatedDate())){
+            revokeSession(stored);
+            logger.warn("Refresh token of revoked user " + stored.getUsername());
+            throw new InvalidRefreshTokenException("Invalid refresh token");
+        }
+        if(stored.isRevoked() || refreshTokenRepository.revoke(stored.getId()) == 0){
+            revokeSession(stored);
+            logger.warn("Refresh token of " + stored.getUsername() + " was used again, session revoked");
+            throw new InvalidRefreshTokenException("Refresh token has already been used");
+        }
+        return save(stored.getUsername(), stored.getFamilyId());
+    }
+
+    /**
+     * Revokes every token of the login the given refresh token belongs to, the access tokens included.
+     *
+     * @param refreshToken The refresh token sent by the client.
+     * @throws InvalidRefreshTokenException If the token is unknown.
+     */
+    @Transactional
+    public void revoke(String refreshToken){
+        RefreshToken stored = find(refreshToken);
+        revokeSession(stored);
+        logger.info("Session of " + stored.getUsername() + " revoked");
+    }
+
+    /**
+     * Deletes expired tokens. Revoked tokens are kept until they expire so reuse is still detected.
+     */
+    @Scheduled(cron = "${token.refresh.purge-cron:0 0 4 * * *}")
+    public void purge(){
+        int deleted = refreshTokenRepository.deleteByExpiresAtBefore(LocalDateTime.now());
+        logger.info("Purged " + deleted + " refresh tokens");
+    }
+
+    private RefreshToken find(String refreshToken){
+        if(refreshToken == null || refreshToken.isBlank()){
+            throw new InvalidRefreshTokenException("Invalid refresh token");
+        }
+        return refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .orElseThrow(() -> {
+                    logger.warn("Unknown refresh token");
+                    return new InvalidRefreshTokenException("Invalid refresh token");
+                });
+    }
+
+    /**
+     * Revokes the refresh tokens of the session and, the first time, its access tokens.
+     */
+    private void revokeSession(RefreshToken stored){
+        if(refreshTokenRepository.revokeFamily(stored.getFamilyId()) > 0){
+            tokenRevocationService.revokeSession(sessionId(stored.getFamilyId()));
+        }
+    }
+
+    private Session save(String username, long familyId){
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        LocalDateTime now = LocalDateTime.now();
+        refreshTokenRepository.save(new RefreshToken(hash(token), username, familyId, now, now.plus(validity)));
+        return new Session(username, sessionId(familyId), token);
+    }
+
+    private static String sessionId(long familyId){
+        return Long.toUnsignedString(familyId, 36);
+    }
+
+    static String hash(String token){
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A login session with its newest refresh token.
+     *
+     * @param username The user the session belongs to.
+     * @param sessionId The ID put in the sid claim of the session's access tokens.
+     * @param refreshToken The refresh token.
+     */
+    public record Session(String username, String sessionId, String refreshToken) {
+    }
+}
@@ -0,0 +1,92 @@
+package com.toyota.token.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Encrypts the private signing keys before they are stored, with AES-GCM under a key encryption key only the
+ * token service is configured with. The database is shared by every service, so a stored key is useless to
+ * anyone reading the table or a dump of it without that key. The key ID is bound to the ciphertext, so an
+ * encrypted key can not be moved to another row.
+ */
+@Component
+public class SigningKeyCipher {
+    private static final String PREFIX = "v1:";
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+    private final SecretKeySpec key;
+    private final SecureRandom random = new SecureRandom();
+
+    public SigningKeyCipher(@Value("${security.signing.kek}") String kek) {
+        if (kek == null || kek.length() < 32) {
+            throw new IllegalArgumentException("security.signing.kek must be at least 32 characters");
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(kek.getBytes(StandardCharsets.UTF_8));
+            this.key = new SecretKeySpec(digest, "AES");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Encrypts an encoded private key for storage.
+     *
+     * @param kid The ID of the key, bound to the ciphertext.
+     * @param privateKey The PKCS#8 encoded private key.
+     * @return The versioned, Base64 encoded IV and ciphertext.
+     */
+    public String encrypt(String kid, byte[] privateKey) {
+        byte[] iv = new byte[IV_BYTES];
+        random.nextBytes(iv);
+        try {
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+            cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+            byte[] ciphertext = cipher.doFinal(privateKey);
+            byte[] stored = ByteBuffer.allocate(iv.length + ciphertext.length).put(iv).put(ciphertext).array();
+            return PREFIX + Base64.getEncoder().encodeToString(stored);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Signing key can not be encrypted", e);
+        }
+    }
+
+    /**
+     * Decrypts a stored private key. Keys stored before encryption was added are plain Base64 and are
+     * returned as they are.
+     *
+     * @param kid The ID of the key.
+     * @param stored The stored value.
+     * @return The PKCS#8 encoded private key.
+     * @throws IllegalStateException if the value was encrypted under another key or changed.
+     */
+    public byte[] decrypt(String kid, String stored) {
+        if (!isEncrypted(stored)) {
+            return Base64.getDecoder().decode(stored);
+        }
+        byte[] decoded = Base64.getDecoder().decode(stored.substring(PREFIX.length()));
+        try {
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, decoded, 0, IV_BYTES));
+            cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+            return cipher.doFinal(decoded, IV_BYTES, decoded.length - IV_BYTES);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Signing key " + kid + " can not be decrypted, check security.signing.kek", e);
+        }
+    }
+
+    public boolean isEncrypted(String stored) {
+        return stored.startsWith(PREFIX);
+    }
+}
@@ -0,0 +1,220 @@
+package com.toyota.token.service;
+
+import com.toyota.token.dto.JsonWebKey;
+import com.toyota.token.dto.JsonWebKeySet;
+import com.toyota.token.entity.SigningKey;
+import com.toyota.token.repository.SigningKeyRepository;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Service
+public class SigningKeyService {
+    private static Logger logger = LogManager.getLogger(SigningKeyService.class);
+    private static final int COORDINATE_BYTES = 32;
+    private final SigningKeyRepository signingKeyRepository;
+    private final SigningKeyCipher signingKeyCipher;
+    private final Duration rotation;
+    private final Duration publishAhead;
+    private volatile Keys keys;
+
+    public SigningKeyService(SigningKeyRepository signingKeyRepository,
+                             SigningKeyCipher signingKeyCipher,
+                             @Value("${token.signing.rotation:P1D}") Duration rotation,
+                             @Value("${token.signing.publish-ahead:PT10M}") Duration publishAhead) {
+        this.signingKeyRepository = signingKeyRepository;
+        this.signingKeyCipher = signingKeyCipher;
+        this.rotation = rotation;
+        this.publishAhead = publishAhead;
+    }
+
+    /**
+     * Returns the key new tokens are signed with.
+     *
+     * @return The ID and private key of the newest active key.
+     */
+    public ActiveKey signingKey(){
+        return current().signing();
+    }
+
+    /**
+     * Returns the public key with the given ID if tokens signed with it may still be valid.
+     *
+     * @param kid The key ID from the token header.
+     * @return The public key, or null if the key is unknown or retired.
+     */
+    public PublicKey verificationKey(String kid){
+        return kid == null ? null : current().verification().get(kid);
+    }
+
+    /**
+     * Returns the published public keys, for verifiers to check tokens without any shared secret.
+     *
+     * @return The JSON Web Key Set.
+     */
+    public JsonWebKeySet jwks(){
+        return current().jwks();
+    }
+
+    /**
+     * Loads the keys from the database and rotates them. A new key is created once the newest one is older
+     * than the rotation period. It is published at once but only used for signing after the publish-ahead
+     * delay, which must be longer than the interval verifiers refresh the key set with, so no verifier sees
+     * a token signed with a key it does not know yet. A key is published until every token signed with it has
+     * expired, then deleted. Every instance runs this, so a rotation may create a key on more than one
+     * instance at the same time; all of them are published and the newest one signs. Private keys stored
+     * before they were encrypted are encrypted in place.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${token.signing.check-interval:PT1M}",
+            initialDelayString = "${token.signing.check-interval:PT1M}")
+    public synchronized void refresh(){
+        LocalDateTime now = LocalDateTime.now();
+        List<SigningKey> stored = new ArrayList<>(signingKeyRepository.findAllByOrderByActivatesAtAsc());
+        encryptPlainKeys(stored);
+
+        SigningKey newest = stored.stream().max((a, b) -> a.getCreatedDate().compareTo(b.getCreatedDate())).orElse(null);
+        if(newest == null || newest.getCreatedDate().isBefore(now.minus(rotation))){
+            boolean anyActive = stored.stream().anyMatch(key -> !key.getActivatesAt().isAfter(now));
+            SigningKey created = generate(now, anyActive ? now.plus(publishAhead) : now);
+            stored.add(signingKeyRepository.save(created));
+            logger.info("Created signing key " + created.getKid() + " active from " + created.getActivatesAt());
+        }
+
+        List<SigningKey> retired = new ArrayList<>();
+        for(int i = 0; i + 1 < stored.size(); i++){
+            if(stored.get(i + 1).getActivatesAt().isBefore(now.minus(JwtService.TOKEN_VALIDITY))){
+                retired.add(stored.get(i));
+            }
+        }
+        if(!retired.isEmpty()){
+            signingKeyRepository.deleteAllInBatch(retired);
+            stored.removeAll(retired);
+            logger.info("Retired " + retired.size() + " signing keys");
+        }
+
+        keys = build(stored, now);
+    }
+
+    private void encryptPlainKeys(List<SigningKey> stored){
+        List<SigningKey> plain = stored.stream()
+                .filter(key -> !signingKeyCipher.isEncrypted(key.getPrivateKey()))
+                .toList();
+        for(SigningKey key : plain){
+            key.setPrivateKey(signingKeyCipher.encrypt(key.getKid(),
+                    signingKeyCipher.decrypt(key.getKid(), key.getPrivateKey())));
+        }
+        if(!plain.isEmpty()){
+            signingKeyRepository.saveAll(plain);
+            logger.info("Encrypted " + plain.size() + " stored signing keys");
+        }
+    }
+
+    private Keys current(){
+        Keys current = keys;
+        if(current == null){
+            refresh();
+            current = keys;
+        }
+        return current;
+    }
+
+    private Keys build(List<SigningKey> stored, LocalDateTime now){
+        SigningKey signing = null;
+        Map<String, PublicKey> verification = new HashMap<>();
+        List<JsonWebKey> published = new ArrayList<>();
+        for(SigningKey key : stored){
+            if(!key.getActivatesAt().isAfter(now)){
+                signing = key;
+            }
+            ECPublicKey publicKey = (ECPublicKey) decodePublic(key.getPublicKey());
+            verification.put(key.getKid(), publicKey);
+            published.add(new JsonWebKey("EC", "P-256", key.getKid(), "sig", "ES256",
+                    coordinate(publicKey.getW().getAffineX()), coordinate(publicKey.getW().getAffineY())));
+        }
+        if(signing == null){
+            throw new IllegalStateException("No active signing key");
+        }
+        return new Keys(new ActiveKey(signing.getKid(),
+                decodePrivate(signingKeyCipher.decrypt(signing.getKid(), signing.getPrivateKey()))),
+                Map.copyOf(verification), new JsonWebKeySet(List.copyOf(published)));
+    }
+
+    private SigningKey generate(LocalDateTime now, LocalDateTime activatesAt){
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            KeyPair keyPair = generator.generateKeyPair();
+            String kid = UUID.randomUUID().toString();
+            return new SigningKey(kid,
+                    signingKeyCipher.encrypt(kid, keyPair.getPrivate().getEncoded()),
+                    Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()),
+                    now, activatesAt);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("EC P-256 keys are not available", e);
+        }
+    }
+
+    private static PrivateKey decodePrivate(byte[] encoded){
+        try {
+            return KeyFactory.getInstance("EC").generatePrivate(new PKCS8EncodedKeySpec(encoded));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Stored signing key can not be read", e);
+        }
+    }
+
+    private static PublicKey decodePublic(String encoded){
+        try {
+            return KeyFactory.getInstance("EC").generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(encoded)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Stored signing key can not be read", e);
+        }
+    }
+
+    /**
+     * Encodes a curve coordinate as the fixed length, unsigned big-endian Base64url value JWK expects.
+     */
+    private static String coordinate(BigInteger value){
+        byte[] bytes = value.toByteArray();
+        byte[] fixed = new byte[COORDINATE_BYTES];
+        int length = Math.min(bytes.length, COORDINATE_BYTES);
+        System.arraycopy(bytes, bytes.length - length, fixed, COORDINATE_BYTES - length, length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(fixed);
+    }
+
+    /**
+     * The ID and private key of the key new tokens are signed with.
+     *
+     * @param kid The key ID, sent in the token header.
+     * @param key The private key.
+     */
+    public record ActiveKey(String kid, PrivateKey key) {
+    }
+
+    private record Keys(ActiveKey signing, Map<String, PublicKey> verification, JsonWebKeySet jwks) {
+    }
+}
@@ -0,0 +1,75 @@
+package com.toyota.token.service;
+
+import com.toyota.token.dto.TokenRevocationDto;
+import com.toyota.token.entity.TokenRevocation;
+import com.toyota.token.repository.TokenRevocationRepository;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+public class TokenRevocationService {
+    private static Logger logger = LogManager.getLogger(TokenRevocationService.class);
+    private final TokenRevocationRepository tokenRevocationRepository;
+
+    public TokenRevocationService(TokenRevocationRepository tokenRevocationRepository) {
+        this.tokenRevocationRepository = tokenRevocationRepository;
+    }
+
+    /**
+     * Revokes the access tokens issued for a login session. The revocation is kept until the last of them expires.
+     * Like the revocations written by user-management, it is stamped with the database clock, so the gateway
+     * syncs every revocation by the same clock.
+     *
+     * @param sessionId The sid claim of the session's access tokens.
+     */
+    public void revokeSession(String sessionId){
+        LocalDateTime now = tokenRevocationRepository.currentTimestamp();
+        tokenRevocationRepository.save(new TokenRevocation(TokenRevocation.Kind.SESSION, sessionId,
+                now, now.plus(JwtService.TOKEN_VALIDITY)));
+    }
+
+    /**
+     * Checks whether the tokens of a user have been revoked after the given time.
+     *
+     * @param username The user.
+     * @param issuedAt When the token to check was issued.
+     * @return true if the user was revoked after the token was issued.
+     */
+    public boolean isUserRevoked(String username, LocalDateTime issuedAt){
+        return tokenRevocationRepository.existsByKindAndTargetAndRevokedAtAfter(TokenRevocation.Kind.USER, username, issuedAt);
+    }
+
+    /**
+     * Returns the revocations still in effect for the gateway to sync its revocation list with.
+     *
+     * @param since Only return revocations made at or after this time, or null for all of them.
+     * @return The revocations that have not expired.
+     */
+    public List<TokenRevocationDto> getRevocations(Instant since){
+        LocalDateTime now = LocalDateTime.now();
+        List<TokenRevocation> revocations = since == null
+                ? tokenRevocationRepository.findByExpiresAtAfter(now)
+                : tokenRevocationRepository.findByRevokedAtGreaterThanEqualAndExpiresAtAfter(
+                        LocalDateTime.ofInstant(since, ZoneId.systemDefault()), now);
+        return revocations.stream()
+                .map(TokenRevocationDto::convert)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Deletes revocations no token they apply to can outlive.
+     */
+    @Scheduled(cron = "${token.revocation.purge-cron:0 15 4 * * *}")
+    public void purge(){
+        int deleted = tokenRevocationRepository.deleteByExpiresAtBefore(LocalDateTime.now());
+        logger.info("Purged " + deleted + " token revocations");
+    }
+}
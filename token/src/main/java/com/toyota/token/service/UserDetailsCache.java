@@ -0,0 +1,122 @@
+package com.toyota.token.service;
+
+import com.toyota.token.repository.UserRepository;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+@Component
+public class UserDetailsCache {
+    private static Logger logger = LogManager.getLogger(UserDetailsCache.class);
+    private final UserRepository userRepository;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<String, Entry> users;
+    private long generation;
+    private Long lastChangeCount;
+
+    public UserDetailsCache(UserRepository userRepository,
+                            @Value("${token.user-cache.max-size:10000}") int maxSize,
+                            @Value("${token.user-cache.ttl:PT5M}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.users = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > UserDetailsCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached user with the given username if it was loaded less than the time to live ago.
+     *
+     * @param username The username of the user.
+     * @return The cached user, or null if it has to be loaded from the database.
+     */
+    public synchronized CachedUser get(String username){
+        Entry entry = users.get(username);
+        if(entry == null){
+            return null;
+        }
+        if(System.nanoTime() - entry.loadedAt > ttlNanos){
+            users.remove(username);
+            return null;
+        }
+        return entry.user;
+    }
+
+    /**
+     * Returns the current generation of the cache. Read it before loading a user from the database and
+     * pass it to {@link #put}, so a user loaded before an invalidation is not cached after it.
+     *
+     * @return The number of times the cache has been invalidated.
+     */
+    public synchronized long generation(){
+        return generation;
+    }
+
+    /**
+     * Caches a user loaded from the database, unless the cache was invalidated while it was being loaded.
+     *
+     * @param user The loaded user.
+     * @param loadedInGeneration The generation read before the user was loaded.
+     */
+    public synchronized void put(CachedUser user, long loadedInGeneration){
+        if(loadedInGeneration == generation){
+            users.put(user.username(), new Entry(user, System.nanoTime()));
+        }
+    }
+
+    /**
+     * Drops every cached user.
+     */
+    public synchronized void invalidateAll(){
+        generation++;
+        users.clear();
+    }
+
+    /**
+     * Users are changed by the user-management service, which increments the version of every user it saves
+     * or deletes. The number of users plus the sum of their versions only grows, so a change is seen once it
+     * has committed, even when it commits after a change made later. The latest update time would miss it,
+     * since it is taken when the transaction starts. Checking is one small query, and any change drops the
+     * whole cache because users change rarely and are cheap to load again.
+     */
+    @Scheduled(fixedDelayString = "${token.user-cache.check-interval:PT5S}")
+    public void checkForUserChanges(){
+        Long changeCount = userRepository.findChangeCount();
+        synchronized (this){
+            if(Objects.equals(changeCount, lastChangeCount)){
+                return;
+            }
+            lastChangeCount = changeCount;
+        }
+        invalidateAll();
+        logger.info("Users have changed, user details cache cleared");
+    }
+
+    /**
+     * The parts of a user needed to authenticate it and issue its token. Cached instead of the
+     * {@link org.springframework.security.core.userdetails.UserDetails} itself, whose password is erased
+     * after every successful authentication.
+     *
+     * @param username The username.
+     * @param password The encoded password.
+     * @param authorities The names of the roles of the user.
+     */
+    public record CachedUser(String username, String password, List<String> authorities) {
+    }
+
+    private record Entry(CachedUser user, long loadedAt) {
+    }
+}
@@ -0,0 +1,88 @@
+package com.toyota.token.benchmark;
+
+import com.toyota.token.entity.SigningKey;
+import com.toyota.token.repository.SigningKeyRepository;
+import com.toyota.token.service.JwtService;
+import com.toyota.token.service.SigningKeyCipher;
+import com.toyota.token.service.SigningKeyService;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how many logins one core can handle at each BCrypt cost: the password check and token
+ * creation done for every /auth/token request, and the hashing done when a user is saved or a login
+ * is upgraded to a higher cost. Each benchmark runs on a single thread, so the scores are per core.
+ * The forked benchmark JVM needs the full test class path, so run it with plain java:
+ * {@code mvn test-compile dependency:build-classpath -Dmdep.includeScope=test -Dmdep.outputFile=cp.txt}
+ * and then {@code java -cp target/test-classes:target/classes:$(cat cp.txt)
+ * com.toyota.token.benchmark.PasswordHashingBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Threads(1)
+@Fork(1)
+public class PasswordHashingBenchmark {
+    private static final String PASSWORD = "cashier-password";
+
+    @Param({"8", "10", "12"})
+    private int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private DaoAuthenticationProvider authenticationProvider;
+    private JwtService jwtService;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+        hash = encoder.encode(PASSWORD);
+
+        authenticationProvider = new DaoAuthenticationProvider();
+        authenticationProvider.setPasswordEncoder(encoder);
+        authenticationProvider.setUserDetailsService(username ->
+                new User(username, hash, List.of(new SimpleGrantedAuthority("CASHIER"))));
+        SigningKeyRepository signingKeyRepository = Mockito.mock(SigningKeyRepository.class);
+        Mockito.when(signingKeyRepository.save(Mockito.any(SigningKey.class))).thenAnswer(i -> i.getArgument(0));
+        jwtService = new JwtService(new SigningKeyService(signingKeyRepository,
+                new SigningKeyCipher("benchmark-signing-key-encryption-key-0123456789"), Duration.ofDays(1), Duration.ofMinutes(10)));
+    }
+
+    @Benchmark
+    public String login() {
+        Authentication authentication = authenticationProvider
+                .authenticate(new UsernamePasswordAuthenticationToken("cashier", PASSWORD));
+        return jwtService.generateToken(authentication, "session");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches(PASSWORD, hash);
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode(PASSWORD);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PasswordHashingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
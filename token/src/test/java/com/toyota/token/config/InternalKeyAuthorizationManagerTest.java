@@ -0,0 +1,35 @@
+package com.toyota.token.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InternalKeyAuthorizationManagerTest {
+    private static final String KEY = "test-internal-key-of-at-least-32-chars";
+    private final InternalKeyAuthorizationManager manager = new InternalKeyAuthorizationManager(KEY);
+
+    @Test
+    void testCheck_whenRequestHasInternalKey_shouldGrantAccess() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/auth/revocations");
+        request.addHeader(InternalKeyAuthorizationManager.INTERNAL_KEY_HEADER, KEY);
+
+        assertTrue(manager.check(() -> null, new RequestAuthorizationContext(request)).isGranted());
+    }
+
+    @Test
+    void testCheck_whenKeyIsMissingOrWrong_shouldDenyAccess() {
+        MockHttpServletRequest missing = new MockHttpServletRequest("GET", "/auth/revocations");
+        MockHttpServletRequest wrong = new MockHttpServletRequest("GET", "/auth/revocations");
+        wrong.addHeader(InternalKeyAuthorizationManager.INTERNAL_KEY_HEADER, "guessed");
+
+        assertFalse(manager.check(() -> null, new RequestAuthorizationContext(missing)).isGranted());
+        assertFalse(manager.check(() -> null, new RequestAuthorizationContext(wrong)).isGranted());
+    }
+
+    @Test
+    void testConstructor_whenKeyIsTooShort_shouldFailAtStartup() {
+        assertThrows(IllegalArgumentException.class, () -> new InternalKeyAuthorizationManager("short"));
+    }
+}
@@ -0,0 +1,107 @@
+package com.toyota.token.repository;
+
+import com.toyota.token.entity.RefreshToken;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the conditional updates against a real database, H2 in PostgreSQL mode, with each step committed
+ * in its own transaction as in the service.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:refresh-tokens;MODE=PostgreSQL;LOCK_TIMEOUT=10000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.database=h2"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RefreshTokenRepositoryTest {
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        refreshTokenRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testRevoke_whenAlreadyRevoked_shouldUpdateNothing() {
+        RefreshToken token = save("hash-1", 1L);
+
+        assertEquals(1, revoke(token.getId()));
+        assertEquals(0, revoke(token.getId()));
+        assertTrue(refreshTokenRepository.findByTokenHash("hash-1").orElseThrow().isRevoked());
+    }
+
+    @Test
+    void testRevoke_whenTwoTransactionsRevokeConcurrently_shouldLetOnlyOneSucceed() throws Exception {
+        RefreshToken token = save("hash-1", 1L);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch firstRevoked = new CountDownLatch(1);
+        CountDownLatch secondStarted = new CountDownLatch(1);
+
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() -> transaction.execute(status -> {
+            int updated = refreshTokenRepository.revoke(token.getId());
+            firstRevoked.countDown();
+            await(secondStarted);
+            return updated;
+        }));
+        await(firstRevoked);
+        CompletableFuture<Integer> second = CompletableFuture.supplyAsync(() -> transaction.execute(status -> {
+            secondStarted.countDown();
+            return refreshTokenRepository.revoke(token.getId());
+        }));
+
+        assertEquals(List.of(1, 0), List.of(first.get(15, TimeUnit.SECONDS), second.get(15, TimeUnit.SECONDS)));
+    }
+
+    @Test
+    void testRevokeFamily_shouldRevokeOnlyUnrevokedTokensOfThatFamily() {
+        RefreshToken used = save("hash-1", 1L);
+        save("hash-2", 1L);
+        save("hash-3", 2L);
+        revoke(used.getId());
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        assertEquals(Integer.valueOf(1), transaction.execute(status -> refreshTokenRepository.revokeFamily(1L)));
+        assertEquals(Integer.valueOf(0), transaction.execute(status -> refreshTokenRepository.revokeFamily(1L)));
+        assertFalse(refreshTokenRepository.findByTokenHash("hash-3").orElseThrow().isRevoked());
+    }
+
+    private int revoke(Long id) {
+        Integer updated = new TransactionTemplate(transactionManager).execute(status -> refreshTokenRepository.revoke(id));
+        return updated == null ? 0 : updated;
+    }
+
+    private RefreshToken save(String hash, long familyId) {
+        LocalDateTime now = LocalDateTime.now();
+        return refreshTokenRepository.save(new RefreshToken(hash, "cashier", familyId, now, now.plusDays(1)));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
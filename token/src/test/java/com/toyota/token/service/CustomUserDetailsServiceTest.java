@@ -6,13 +6,20 @@ import com.toyota.token.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.CredentialsContainer;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -20,6 +27,8 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,7 +40,8 @@ class CustomUserDetailsServiceTest {
     void setUp() {
         userRepository = Mockito.mock(UserRepository.class);
 
-        detailsService = new CustomUserDetailsService(userRepository);
+        detailsService = new CustomUserDetailsService(userRepository,
+                new UserDetailsCache(userRepository, 100, Duration.ofMinutes(5)));
     }
 
     /*@Test
@@ -49,6 +59,85 @@ class CustomUserDetailsServiceTest {
     }*/
 
     @Test
+    void testLoadUserByUsername_whenCalledTwice_shouldLoadUserOnceAndReturnFreshDetails() {
+        Role role = generateRole();
+        User user = generateUser(role);
+        user.setUsername("testUser");
+        user.setPassword("encoded");
+        when(userRepository.findByUsername("testUser")).thenReturn(Optional.of(user));
+
+        UserDetails first = detailsService.loadUserByUsername("testUser");
+        ((CredentialsContainer) first).eraseCredentials();
+        UserDetails second = detailsService.loadUserByUsername("testUser");
+
+        verify(userRepository, times(1)).findByUsername("testUser");
+        assertEquals("encoded", second.getPassword());
+        assertEquals(mapRoleToAuthorities(List.of(role)), List.copyOf(second.getAuthorities()));
+    }
+
+    @Test
+    void testLoadUserByUsername_whenUserIsMissing_shouldThrowAndNotCache() {
+        when(userRepository.findByUsername("missing")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> detailsService.loadUserByUsername("missing"));
+        assertThrows(UsernameNotFoundException.class, () -> detailsService.loadUserByUsername("missing"));
+
+        verify(userRepository, times(2)).findByUsername("missing");
+    }
+
+    @Test
+    void testUpdatePassword_shouldStoreNewHashAndServeItFromCache() {
+        UserDetails user = new org.springframework.security.core.userdetails.User("testUser", "old",
+                List.of(new SimpleGrantedAuthority("CASHIER")));
+
+        when(userRepository.updatePassword("testUser", "old", "new")).thenReturn(1);
+
+        UserDetails result = detailsService.updatePassword(user, "new");
+
+        assertEquals("new", result.getPassword());
+        verify(userRepository, times(1)).updatePassword("testUser", "old", "new");
+        assertEquals("new", detailsService.loadUserByUsername("testUser").getPassword());
+        verify(userRepository, never()).findByUsername(any());
+    }
+
+    @Test
+    void testUpdatePassword_whenPasswordChangedMeanwhile_shouldNotCacheRehash() {
+        UserDetails user = new org.springframework.security.core.userdetails.User("testUser", "old",
+                List.of(new SimpleGrantedAuthority("CASHIER")));
+        User changed = generateUser(generateRole());
+        changed.setUsername("testUser");
+        changed.setPassword("changed");
+        when(userRepository.updatePassword("testUser", "old", "new")).thenReturn(0);
+        when(userRepository.findByUsername("testUser")).thenReturn(Optional.of(changed));
+
+        UserDetails result = detailsService.updatePassword(user, "new");
+
+        assertEquals("old", result.getPassword());
+        assertEquals("changed", detailsService.loadUserByUsername("testUser").getPassword());
+    }
+
+    @Test
+    void testAuthenticate_whenStoredHashIsCheaperThanConfigured_shouldRehashOnce() {
+        Role role = generateRole();
+        User user = generateUser(role);
+        user.setUsername("testUser");
+        user.setPassword(new BCryptPasswordEncoder(4).encode("secret"));
+        when(userRepository.findByUsername("testUser")).thenReturn(Optional.of(user));
+        when(userRepository.updatePassword(eq("testUser"), eq(user.getPassword()), any())).thenReturn(1);
+
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setPasswordEncoder(new BCryptPasswordEncoder(5));
+        provider.setUserDetailsService(detailsService);
+        provider.setUserDetailsPasswordService(detailsService);
+
+        provider.authenticate(new UsernamePasswordAuthenticationToken("testUser", "secret"));
+        provider.authenticate(new UsernamePasswordAuthenticationToken("testUser", "secret"));
+
+        ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+        verify(userRepository, times(1)).updatePassword(eq("testUser"), eq(user.getPassword()), hash.capture());
+        assertTrue(hash.getValue().startsWith("$2a$05$"));
+    }
+
     private User generateUser(Role role){
         String username = "testUser";
         User user = new User();
@@ -1,33 +1,40 @@
 package com.toyota.token.service;
 
 import com.toyota.token.entity.Role;
+import com.toyota.token.entity.SigningKey;
 import com.toyota.token.entity.User;
-import com.toyota.token.repository.UserRepository;
+import com.toyota.token.repository.SigningKeyRepository;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jws;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.Mockito;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
+import java.math.BigDecimal;
+import java.security.KeyPair;
+import java.time.Duration;
 import java.util.*;
 import java.util.stream.Collectors;
 
-import static com.toyota.token.constant.Constant.SECRET;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class JwtServiceTest {
-    private UserRepository userRepository;
     private JwtService jwtService;
-    private Jws<Claims> jws;
+    private SigningKeyService signingKeyService;
 
     @BeforeEach
     void setUp() {
-        userRepository = Mockito.mock(UserRepository.class);
-        jws = Mockito.mock(Jws.class);
-        jwtService = new JwtService(userRepository);
+        SigningKeyRepository signingKeyRepository = mock(SigningKeyRepository.class);
+        when(signingKeyRepository.save(any(SigningKey.class))).thenAnswer(i -> i.getArgument(0));
+        signingKeyService = new SigningKeyService(signingKeyRepository,
+                new SigningKeyCipher("test-signing-key-encryption-key-0123456789"), Duration.ofDays(1), Duration.ofMinutes(10));
+        jwtService = new JwtService(signingKeyService);
     }
 
     @Test
@@ -45,12 +52,14 @@ class JwtServiceTest {
             return roletmp.getRolename();
         }).collect(Collectors.toList()));
 
+        SigningKeyService.ActiveKey signingKey = signingKeyService.signingKey();
         String FinalJws =  Jwts
                 .builder()
+                .setHeaderParam("kid", signingKey.kid())
                 .setClaims(claims)
                 .setIssuedAt(issuedAt)
                 .setExpiration(validUntil)
-                .signWith(SignatureAlgorithm.HS256, SECRET)
+                .signWith(signingKey.key(), SignatureAlgorithm.ES256)
                 .compact();
 
 
@@ -68,42 +77,66 @@ class JwtServiceTest {
         });
     }
 
-    @Test //IS IT POSSIBLE THAT TWO PARTS IN ONE TEST FUNCTION POSSIBLE GENERATE-CREATE ?
-    void testCreateToken_whenUserExists_shouldReturnToken() {
-        Role role = generateRole();
-        List<Role> roles = new ArrayList<>();
-        roles.add(role);
-        User user = generateUser(role);
-
-        Date issuedAt = new Date();
-        Date validUntil = new Date(issuedAt.getTime() + 3600000);
+    @Test
+    void testValidateToken_whenSignedWithUnknownKey_shouldThrowException() {
+        KeyPair otherKey = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        String token = Jwts.builder()
+                .setHeaderParam("kid", signingKeyService.signingKey().kid())
+                .setSubject("testUser")
+                .signWith(otherKey.getPrivate(), SignatureAlgorithm.ES256)
+                .compact();
 
-        Claims claims = Jwts.claims().setSubject(user.getUsername());
-        claims.put("authorities", roles.stream().map(roletmp -> {
-            return roletmp.getRolename();
-        }).collect(Collectors.toList()));
+        assertThrows(Exception.class, () -> jwtService.validateToken(token));
+    }
 
-        String expectedJws =  Jwts
-                .builder()
-                .setClaims(claims)
-                .setIssuedAt(issuedAt)
-                .setExpiration(validUntil)
-                .signWith(SignatureAlgorithm.HS256, SECRET)
+    @Test
+    void testValidateToken_whenSignedWithSharedSecret_shouldThrowException() {
+        String token = Jwts.builder()
+                .setHeaderParam("kid", signingKeyService.signingKey().kid())
+                .setSubject("testUser")
+                .signWith(Keys.secretKeyFor(SignatureAlgorithm.HS256), SignatureAlgorithm.HS256)
                 .compact();
 
-        String result = jwtService.createToken(user.getUsername() , roles);
-        assertEquals(expectedJws, result);
+        assertThrows(Exception.class, () -> jwtService.validateToken(token));
     }
 
-    @Test //IS IT POSSIBLE THAT TWO PARTS IN ONE TEST FUNCTION POSSIBLE GENERATE-CREATE ?
-    void testGenerateToken_whenUserDoesNotExist_shouldThrowException() {
-        String username = "";
+    @Test
+    void testCreateToken_whenUserExists_shouldReturnToken() {
+        Role role = generateRole();
+        User user = generateUser(role);
 
-        when(userRepository.findByUsername(username)).thenThrow(new RuntimeException());
+        long before = System.currentTimeMillis();
+        String result = jwtService.createToken(user.getUsername() , List.of(role.getRolename()), "session-1");
+        long after = System.currentTimeMillis();
+
+        Jws<Claims> jws = Jwts.parserBuilder()
+                .setSigningKey(signingKeyService.verificationKey(signingKeyService.signingKey().kid()))
+                .build()
+                .parseClaimsJws(result);
+        assertEquals("ES256", jws.getHeader().getAlgorithm());
+        assertEquals(signingKeyService.signingKey().kid(), jws.getHeader().getKeyId());
+        assertEquals(List.of("ROLE_USER"), jws.getBody().get("authorities"));
+        assertEquals("session-1", jws.getBody().get("sid"));
+        long validity = jws.getBody().getExpiration().getTime() - jws.getBody().getIssuedAt().getTime();
+        assertEquals(JwtService.TOKEN_VALIDITY.toMillis(), validity);
+        long issuedAt = new BigDecimal(jws.getBody().get(Claims.ISSUED_AT).toString()).movePointRight(3).longValue();
+        assertTrue(issuedAt >= before && issuedAt <= after);
+    }
 
-        assertThrows(RuntimeException.class, () -> {
-            jwtService.generateToken(username);
-        });
+    @Test
+    void testGenerateToken_whenAuthenticated_shouldUseLoadedAuthorities() {
+        Authentication authentication = new UsernamePasswordAuthenticationToken("testUser", null,
+                List.of(new SimpleGrantedAuthority("CASHIER"), new SimpleGrantedAuthority("MANAGER")));
+
+        String token = jwtService.generateToken(authentication, "session-1");
+
+        Claims claims = Jwts.parserBuilder()
+                .setSigningKey(signingKeyService.verificationKey(signingKeyService.signingKey().kid()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+        assertEquals("testUser", claims.getSubject());
+        assertEquals(List.of("CASHIER", "MANAGER"), claims.get("authorities"));
     }
 
     private User generateUser(Role role){
@@ -121,4 +154,4 @@ class JwtServiceTest {
 
         return role;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,85 @@
+package com.toyota.token.service;
+
+import com.toyota.token.dto.AuthResponseDto;
+import com.toyota.token.exception.TooManyLoginsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class LoginServiceTest {
+    private AuthenticationManager authenticationManager;
+    private AuthService authService;
+    private LoginService loginService;
+
+    @BeforeEach
+    void setUp() {
+        authenticationManager = mock(AuthenticationManager.class);
+        authService = mock(AuthService.class);
+
+        loginService = new LoginService(authenticationManager, authService, 1, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        loginService.shutdown();
+    }
+
+    @Test
+    void testLogin_whenCredentialsAreValid_shouldReturnTokenFromLoginThread() throws Exception {
+        Authentication authenticated = new UsernamePasswordAuthenticationToken("cashier", null, List.of());
+        when(authenticationManager.authenticate(any())).thenAnswer(invocation -> {
+            assertTrue(Thread.currentThread().getName().startsWith("login-"));
+            return authenticated;
+        });
+        AuthResponseDto tokens = new AuthResponseDto("token", "refresh", 3600);
+        when(authService.issueTokens(authenticated)).thenReturn(tokens);
+
+        assertSame(tokens, loginService.login("cashier", "secret").get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testLogin_whenCredentialsAreInvalid_shouldCompleteExceptionally() {
+        when(authenticationManager.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> loginService.login("cashier", "wrong").get(5, TimeUnit.SECONDS));
+
+        assertInstanceOf(BadCredentialsException.class, e.getCause());
+        verifyNoInteractions(authService);
+    }
+
+    @Test
+    void testLogin_whenPoolAndQueueAreFull_shouldThrowTooManyLoginsException() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(authenticationManager.authenticate(any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new UsernamePasswordAuthenticationToken("cashier", null, List.of());
+        });
+
+        CompletableFuture<AuthResponseDto> running = loginService.login("cashier", "secret");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<AuthResponseDto> queued = loginService.login("cashier", "secret");
+
+        assertThrows(TooManyLoginsException.class, () -> loginService.login("cashier", "secret"));
+
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,141 @@
+package com.toyota.token.service;
+
+import com.toyota.token.entity.RefreshToken;
+import com.toyota.token.exception.InvalidRefreshTokenException;
+import com.toyota.token.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RefreshTokenServiceTest {
+    private RefreshTokenRepository refreshTokenRepository;
+    private TokenRevocationService tokenRevocationService;
+    private RefreshTokenService refreshTokenService;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository = mock(RefreshTokenRepository.class);
+        when(refreshTokenRepository.save(any(RefreshToken.class))).thenAnswer(i -> i.getArgument(0));
+
+        tokenRevocationService = mock(TokenRevocationService.class);
+
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, tokenRevocationService, Duration.ofDays(1));
+    }
+
+    @Test
+    void testIssue_shouldStoreOnlyHashOfToken() {
+        String token = refreshTokenService.issue("cashier").refreshToken();
+
+        RefreshToken stored = captureSaved();
+        assertEquals("cashier", stored.getUsername());
+        assertEquals(RefreshTokenService.hash(token), stored.getTokenHash());
+        assertNotEquals(token, stored.getTokenHash());
+        assertEquals(43, stored.getTokenHash().length());
+        assertTrue(stored.getExpiresAt().isAfter(LocalDateTime.now().plusHours(23)));
+    }
+
+    @Test
+    void testRotate_whenTokenIsValid_shouldRevokeItAndIssueNextOfSameFamily() {
+        RefreshToken stored = storedToken("old-token", 7L, LocalDateTime.now().plusHours(1));
+        when(refreshTokenRepository.revoke(stored.getId())).thenReturn(1);
+
+        RefreshTokenService.Session session = refreshTokenService.rotate("old-token");
+
+        assertEquals("cashier", session.username());
+        assertEquals("7", session.sessionId());
+        assertNotEquals("old-token", session.refreshToken());
+        RefreshToken next = captureSaved();
+        assertEquals(7L, next.getFamilyId());
+        assertEquals(RefreshTokenService.hash(session.refreshToken()), next.getTokenHash());
+        verify(refreshTokenRepository, never()).revokeFamily(anyLong());
+        verify(tokenRevocationService, never()).revokeSession(any());
+    }
+
+    @Test
+    void testRotate_whenTokenWasAlreadyUsed_shouldRevokeFamilyAndItsAccessTokens() {
+        storedToken("old-token", 7L, LocalDateTime.now().plusHours(1));
+        when(refreshTokenRepository.revoke(any())).thenReturn(0);
+        when(refreshTokenRepository.revokeFamily(7L)).thenReturn(1);
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate("old-token"));
+
+        verify(refreshTokenRepository).revokeFamily(7L);
+        verify(tokenRevocationService).revokeSession("7");
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void testRotate_whenFamilyIsAlreadyRevoked_shouldNotRevokeSessionAgain() {
+        storedToken("old-token", 7L, LocalDateTime.now().plusHours(1));
+        when(refreshTokenRepository.revoke(any())).thenReturn(0);
+        when(refreshTokenRepository.revokeFamily(7L)).thenReturn(0);
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate("old-token"));
+
+        verify(tokenRevocationService, never()).revokeSession(any());
+    }
+
+    @Test
+    void testRotate_whenUserWasRevokedAfterTokenWasIssued_shouldRevokeFamily() {
+        RefreshToken stored = storedToken("old-token", 7L, LocalDateTime.now().plusHours(1));
+        when(tokenRevocationService.isUserRevoked("cashier", stored.getCreatedDate())).thenReturn(true);
+        when(refreshTokenRepository.revokeFamily(7L)).thenReturn(1);
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate("old-token"));
+
+        verify(tokenRevocationService).revokeSession("7");
+        verify(refreshTokenRepository, never()).revoke(any());
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void testRotate_whenTokenHasExpired_shouldThrowInvalidRefreshTokenException() {
+        storedToken("old-token", 7L, LocalDateTime.now().minusMinutes(1));
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate("old-token"));
+
+        verify(refreshTokenRepository, never()).revoke(any());
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void testRotate_whenTokenIsUnknown_shouldThrowInvalidRefreshTokenException() {
+        when(refreshTokenRepository.findByTokenHash(any())).thenReturn(Optional.empty());
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate("unknown"));
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(null));
+    }
+
+    @Test
+    void testRevoke_shouldRevokeFamilyAndItsAccessTokens() {
+        storedToken("old-token", 7L, LocalDateTime.now().plusHours(1));
+
+        when(refreshTokenRepository.revokeFamily(7L)).thenReturn(2);
+
+        refreshTokenService.revoke("old-token");
+
+        verify(refreshTokenRepository).revokeFamily(7L);
+        verify(tokenRevocationService).revokeSession("7");
+    }
+
+    private RefreshToken storedToken(String token, long familyId, LocalDateTime expiresAt){
+        RefreshToken stored = new RefreshToken(RefreshTokenService.hash(token), "cashier", familyId,
+                expiresAt.minusDays(1), expiresAt);
+        when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash(token))).thenReturn(Optional.of(stored));
+        return stored;
+    }
+
+    private RefreshToken captureSaved(){
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        return captor.getValue();
+    }
+}
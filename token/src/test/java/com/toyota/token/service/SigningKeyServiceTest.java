@@ -0,0 +1,170 @@
+package com.toyota.token.service;
+
+import com.toyota.token.dto.JsonWebKey;
+import com.toyota.token.entity.SigningKey;
+import com.toyota.token.repository.SigningKeyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigInteger;
+import java.security.interfaces.ECPublicKey;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SigningKeyServiceTest {
+    private static final String KEK = "test-signing-key-encryption-key-0123456789";
+    private SigningKeyRepository signingKeyRepository;
+    private SigningKeyCipher signingKeyCipher;
+    private SigningKeyService signingKeyService;
+
+    @BeforeEach
+    void setUp() {
+        signingKeyRepository = mock(SigningKeyRepository.class);
+        when(signingKeyRepository.save(any(SigningKey.class))).thenAnswer(i -> i.getArgument(0));
+
+        signingKeyCipher = new SigningKeyCipher(KEK);
+        signingKeyService = new SigningKeyService(signingKeyRepository, signingKeyCipher,
+                Duration.ofDays(1), Duration.ofMinutes(10));
+    }
+
+    @Test
+    void testRefresh_whenNoKeyExists_shouldCreateActiveKey() {
+        when(signingKeyRepository.findAllByOrderByActivatesAtAsc()).thenReturn(List.of());
+
+        signingKeyService.refresh();
+
+        SigningKey created = captureSaved();
+        assertFalse(created.getActivatesAt().isAfter(LocalDateTime.now()));
+        assertEquals(created.getKid(), signingKeyService.signingKey().kid());
+        assertEquals("EC", signingKeyService.signingKey().key().getAlgorithm());
+    }
+
+    @Test
+    void testJwks_shouldPublishCoordinatesOfPublicKey() {
+        when(signingKeyRepository.findAllByOrderByActivatesAtAsc()).thenReturn(List.of());
+
+        List<JsonWebKey> keys = signingKeyService.jwks().keys();
+
+        assertEquals(1, keys.size());
+        JsonWebKey jwk = keys.get(0);
+        assertEquals("EC", jwk.kty());
+        assertEquals("P-256", jwk.crv());
+        assertEquals("ES256", jwk.alg());
+        ECPublicKey publicKey = (ECPublicKey) signingKeyService.verificationKey(jwk.kid());
+        assertEquals(publicKey.getW().getAffineX(), new BigInteger(1, Base64.getUrlDecoder().decode(jwk.x())));
+        assertEquals(publicKey.getW().getAffineY(), new BigInteger(1, Base64.getUrlDecoder().decode(jwk.y())));
+        assertEquals(43, jwk.x().length());
+        assertEquals(43, jwk.y().length());
+    }
+
+    @Test
+    void testRefresh_whenNewestKeyIsOlderThanRotation_shouldPublishNextKeyBeforeSigningWithIt() {
+        SigningKey current = generateKey(LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(2));
+        when(signingKeyRepository.findAllByOrderByActivatesAtAsc()).thenReturn(List.of(current));
+
+        signingKeyService.refresh();
+
+        SigningKey next = captureSaved();
+        assertTrue(next.getActivatesAt().isAfter(LocalDateTime.now().plusMinutes(9)));
+        assertEquals(current.getKid(), signingKeyService.signingKey().kid());
+        assertNotNull(signingKeyService.verificationKey(next.getKid()));
+        assertEquals(2, signingKeyService.jwks().keys().size());
+    }
+
+    @Test
+    void testRefresh_whenNextKeyIsActive_shouldSignWithIt() {
+        SigningKey old = generateKey(LocalDateTime.now().minusDays(1).minusMinutes(20), LocalDateTime.now().minusDays(1));
+        SigningKey next = generateKey(LocalDateTime.now().minusMinutes(20), LocalDateTime.now().minusMinutes(10));
+        when(signingKeyRepository.findAllByOrderByActivatesAtAsc()).thenReturn(List.of(old, next));
+
+        signingKeyService.refresh();
+
+        verify(signingKeyRepository, never()).save(any());
+        verify(signingKeyRepository, never()).deleteAllInBatch(any());
+        assertEquals(next.getKid(), signingKeyService.signingKey().kid());
+        assertNotNull(signingKeyService.verificationKey(old.getKid()));
+    }
+
+    @Test
+    void testRefresh_whenTokensOfOldKeyExpired_shouldDeleteIt() {
+        SigningKey old = generateKey(LocalDateTime.now().minusDays(1).minusHours(2), LocalDateTime.now().minusDays(1));
+        SigningKey next = generateKey(LocalDateTime.now().minusHours(2), LocalDateTime.now().minusHours(2));
+        when(signingKeyRepository.findAllByOrderByActivatesAtAsc()).thenReturn(new ArrayList<>(List.of(old, next)));
+
+        signingKeyService.refresh();
+
+        verify(signingKeyRepository).deleteAllInBatch(List.of(old));
+        assertNull(signingKeyService.verificationKey(old.getKid()));
+        assertEquals(next.getKid(), signingKeyService.signingKey().kid());
+    }
+
+    @Test
+    void testRefresh_whenKeyIsCreated_shouldStoreItsPrivateKeyEncrypted() {
+        when(signingKeyRepository.findAllByOrderByActivatesAtAsc()).thenReturn(List.of());
+
+        signingKeyService.refresh();
+
+        SigningKey created = captureSaved();
+        String plain = Base64.getEncoder().encodeToString(signingKeyService.signingKey().key().getEncoded());
+        assertTrue(created.getPrivateKey().startsWith("v1:"));
+        assertFalse(created.getPrivateKey().contains(plain));
+        assertArrayEquals(signingKeyService.signingKey().key().getEncoded(),
+                signingKeyCipher.decrypt(created.getKid(), created.getPrivateKey()));
+    }
+
+    @Test
+    void testRefresh_whenKeyWasStoredInPlain_shouldEncryptItAndKeepSigningWithIt() {
+        SigningKey current = generateKey(LocalDateTime.now().minusHours(1), LocalDateTime.now().minusHours(1));
+        byte[] privateKey = signingKeyCipher.decrypt(current.getKid(), current.getPrivateKey());
+        current.setPrivateKey(Base64.getEncoder().encodeToString(privateKey));
+        when(signingKeyRepository.findAllByOrderByActivatesAtAsc()).thenReturn(List.of(current));
+
+        signingKeyService.refresh();
+
+        verify(signingKeyRepository).saveAll(List.of(current));
+        assertTrue(current.getPrivateKey().startsWith("v1:"));
+        assertArrayEquals(privateKey, signingKeyService.signingKey().key().getEncoded());
+    }
+
+    @Test
+    void testRefresh_whenKeyWasEncryptedUnderAnotherKek_shouldFail() {
+        SigningKey current = generateKey(LocalDateTime.now().minusHours(1), LocalDateTime.now().minusHours(1));
+        when(signingKeyRepository.findAllByOrderByActivatesAtAsc()).thenReturn(List.of(current));
+        SigningKeyService otherService = new SigningKeyService(signingKeyRepository,
+                new SigningKeyCipher("another-signing-key-encryption-key-0123456789"),
+                Duration.ofDays(1), Duration.ofMinutes(10));
+
+        assertThrows(IllegalStateException.class, otherService::refresh);
+    }
+
+    @Test
+    void testDecrypt_whenKeyIdDoesNotMatch_shouldFail() {
+        String encrypted = signingKeyCipher.encrypt("kid-1", new byte[]{1, 2, 3});
+
+        assertArrayEquals(new byte[]{1, 2, 3}, signingKeyCipher.decrypt("kid-1", encrypted));
+        assertThrows(IllegalStateException.class, () -> signingKeyCipher.decrypt("kid-2", encrypted));
+    }
+
+    private SigningKey captureSaved(){
+        ArgumentCaptor<SigningKey> captor = ArgumentCaptor.forClass(SigningKey.class);
+        verify(signingKeyRepository).save(captor.capture());
+        return captor.getValue();
+    }
+
+    private SigningKey generateKey(LocalDateTime createdDate, LocalDateTime activatesAt){
+        SigningKeyRepository repository = mock(SigningKeyRepository.class);
+        when(repository.save(any(SigningKey.class))).thenAnswer(i -> i.getArgument(0));
+        new SigningKeyService(repository, signingKeyCipher, Duration.ofDays(1), Duration.ZERO).refresh();
+        ArgumentCaptor<SigningKey> captor = ArgumentCaptor.forClass(SigningKey.class);
+        verify(repository).save(captor.capture());
+        SigningKey key = captor.getValue();
+        return new SigningKey(key.getKid(), key.getPrivateKey(), key.getPublicKey(), createdDate, activatesAt);
+    }
+}
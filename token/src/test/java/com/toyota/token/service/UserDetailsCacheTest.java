@@ -0,0 +1,73 @@
+package com.toyota.token.service;
+
+import com.toyota.token.repository.UserRepository;
+import com.toyota.token.service.UserDetailsCache.CachedUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserDetailsCacheTest {
+    private UserRepository userRepository;
+    private UserDetailsCache userDetailsCache;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+
+        userDetailsCache = new UserDetailsCache(userRepository, 2, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void testPut_whenFull_shouldDropLeastRecentlyUsedUser() {
+        userDetailsCache.put(generateUser("a"), 0);
+        userDetailsCache.put(generateUser("b"), 0);
+        userDetailsCache.get("a");
+
+        userDetailsCache.put(generateUser("c"), 0);
+
+        assertNotNull(userDetailsCache.get("a"));
+        assertNull(userDetailsCache.get("b"));
+        assertNotNull(userDetailsCache.get("c"));
+    }
+
+    @Test
+    void testGet_whenEntryIsOlderThanTtl_shouldReturnNull() {
+        userDetailsCache = new UserDetailsCache(userRepository, 2, Duration.ZERO);
+        userDetailsCache.put(generateUser("a"), 0);
+
+        assertNull(userDetailsCache.get("a"));
+    }
+
+    @Test
+    void testCheckForUserChanges_whenUsersChanged_shouldClearCache() {
+        when(userRepository.findChangeCount()).thenReturn(7L);
+        userDetailsCache.checkForUserChanges();
+        userDetailsCache.put(generateUser("a"), userDetailsCache.generation());
+
+        userDetailsCache.checkForUserChanges();
+        assertNotNull(userDetailsCache.get("a"));
+
+        when(userRepository.findChangeCount()).thenReturn(8L);
+        userDetailsCache.checkForUserChanges();
+        assertNull(userDetailsCache.get("a"));
+    }
+
+    @Test
+    void testPut_whenInvalidatedWhileLoading_shouldNotCacheStaleUser() {
+        long generation = userDetailsCache.generation();
+
+        userDetailsCache.invalidateAll();
+        userDetailsCache.put(generateUser("a"), generation);
+
+        assertNull(userDetailsCache.get("a"));
+    }
+
+    private static CachedUser generateUser(String username){
+        return new CachedUser(username, "encoded", List.of("CASHIER"));
+    }
+}
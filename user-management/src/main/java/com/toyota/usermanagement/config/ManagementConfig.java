@@ -1,5 +1,6 @@
 package com.toyota.usermanagement.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -7,8 +8,12 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
 public class ManagementConfig {
+    /**
+     * BCrypt with the configured cost. The token service verifies these hashes and upgrades the ones
+     * made with a lower cost at the next login, so both services should use the same cost.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.password.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 }
@@ -0,0 +1,68 @@
+package com.toyota.usermanagement.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Revokes the tokens of a user before they expire. The table is owned by the token service, which serves
+ * it to the gateway; this service writes a USER revocation whenever a user is changed or deleted, so tokens
+ * issued for the old username, password or roles stop working.
+ */
+@Entity
+@Table(name="token_revocations", indexes = {
+        @Index(name = "idx_token_revocations_revoked_at", columnList = "revokedAt"),
+        @Index(name = "idx_token_revocations_target", columnList = "target")
+})
+public class TokenRevocation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "token_revocations_seq")
+    @SequenceGenerator(name = "token_revocations_seq", sequenceName = "token_revocations_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16, nullable = false)
+    private Kind kind;
+
+    @Column(nullable = false)
+    private String target;
+
+    private LocalDateTime revokedAt;
+
+    private LocalDateTime expiresAt;
+
+    public TokenRevocation() {
+    }
+
+    public TokenRevocation(Kind kind, String target, LocalDateTime revokedAt, LocalDateTime expiresAt) {
+        this.kind = kind;
+        this.target = target;
+        this.revokedAt = revokedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public LocalDateTime getRevokedAt() {
+        return revokedAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public enum Kind {
+        SESSION,
+        USER
+    }
+}
@@ -3,14 +3,17 @@ package com.toyota.usermanagement.entity;
 import jakarta.persistence.*;
 import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.SourceType;
+import org.hibernate.annotations.UpdateTimestamp;
 import org.hibernate.annotations.Where;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name="users")
-@SQLDelete(sql="UPDATE users SET deleted = true WHERE id=?")
+@SQLDelete(sql="UPDATE users SET deleted = true, updated_date = LOCALTIMESTAMP, version = version + 1 WHERE id=? AND version=?")
 @Where(clause = "deleted=false")
 public class User {
 
@@ -32,6 +35,22 @@ public class User {
 
     private boolean deleted = Boolean.FALSE;
 
+    /**
+     * When the user was last saved or deleted, stamped by the database clock.
+     */
+    @UpdateTimestamp(source = SourceType.DB)
+    private LocalDateTime updatedDate;
+
+    /**
+     * Incremented whenever the user is saved, including when only its roles change, and when it is deleted.
+     * The token service watches the number of users plus the sum of their versions to know when its cached
+     * users are out of date. Unlike the latest update time, which is taken when a transaction starts, that
+     * number grows with every change once it commits, whatever order concurrent changes commit in.
+     */
+    @Version
+    @Column(columnDefinition = "bigint default 0 not null")
+    private Long version;
+
     public User() {
 
     }
@@ -63,4 +82,16 @@ public class User {
     public void setRoles(List<Role> roles) {
         this.roles = roles;
     }
+
+    public LocalDateTime getUpdatedDate() {
+        return updatedDate;
+    }
+
+    public void setUpdatedDate(LocalDateTime updatedDate) {
+        this.updatedDate = updatedDate;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
 }
@@ -0,0 +1,18 @@
+package com.toyota.usermanagement.repository;
+
+import com.toyota.usermanagement.entity.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+    /**
+     * Reads the database clock at the time of the call, not at the start of the transaction, so a revocation
+     * is stamped as late before its commit as possible.
+     */
+    @Query(value = "SELECT CAST(clock_timestamp() AS timestamp)", nativeQuery = true)
+    LocalDateTime currentTimestamp();
+}
@@ -2,19 +2,26 @@ package com.toyota.usermanagement.service;
 
 import com.toyota.usermanagement.dto.UserDto;
 import com.toyota.usermanagement.entity.Role;
+import com.toyota.usermanagement.entity.TokenRevocation;
 import com.toyota.usermanagement.entity.User;
 import com.toyota.usermanagement.exception.BadRequestException;
 import com.toyota.usermanagement.exception.NotFoundException;
 import com.toyota.usermanagement.repository.RoleRepository;
+import com.toyota.usermanagement.repository.TokenRevocationRepository;
 import com.toyota.usermanagement.repository.UserRepository;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,11 +30,17 @@ public class UserService{
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder encoder;
+    private final TokenRevocationRepository tokenRevocationRepository;
+    private final Duration revocationTtl;
 
-    public UserService(UserRepository userRepository, RoleRepository roleRepository, PasswordEncoder encoder) {
+    public UserService(UserRepository userRepository, RoleRepository roleRepository, PasswordEncoder encoder,
+                       TokenRevocationRepository tokenRevocationRepository,
+                       @Value("${security.revocation.user-ttl:P1D}") Duration revocationTtl) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.encoder = encoder;
+        this.tokenRevocationRepository = tokenRevocationRepository;
+        this.revocationTtl = revocationTtl;
     }
 
     /**
@@ -118,34 +131,41 @@ public class UserService{
     }
 
     /**
-     * Updates a user's information based on the provided UserDto and ID.
+     * Updates a user's information based on the provided UserDto and ID. The tokens issued to the user
+     * before the update are revoked, so the old password or username can not be used any more.
      *
      * @param userDto The UserDto containing the updated user information.
      * @param userId The ID of the user to update.
      * @return The UserDto representation of the updated user.
      * @throws NotFoundException if the user with the given ID is not found.
      */
+    @Transactional
     public UserDto updateUser(UserDto userDto, String userId) {
         User user = userRepository.findById(userId).orElseThrow(()-> new NotFoundException("User not found"));
+        String oldUsername = user.getUsername();
 
         user.setUsername(userDto.username());
         user.setPassword(encoder.encode(userDto.password()));
 
         User updatedUser = userRepository.save(user);
+        revokeTokens(oldUsername);
 
         logger.info("Updating user object");
         return UserDto.convert(updatedUser);
     }
 
     /**
-     * Deletes a user from the repository by their ID.
+     * Deletes a user from the repository by their ID and revokes the tokens issued to the user.
      *
      * @param userId The ID of the user to delete.
      * @return A string message indicating the result of the operation.
      * @throws NotFoundException if the user with the given ID is not found.
      */
+    @Transactional
     public String deleteUser(String userId) {
-        if(userRepository.existsById(userId)){
+        Optional<User> user = userRepository.findById(userId);
+        if(user.isPresent()){
+            revokeTokens(user.get().getUsername());
             userRepository.deleteById(userId);
             logger.info("User has deleted with id: " + userId);
             return "User has deleted with id: " + userId;
@@ -156,4 +176,18 @@ public class UserService{
         }
     }
 
+    /**
+     * Revokes every access and refresh token issued to the user until now. The revocation is kept for
+     * the lifetime of a refresh token, which outlives any access token. The revocation is stamped with the
+     * database clock, which every revocation is stamped and synced by, so the clock of this instance can not
+     * move it out of the window the gateway syncs.
+     *
+     * @param username The username the tokens were issued for.
+     */
+    private void revokeTokens(String username){
+        LocalDateTime now = tokenRevocationRepository.currentTimestamp();
+        tokenRevocationRepository.save(new TokenRevocation(TokenRevocation.Kind.USER, username, now, now.plus(revocationTtl)));
+        logger.info("Tokens of " + username + " revoked");
+    }
+
 }
@@ -2,20 +2,25 @@ package com.toyota.usermanagement.service;
 
 import com.toyota.usermanagement.dto.UserDto;
 import com.toyota.usermanagement.entity.Role;
+import com.toyota.usermanagement.entity.TokenRevocation;
 import com.toyota.usermanagement.entity.User;
 import com.toyota.usermanagement.exception.BadRequestException;
 import com.toyota.usermanagement.exception.NotFoundException;
 import com.toyota.usermanagement.repository.RoleRepository;
+import com.toyota.usermanagement.repository.TokenRevocationRepository;
 import com.toyota.usermanagement.repository.UserRepository;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import javax.management.relation.RoleNotFoundException;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -31,6 +36,8 @@ class UserServiceTest {
     private UserRepository userRepository;
     private RoleRepository roleRepository;
     private PasswordEncoder passwordEncoder;
+    private TokenRevocationRepository tokenRevocationRepository;
+    private LocalDateTime databaseNow;
     private MockedStatic<UserDto> mockStatic;
 
     @BeforeEach
@@ -38,9 +45,13 @@ class UserServiceTest {
         userRepository = Mockito.mock(UserRepository.class);
         roleRepository = Mockito.mock(RoleRepository.class);
         passwordEncoder = Mockito.mock(PasswordEncoder.class);
+        tokenRevocationRepository = Mockito.mock(TokenRevocationRepository.class);
+        databaseNow = LocalDateTime.now().minusMinutes(5);
+        when(tokenRevocationRepository.currentTimestamp()).thenReturn(databaseNow);
         mockStatic = Mockito.mockStatic(UserDto.class);
 
-        userService = new UserService(userRepository, roleRepository, passwordEncoder);
+        userService = new UserService(userRepository, roleRepository, passwordEncoder,
+                tokenRevocationRepository, Duration.ofDays(1));
     }
 
     @Test
@@ -204,6 +215,7 @@ class UserServiceTest {
         String expectedPassword = "encodedPassword";
 
         assertEquals(expectedUserDto, result);
+        assertRevoked("testUser");
     }
 
     @Test
@@ -231,25 +243,41 @@ class UserServiceTest {
     void testDeleteUser_whenUserExists_shouldDeleteUser() {
         String userId = "0";
 
-        when(userRepository.existsById(userId)).thenReturn(true);
+        User user = new User();
+        user.setUsername("testUser");
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         doNothing().when(userRepository).deleteById(userId);
 
         String result = userService.deleteUser(userId);
         String expected = "User has deleted with id: " + userId;
 
         assertEquals(expected, result);
+        verify(userRepository).deleteById(userId);
+        assertRevoked("testUser");
     }
 
     @Test
     void testDeleteUser_whenUserDoesNotExist_shouldReturnMessage() {
         String userId = "0";
 
-        when(userRepository.existsById(userId)).thenReturn(false);
+        when(userRepository.findById(userId)).thenReturn(Optional.empty());
 
         String result = userService.deleteUser(userId);
         String expected = "User not found with id: " + userId;
 
         assertEquals(expected, result);
+        verifyNoInteractions(tokenRevocationRepository);
+    }
+
+    private void assertRevoked(String username) {
+        ArgumentCaptor<TokenRevocation> captor = ArgumentCaptor.forClass(TokenRevocation.class);
+        verify(tokenRevocationRepository).save(captor.capture());
+        TokenRevocation revocation = captor.getValue();
+        assertEquals(TokenRevocation.Kind.USER, revocation.getKind());
+        assertEquals(username, revocation.getTarget());
+        assertEquals(databaseNow, revocation.getRevokedAt());
+        assertEquals(databaseNow.plusDays(1), revocation.getExpiresAt());
     }
     @AfterEach
     public void afterEach() {